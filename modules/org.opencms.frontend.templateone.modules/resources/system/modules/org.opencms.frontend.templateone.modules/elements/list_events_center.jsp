@@ -12,7 +12,54 @@ pageContext.setAttribute("locale", locale);
 boolean showNumber = Integer.parseInt(request.getParameter("elementcount")) == Integer.MAX_VALUE;
 pageContext.setAttribute("shownumber", "" + showNumber);
 
-%><cms:contentload collector="%(param.collector)" param="%(param.folder)event_%(number).html|event|%(param.elementcount)" preload="true"><%--
+// the online lists are rendered from the list views kept in memory
+CmsListView listView = cms.getListView(request.getParameter("folder"), "event", request.getParameter("elementcount"), new String[] {"Title", "ShortDescription", "EventDates/EventDate", "RegistrationClose"});
+if (listView != null) {
+	int pageIndex = 1;
+	try {
+		pageIndex = Math.max(1, Integer.parseInt(request.getParameter("pageIndex")));
+	} catch (NumberFormatException e) {
+		// missing or invalid page index, show the first page
+	}
+	pageContext.setAttribute("listPage", listView.getPage(pageIndex, Integer.parseInt(request.getParameter("count")), 10));
+}
+
+%><c:choose><%--
+--%><c:when test="${listPage != null}"><c:if test="${!empty listPage.entries}"><%--
+
+--%><fmt:setLocale value="${locale}" /><%--
+--%><fmt:bundle basename="org/opencms/frontend/templateone/modules/workplace"><%--
+
+--%><c:forEach var="entry" items="${listPage.entries}" varStatus="status"><%--
+--%><c:if test="${status.first}"><c:if test="${shownumber == 'true' && listPage.pageCount > 1}"><p><fmt:message key="navbar.center.resultsize" />: <c:out value="${listPage.resultSize}" /></c:if><%--
+--%><c:if test="${listPage.resultSize > listPage.pageSize}">
+&nbsp;|&nbsp;
+<fmt:message key="navbar.center.pagelinks" />:&nbsp;
+<c:forEach var="i" begin="${listPage.pageNavStartIndex}" end="${listPage.pageNavEndIndex}">
+<c:choose>
+<c:when test="${i == listPage.pageIndex}">
+[<c:out value="${i}" />]&nbsp;
+</c:when>
+<c:otherwise>
+[<a href="<cms:link><%= cms.getRequestContext().getUri() %>?pageIndex=<c:out value="${i}" /></cms:link>"><c:out value="${i}" /></a>]&nbsp;
+</c:otherwise>
+</c:choose>
+</c:forEach>
+</c:if>
+<c:if test="${shownumber == 'true'}"></p></c:if>
+</c:if>
+<p style="margin-top: 8px; padding-top: 0px;">
+<a href="<cms:link><c:out value="${entry.fileName}" />?uri=<%= cms.getRequestContext().getUri() %></cms:link>"><b><c:out value="${entry.values['Title']}" escapeXml="false" /></b></a><br>
+<c:if test="${entry.values['ShortDescription'] != null}"><c:out value="${entry.values['ShortDescription']}" escapeXml="false" /><br></c:if>
+<fmt:message key="eventarticle.eventdate" />: <fmt:formatDate value="${entry.dates['EventDates/EventDate']}" type="date" pattern="EEEE" />, <fmt:formatDate value="${entry.dates['EventDates/EventDate']}" dateStyle="long" type="date" /><br>
+<c:if test="${entry.values['RegistrationClose'] != null}">
+<fmt:message key="eventarticle.registrationclose" />: <fmt:formatDate value="${entry.dates['RegistrationClose']}" /><br>
+</c:if>
+<small><a href="<cms:link><c:out value="${entry.fileName}" />?uri=<%= cms.getRequestContext().getUri() %></cms:link>"><fmt:message key="item.readmore" /></a></small>
+</p>
+</c:forEach><%--
+--%></fmt:bundle></c:if></c:when><%--
+--%><c:otherwise><cms:contentload collector="%(param.collector)" param="%(param.folder)event_%(number).html|event|%(param.elementcount)" preload="true"><%--
 
 --%><cms:contentinfo var="contentInfoOuter" scope="request" /><%--
 --%><c:if test="${! contentInfoOuter.emptyResult}"><%--
@@ -69,4 +116,5 @@ pageContext.setAttribute("shownumber", "" + showNumber);
 <small><a href="<cms:link><cms:contentshow element="%(opencms.filename)" />?uri=<%= cms.getRequestContext().getUri() %></cms:link>"><fmt:message key="item.readmore" /></a></small>
 </p>
 </cms:contentload><%--
---%></fmt:bundle></c:if></cms:contentload>
\ No newline at end of file
+--%></fmt:bundle></c:if></cms:contentload></c:otherwise><%--
+--%></c:choose>
\ No newline at end of file
@@ -12,7 +12,27 @@ pageContext.setAttribute("locale", locale);
 String folder = request.getParameter("folder");
 String folderTitle = cms.property("Title", folder, "");
 
-%><cms:contentload collector="%(param.collector)" param="%(param.folder)event_%(number).html|event|%(param.count)" preload="true"><%--
+// the online lists are rendered from the list views kept in memory
+CmsListView listView = cms.getListView(folder, "event", request.getParameter("count"), new String[] {"Title", "EventDates/EventDate", "ShortDescription"});
+pageContext.setAttribute("listView", listView);
+
+%><c:choose><%--
+--%><c:when test="${listView != null}"><c:if test="${!empty listView.entries}"><%--
+
+--%><fmt:setLocale value="${locale}" /><%--
+--%><fmt:bundle basename="org/opencms/frontend/templateone/modules/workplace"><%--
+
+--%><div class="sidelist">
+<p class="sidelisthead"><% if (!"".equals(folderTitle)) { out.print(folderTitle); } else { %><fmt:message key="events.headline" /><% } %></p>
+<c:forEach var="entry" items="${listView.entries}">
+
+<p class="sidelistitem"><a class="sidelistitemhead" href="<cms:link><c:out value="${entry.fileName}" />?uri=<%= cms.getRequestContext().getUri() %></cms:link>"><c:out value="${entry.values['Title']}" escapeXml="false" /></a><br>
+<c:if test="${entry.values['EventDates/EventDate'] != null}"><fmt:formatDate value="${entry.dates['EventDates/EventDate']}" type="date" pattern="EE" />, <fmt:formatDate value="${entry.dates['EventDates/EventDate']}" type="date" dateStyle="short" /><c:if test="${entry.values['ShortDescription'] != null}"> - </c:if></c:if><c:if test="${entry.values['ShortDescription'] != null}"><c:out value="${entry.values['ShortDescription']}" escapeXml="false" /></c:if>
+</p>
+
+</c:forEach></div><%--
+--%></fmt:bundle></c:if></c:when><%--
+--%><c:otherwise><cms:contentload collector="%(param.collector)" param="%(param.folder)event_%(number).html|event|%(param.count)" preload="true"><%--
 
 --%><cms:contentinfo var="contentInfo" scope="request" /><%--
 --%><c:if test="${! contentInfo.emptyResult}"><%--
@@ -35,4 +55,5 @@ String folderTitle = cms.property("Title", folder, "");
 </p>
 
 </cms:contentload></div><%--
---%></fmt:bundle></c:if></cms:contentload>
\ No newline at end of file
+--%></fmt:bundle></c:if></cms:contentload></c:otherwise><%--
+--%></c:choose>
\ No newline at end of file
@@ -18,6 +18,18 @@ pageContext.setAttribute("catfolder", folder);
 int count = cms.getResourceCount(folder, "job");
 pageContext.setAttribute("rescount", "" + count);
 
+// the online lists are rendered from the list views kept in memory
+CmsListView listView = cms.getListView(folder, "job", request.getParameter("elementcount"), new String[] {"Title", "ShortDescription"});
+if (listView != null) {
+	int pageIndex = 1;
+	try {
+		pageIndex = Math.max(1, Integer.parseInt(request.getParameter("pageIndex")));
+	} catch (NumberFormatException e) {
+		// missing or invalid page index, show the first page
+	}
+	pageContext.setAttribute("listPage", listView.getPage(pageIndex, Integer.parseInt(request.getParameter("count")), 10));
+}
+
 %><fmt:setLocale value="${locale}" /><%--
 --%><fmt:bundle basename="org/opencms/frontend/templateone/modules/workplace"><%
 
@@ -44,7 +56,32 @@ if (cms.hasCategoryFolders()) {
 <c:choose>
 <c:when test="${(rescount != '0') && (rescount != '-1')}"><%--
 
---%><cms:contentload collector="%(param.collector)" param="%(pageContext.catfolder)job_%(number).html|job|%(param.elementcount)" editable="true" pageSize="%(param.count)" pageIndex="%(param.pageIndex)" pageNavLength="10"><%--
+--%><c:choose><%--
+--%><c:when test="${listPage != null}"><c:forEach var="entry" items="${listPage.entries}" varStatus="status"><%--
+--%><c:if test="${status.first}"><c:if test="${shownumber == 'true' && listPage.pageCount > 1}"><p><fmt:message key="navbar.center.resultsize" />: <c:out value="${listPage.resultSize}" /></c:if><%--
+--%><c:if test="${listPage.resultSize > listPage.pageSize}">
+&nbsp;|&nbsp;
+<fmt:message key="navbar.center.pagelinks" />:&nbsp;
+<c:forEach var="i" begin="${listPage.pageNavStartIndex}" end="${listPage.pageNavEndIndex}">
+<c:choose>
+<c:when test="${i == listPage.pageIndex}">
+[<c:out value="${i}" />]&nbsp;
+</c:when>
+<c:otherwise>
+[<a href="<cms:link><%= cms.getRequestContext().getUri() %>?pageIndex=<c:out value="${i}" />&categoryfolder=<c:out value="${catfolder}" /></cms:link>"><c:out value="${i}" /></a>]&nbsp;
+</c:otherwise>
+</c:choose>
+</c:forEach>
+</c:if>
+<c:if test="${shownumber == 'true'}"></p></c:if>
+</c:if>
+<p style="margin-top: 8px; padding-top: 0px;">
+<a href="<cms:link><c:out value="${entry.fileName}" />?uri=<%= cms.getRequestContext().getUri() %>&categoryfolder=<%= folder %></cms:link>"><b><c:out value="${entry.values['Title']}" escapeXml="false" /></b></a><br>
+<c:out value="${entry.values['ShortDescription']}" escapeXml="false" />
+<small><a href="<cms:link><c:out value="${entry.fileName}" />?uri=<%= cms.getRequestContext().getUri() %>&categoryfolder=<%= folder %></cms:link>"><fmt:message key="item.readmore" /></a></small>
+</p>
+</c:forEach></c:when><%--
+--%><c:otherwise><cms:contentload collector="%(param.collector)" param="%(pageContext.catfolder)job_%(number).html|job|%(param.elementcount)" editable="true" pageSize="%(param.count)" pageIndex="%(param.pageIndex)" pageNavLength="10"><%--
 --%><cms:contentinfo var="contentInfo" scope="request" /><%--
 
 --%><c:if test="${(contentInfo.resultIndex % contentInfo.pageSize) == 1}"><%--
@@ -76,7 +113,8 @@ if (cms.hasCategoryFolders()) {
 <cms:contentshow element="ShortDescription" />
 <small><a href="<cms:link><cms:contentshow element="%(opencms.filename)" />?uri=<%= cms.getRequestContext().getUri() %>&categoryfolder=<%= folder %></cms:link>"><fmt:message key="item.readmore" /></a></small>
 </p>
-</cms:contentload><%--
+</cms:contentload></c:otherwise><%--
+--%></c:choose><%--
 --%></c:when><%--
 
 --%><c:otherwise>
@@ -12,7 +12,28 @@ pageContext.setAttribute("locale", locale);
 String folder = request.getParameter("folder");
 String folderTitle = cms.property("Title", folder, "");
 
-%><cms:contentload collector="%(param.collector)" param="%(param.folder)job_%(number).html|job|%(param.count)" preload="true"><%--
+// the online lists are rendered from the list views kept in memory
+CmsListView listView = cms.getListView(folder, "job", request.getParameter("count"), new String[] {"Title", "Date", "ShortDescription"});
+pageContext.setAttribute("listView", listView);
+
+%><c:choose><%--
+--%><c:when test="${listView != null}"><c:if test="${!empty listView.entries}"><%--
+
+--%><fmt:setLocale value="${locale}" /><%--
+--%><fmt:bundle basename="org/opencms/frontend/templateone/modules/workplace"><%--
+
+--%><div class="sidelist">
+<p class="sidelisthead"><% if (!"".equals(folderTitle)) { out.print(folderTitle); } else { %><fmt:message key="jobs.headline" /><% } %></p>
+<c:forEach var="entry" items="${listView.entries}">
+
+<p class="sidelistitem"><a class="sidelistitemhead" href="<cms:link><c:out value="${entry.fileName}" />?uri=<%= cms.getRequestContext().getUri() %></cms:link>"><c:out value="${entry.values['Title']}" escapeXml="false" /></a><br>
+<c:if test="${entry.values['Date'] != null}">
+<fmt:formatDate value="${entry.dates['Date']}" type="date" dateStyle="short" /> - </c:if><c:out value="${entry.values['ShortDescription']}" escapeXml="false" />
+</p>
+
+</c:forEach></div><%--
+--%></fmt:bundle></c:if></c:when><%--
+--%><c:otherwise><cms:contentload collector="%(param.collector)" param="%(param.folder)job_%(number).html|job|%(param.count)" preload="true"><%--
 
 --%><cms:contentinfo var="contentInfo" scope="request" /><%--
 --%><c:if test="${! contentInfo.emptyResult}"><%--
@@ -36,4 +57,5 @@ String folderTitle = cms.property("Title", folder, "");
 </p>
 
 </cms:contentload></div><%--
---%></fmt:bundle></c:if></cms:contentload>
\ No newline at end of file
+--%></fmt:bundle></c:if></cms:contentload></c:otherwise><%--
+--%></c:choose>
\ No newline at end of file
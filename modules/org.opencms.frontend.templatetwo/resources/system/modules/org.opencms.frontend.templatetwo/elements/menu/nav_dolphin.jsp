@@ -18,7 +18,7 @@
 	CmsTemplateMenu cms = new CmsTemplateMenu(pageContext, request, response);
 	//in order to omit folder levels, set the NavStartLevel property to the level number where 0 is the root "/" level
 	int navStartLevel = Integer.parseInt(cms.property("NavStartLevel", "search", "0"));
-	cms.setElements(cms.getNavigation().getNavigationForFolder(CmsResource.getPathPart(cms.getRequestContext().getFolderUri(), navStartLevel)));
+	cms.setElements(cms.getNavigationForFolder(CmsResource.getPathPart(cms.getRequestContext().getFolderUri(), navStartLevel)));
 	pageContext.setAttribute("cms", cms);
 %>
 
@@ -11,7 +11,7 @@
 
 	CmsTemplateMenu cms = new CmsTemplateMenu(pageContext, request, response);
 	int navStartLevel = Integer.parseInt(cms.property("NavStartLevel", "search", "0")) + 1;
-	cms.setElements(cms.getNavigation().getNavigationTreeForFolder(cms.getRequestContext().getUri(), navStartLevel, navStartLevel + 2));
+	cms.setElements(cms.getNavigationTreeForFolder(cms.getRequestContext().getUri(), navStartLevel, navStartLevel + 2));
 	pageContext.setAttribute("cms", cms);
 %>
 
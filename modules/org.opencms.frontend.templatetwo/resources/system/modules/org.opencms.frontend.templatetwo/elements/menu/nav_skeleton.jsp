@@ -16,7 +16,7 @@
 	CmsTemplateMenu cms = new CmsTemplateMenu(pageContext, request, response);
 	//in order to omit folder levels, set the NavStartLevel property to the level number where 0 is the root "/" level
 	int navStartLevel = Integer.parseInt(cms.property("NavStartLevel", "search", "0"));
-	cms.setElements(cms.getNavigation().getSiteNavigation(CmsResource.getPathPart(cms.getRequestContext().getFolderUri(), navStartLevel), navStartLevel + 5));
+	cms.setElements(cms.getSiteNavigation(CmsResource.getPathPart(cms.getRequestContext().getFolderUri(), navStartLevel), navStartLevel + 5));
 	pageContext.setAttribute("cms", cms); 
 %>
 
@@ -28,9 +28,16 @@
 	<meta name="revisit-after" content="7 days" >
 
 	<!-- insert stylesheets needed for the template -->
-	<c:forEach items="${cms.stylesheets}" var="cssFile">
-		<link href="<cms:link>${cssFile}</cms:link>" rel="stylesheet" type="text/css">		
-	</c:forEach>
+	<c:choose>
+		<c:when test="${!empty cms.stylesheetBundle}">
+			<link href="<cms:link>../resources/css/bundle.css?style=${cms.stylePath}&amp;v=${cms.stylesheetBundle.hash}</cms:link>" rel="stylesheet" type="text/css">
+		</c:when>
+		<c:otherwise>
+			<c:forEach items="${cms.stylesheets}" var="cssFile">
+				<link href="<cms:link>${cssFile}</cms:link>" rel="stylesheet" type="text/css">		
+			</c:forEach>
+		</c:otherwise>
+	</c:choose>
 		
 	<link href="<cms:link>../resources/css/style.css?preset=${cms.presetPath}&amp;style=${cms.stylePath}</cms:link>" rel="stylesheet" type="text/css">
 	<!--[if lte IE 6]>
@@ -27,39 +27,65 @@
 
 package org.opencms.frontend.layoutpage;
 
-import freemarker.cache.StringTemplateLoader;
 import freemarker.template.Configuration;
 import freemarker.template.Template;
 
+import org.opencms.db.CmsPublishedResource;
 import org.opencms.file.CmsObject;
+import org.opencms.file.CmsResource;
 import org.opencms.main.CmsEvent;
 import org.opencms.main.CmsException;
 import org.opencms.main.CmsLog;
 import org.opencms.main.I_CmsEventListener;
 import org.opencms.main.OpenCms;
+import org.opencms.util.CmsUUID;
 
 import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 
 import org.apache.commons.logging.Log;
 
 /**
  * Cache implementation that provides access to cached FreeMarker templates.<p>
  * 
+ * The templates are keyed by the root path of the template file and the project type (online or offline),
+ * all offline projects share the same offline version of the template file. Concurrent requests for
+ * a template that is not cached yet wait for a single load of the template file.<p>
+ * 
+ * A cached offline template is removed when its template file is modified, a cached online template
+ * is removed when its template file is published.<p>
+ * 
  * Use this class with caution! It might be moved to the OpenCms core packages in the future.<p>
  * 
  * @since 6.2.0
  */
 public final class CmsFreeMarkerTemplateCache implements I_CmsEventListener {
 
+    /** Cache key prefix for templates read in the offline project. */
+    private static final String KEY_OFFLINE = "offline:";
+
+    /** Cache key prefix for templates read in the online project. */
+    private static final String KEY_ONLINE = "online:";
+
     /** The log object for this class. */
     private static final Log LOG = CmsLog.getLog(CmsFreeMarkerTemplateCache.class);
 
     /** The singleton instance. */
     private static CmsFreeMarkerTemplateCache m_instance;
 
-    /** The FreeMarker configuration object used for caching. */
+    /** The FreeMarker configuration object used for the templates. */
     private Configuration m_configuration;
 
+    /** The cached templates, the values are the tasks that load the templates. */
+    private ConcurrentHashMap m_templates;
+
     /**
      * Hidden constructor.<p>
      */
@@ -67,9 +93,22 @@ public final class CmsFreeMarkerTemplateCache implements I_CmsEventListener {
 
         // initialize the FreeMarker configuration 
         initConfiguration();
+        m_templates = new ConcurrentHashMap();
 
-        // add an event listener to clear the cache on clear events
-        OpenCms.addCmsEventListener(this);
+        // add an event listener to remove templates on modification, publish and clear events
+        OpenCms.addCmsEventListener(this, new int[] {
+            I_CmsEventListener.EVENT_PUBLISH_PROJECT,
+            I_CmsEventListener.EVENT_CLEAR_CACHES,
+            I_CmsEventListener.EVENT_CLEAR_ONLINE_CACHES,
+            I_CmsEventListener.EVENT_CLEAR_OFFLINE_CACHES,
+            I_CmsEventListener.EVENT_FLEX_CACHE_CLEAR,
+            I_CmsEventListener.EVENT_FLEX_PURGE_JSP_REPOSITORY,
+            I_CmsEventListener.EVENT_RESOURCE_AND_PROPERTIES_MODIFIED,
+            I_CmsEventListener.EVENT_RESOURCE_MODIFIED,
+            I_CmsEventListener.EVENT_RESOURCES_AND_PROPERTIES_MODIFIED,
+            I_CmsEventListener.EVENT_RESOURCES_MODIFIED,
+            I_CmsEventListener.EVENT_RESOURCE_DELETED,
+            I_CmsEventListener.EVENT_RESOURCE_MOVED});
     }
 
     /**
@@ -77,7 +116,7 @@ public final class CmsFreeMarkerTemplateCache implements I_CmsEventListener {
      * 
      * @return an instance of the class
      */
-    public static CmsFreeMarkerTemplateCache getInstance() {
+    public static synchronized CmsFreeMarkerTemplateCache getInstance() {
 
         if (m_instance == null) {
             // initialize the Singleton instance
@@ -87,7 +126,7 @@ public final class CmsFreeMarkerTemplateCache implements I_CmsEventListener {
     }
 
     /**
-     * Implements the CmsEvent interface, clears the cached template parts on publish and clear cache events.<p>
+     * Implements the CmsEvent interface, removes the affected cached templates on modification, publish and clear cache events.<p>
      *
      * @param event CmsEvent that has occurred
      */
@@ -95,109 +134,247 @@ public final class CmsFreeMarkerTemplateCache implements I_CmsEventListener {
 
         switch (event.getType()) {
             case I_CmsEventListener.EVENT_PUBLISH_PROJECT:
+                List rootPaths = getPublishedRootPaths(event);
+                if (rootPaths != null) {
+                    Iterator i = rootPaths.iterator();
+                    while (i.hasNext()) {
+                        removeTemplate(KEY_ONLINE + i.next());
+                    }
+                } else {
+                    // the published resources could not be read
+                    removeTemplates(KEY_ONLINE);
+                }
+                break;
+            case I_CmsEventListener.EVENT_CLEAR_ONLINE_CACHES:
+                removeTemplates(KEY_ONLINE);
+                break;
+            case I_CmsEventListener.EVENT_CLEAR_OFFLINE_CACHES:
+                removeTemplates(KEY_OFFLINE);
+                break;
             case I_CmsEventListener.EVENT_CLEAR_CACHES:
             case I_CmsEventListener.EVENT_FLEX_CACHE_CLEAR:
             case I_CmsEventListener.EVENT_FLEX_PURGE_JSP_REPOSITORY:
                 // flush cache
-                clearTemplateCache();
+                m_templates.clear();
                 if (LOG.isDebugEnabled()) {
                     LOG.debug(Messages.get().getBundle().key(Messages.LOG_CMSMACROMANAGER_CLEARED_0));
                 }
                 break;
+            case I_CmsEventListener.EVENT_RESOURCE_AND_PROPERTIES_MODIFIED:
+            case I_CmsEventListener.EVENT_RESOURCE_MODIFIED:
+                Object resource = event.getData().get(I_CmsEventListener.KEY_RESOURCE);
+                if (resource instanceof CmsResource) {
+                    removeTemplate(KEY_OFFLINE + ((CmsResource)resource).getRootPath());
+                }
+                break;
+            case I_CmsEventListener.EVENT_RESOURCES_AND_PROPERTIES_MODIFIED:
+            case I_CmsEventListener.EVENT_RESOURCES_MODIFIED:
+            case I_CmsEventListener.EVENT_RESOURCE_DELETED:
+            case I_CmsEventListener.EVENT_RESOURCE_MOVED:
+                Object resources = event.getData().get(I_CmsEventListener.KEY_RESOURCES);
+                if (resources instanceof List) {
+                    Iterator i = ((List)resources).iterator();
+                    while (i.hasNext()) {
+                        Object res = i.next();
+                        if (res instanceof CmsResource) {
+                            removeTemplate(KEY_OFFLINE + ((CmsResource)res).getRootPath());
+                        }
+                    }
+                }
+                break;
             default: // no operation
         }
     }
 
     /**
-     * Returns the template with the given key.<p>
+     * Returns the template for the given template file.<p>
+     * 
+     * If the template is not cached, it is read from the VFS. Concurrent calls for the same 
+     * template file wait until the template has been read once.<p>
      * 
      * @param cms the OpenCms user context to use
      * @param fileName the absolute path of the template file in the VFS of OpenCms
-     * @return the template with the given key
+     * @return the template for the given template file
      * @throws CmsException if the specified template file can not be found
-     * @throws IOException if the template with the given key can not be found in the cache
+     * @throws IOException if the template can not be parsed
      */
     public Template getTemplate(CmsObject cms, String fileName) throws CmsException, IOException {
 
-        if (hasTemplate(fileName)) {
-            return m_configuration.getTemplate(getCacheKey(fileName));
-        } else {
-            String encoding = cms.getRequestContext().getEncoding();
-            // get the VFS file content with the FreeMarker macros
-            byte[] content = cms.readFile(fileName).getContents();
-            StringBuffer fTemplate = new StringBuffer(new String(content, encoding));
-            // append the code to execute a single, specified macro of the template file
-            fTemplate.append("<@");
-            fTemplate.append(CmsMacroWrapperFreeMarker.MACRO_NAME);
-            fTemplate.append(" />");
-            // put the template to the template cache and return it
-            return putTemplate(fileName, fTemplate.toString());
+        final CmsObject loadCms = cms;
+        final String loadFileName = fileName;
+        String key = getCacheKey(cms, fileName);
+        FutureTask task = (FutureTask)m_templates.get(key);
+        if (task == null) {
+            FutureTask newTask = new FutureTask(new Callable() {
+
+                /**
+                 * @see java.util.concurrent.Callable#call()
+                 */
+                public Object call() throws Exception {
+
+                    return loadTemplate(loadCms, loadFileName);
+                }
+            });
+            task = (FutureTask)m_templates.putIfAbsent(key, newTask);
+            if (task == null) {
+                // this thread has to load the template
+                task = newTask;
+                task.run();
+            }
+        }
+        try {
+            return (Template)task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e.getLocalizedMessage());
+        } catch (ExecutionException e) {
+            // loading failed, do not keep the failed task so that the next request tries again
+            m_templates.remove(key, task);
+            Throwable cause = e.getCause();
+            if (cause instanceof CmsException) {
+                throw (CmsException)cause;
+            } else if (cause instanceof IOException) {
+                throw (IOException)cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException)cause;
+            }
+            throw new IOException(cause.getLocalizedMessage());
         }
     }
 
     /**
-     * Returns true if the template with the given key exists in the cache, otherwise false.<p>
+     * Returns true if the template for the given template file exists in the cache, otherwise false.<p>
      * 
+     * @param cms the OpenCms user context to use
      * @param fileName the absolute path of the template file in the VFS of OpenCms
-     * @return true if the template with the given key exists in the cache, otherwise false
+     * @return true if the template for the given template file exists in the cache, otherwise false
      */
-    public boolean hasTemplate(String fileName) {
+    public boolean hasTemplate(CmsObject cms, String fileName) {
 
-        try {
-            m_configuration.getTemplate(getCacheKey(fileName));
-            return true;
-        } catch (IOException e) {
-            return false;
-        }
+        FutureTask task = (FutureTask)m_templates.get(getCacheKey(cms, fileName));
+        return (task != null) && task.isDone();
+    }
+
+    /**
+     * Removes the cached template for the given template file.<p>
+     * 
+     * @param cms the OpenCms user context to use
+     * @param fileName the absolute path of the template file in the VFS of OpenCms
+     */
+    public void removeTemplate(CmsObject cms, String fileName) {
+
+        removeTemplate(getCacheKey(cms, fileName));
     }
 
     /**
-     * Clears the template cache, removes all previously cached templates.<p>
+     * Returns the cache key for the given template file.<p>
+     * 
+     * @param cms the OpenCms user context to use
+     * @param fileName the absolute path of the template file in the VFS of OpenCms
+     * @return the cache key for the given template file
      */
-    private void clearTemplateCache() {
+    private String getCacheKey(CmsObject cms, String fileName) {
 
-        m_configuration.clearTemplateCache();
-        // the loader has to be reset, too, otherwise clearing the cache will have no effect
-        m_configuration.setTemplateLoader(new StringTemplateLoader());
+        String prefix = cms.getRequestContext().getCurrentProject().isOnlineProject() ? KEY_ONLINE : KEY_OFFLINE;
+        return prefix + cms.getRequestContext().addSiteRoot(fileName);
     }
 
     /**
-     * Returns a cache key that is used for the template cache.<p>
+     * Returns the root paths of the resources published with the given publish event.<p>
+     * 
+     * @param event the publish event
      * 
-     * @param fileName the absolute path of the template file in the VFS of OpenCms to get the cache key from
-     * @return a cache key that is used for the template cache
+     * @return the root paths of the published resources, or <code>null</code> if they can not be read
      */
-    private String getCacheKey(String fileName) {
+    private List getPublishedRootPaths(CmsEvent event) {
 
-        return String.valueOf(fileName.hashCode());
+        CmsUUID publishHistoryId = (CmsUUID)event.getData().get(I_CmsEventListener.KEY_PUBLISHID);
+        if (publishHistoryId == null) {
+            return null;
+        }
+        try {
+            CmsObject cms = OpenCms.initCmsObject(OpenCms.getDefaultUsers().getUserGuest());
+            List publishedResources = cms.readPublishedResources(publishHistoryId);
+            List result = new ArrayList(publishedResources.size());
+            Iterator i = publishedResources.iterator();
+            while (i.hasNext()) {
+                result.add(((CmsPublishedResource)i.next()).getRootPath());
+            }
+            return result;
+        } catch (CmsException e) {
+            LOG.error(e.getLocalizedMessage(), e);
+            return null;
+        }
     }
 
     /**
-     * Initializes the cache objects.<p>
+     * Initializes the FreeMarker configuration.<p>
      */
     private void initConfiguration() {
 
         m_configuration = new Configuration();
         m_configuration.setDefaultEncoding(OpenCms.getSystemInfo().getDefaultEncoding());
-        m_configuration.setTemplateLoader(new StringTemplateLoader());
     }
 
     /**
-     * Puts the template with the given key and source code to the template cache.<p>
+     * Reads the template file from the VFS and creates the template.<p>
      * 
+     * @param cms the OpenCms user context to use
      * @param fileName the absolute path of the template file in the VFS of OpenCms
-     * @param templateSource the source code of the template
-     * @return the template that was stored in the cache
+     * @return the created template
+     * @throws CmsException if the specified template file can not be read
+     * @throws IOException if the template can not be parsed
      */
-    private Template putTemplate(String fileName, String templateSource) {
+    private Template loadTemplate(CmsObject cms, String fileName) throws CmsException, IOException {
 
-        String cacheKey = getCacheKey(fileName);
-        ((StringTemplateLoader)m_configuration.getTemplateLoader()).putTemplate(cacheKey, templateSource);
-        try {
-            return m_configuration.getTemplate(cacheKey);
-        } catch (IOException e) {
-            return null;
+        String encoding = cms.getRequestContext().getEncoding();
+        // get the VFS file content with the FreeMarker macros
+        byte[] content = cms.readFile(fileName).getContents();
+        StringBuffer fTemplate = new StringBuffer(new String(content, encoding));
+        // append the code to execute either a list of macro calls or a single, specified macro of the template file
+        fTemplate.append("<#if ");
+        fTemplate.append(CmsMacroWrapperFreeMarker.CALLS_NAME);
+        fTemplate.append("?exists><#list ");
+        fTemplate.append(CmsMacroWrapperFreeMarker.CALLS_NAME);
+        fTemplate.append(" as ocmscall><@ocmscall.");
+        fTemplate.append(CmsMacroWrapperFreeMarker.CALL_CAPTURE);
+        fTemplate.append("><@ocmscall.");
+        fTemplate.append(CmsMacroWrapperFreeMarker.CALL_MACRO);
+        fTemplate.append(" /></@></#list><#else><@");
+        fTemplate.append(CmsMacroWrapperFreeMarker.MACRO_NAME);
+        fTemplate.append(" /></#if>");
+        return new Template(
+            cms.getRequestContext().addSiteRoot(fileName),
+            new StringReader(fTemplate.toString()),
+            m_configuration);
+    }
+
+    /**
+     * Removes the cached template with the given cache key.<p>
+     * 
+     * @param key the cache key of the template
+     */
+    private void removeTemplate(String key) {
+
+        if ((m_templates.remove(key) != null) && LOG.isDebugEnabled()) {
+            LOG.debug(Messages.get().getBundle().key(Messages.LOG_TEMPLATE_REMOVED_1, key));
         }
     }
 
+    /**
+     * Removes all cached templates with a cache key starting with the given prefix.<p>
+     * 
+     * @param prefix the cache key prefix of the templates to remove
+     */
+    private void removeTemplates(String prefix) {
+
+        List keys = new ArrayList(m_templates.keySet());
+        Iterator i = keys.iterator();
+        while (i.hasNext()) {
+            String key = (String)i.next();
+            if (key.startsWith(prefix)) {
+                removeTemplate(key);
+            }
+        }
+    }
 }
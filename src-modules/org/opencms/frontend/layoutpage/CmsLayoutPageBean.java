@@ -27,7 +27,6 @@
 
 package org.opencms.frontend.layoutpage;
 
-import org.opencms.configuration.CmsParameterConfiguration;
 import org.opencms.file.CmsFile;
 import org.opencms.file.CmsObject;
 import org.opencms.file.CmsPropertyDefinition;
@@ -44,12 +43,15 @@ import org.opencms.xml.content.CmsXmlContent;
 import org.opencms.xml.content.CmsXmlContentFactory;
 import org.opencms.xml.types.I_CmsXmlContentValue;
 
-import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.commons.logging.Log;
 
@@ -227,8 +229,8 @@ public class CmsLayoutPageBean {
     /** The VFS path to the html snippet files.  */
     private String m_pathLayoutElements;
 
-    /** The map to store the information of the .properties files for each integrated xml content type.*/
-    private Map m_typeMappings;
+    /** Indicates if the paragraph macros are rendered in a single template pass. */
+    private boolean m_singlePassRendering = true;
 
     /** The layout variant to show, e.g. "common", "print" or "accessibe". */
     private String m_variant;
@@ -316,15 +318,13 @@ public class CmsLayoutPageBean {
         StringBuffer result = new StringBuffer(16384);
         Locale locale = getCmsObject().getRequestContext().getLocale();
 
-        m_typeMappings = new HashMap();
-
         // first calculate the column width
         calculateColumnWidth();
 
         // get the macros
-        I_CmsMacroWrapper macros = null;
+        CmsMacroBatch macros = null;
         try {
-            macros = getMacroWrapper();
+            macros = new CmsMacroBatch(getMacroWrapper(), isSinglePassRendering());
         } catch (Exception e) {
             // log error and stop output
             if (!(e instanceof CmsException)) {
@@ -334,6 +334,8 @@ public class CmsLayoutPageBean {
             }
             return "";
         }
+        // the macro calls that build the output, in order
+        List output = new ArrayList();
 
         // determine if two columns should be shown
         boolean showTwoCols = getColumnLayout().indexOf(COLUMNS_LAYOUT_2) != -1;
@@ -352,179 +354,76 @@ public class CmsLayoutPageBean {
             imgLinkTitleLocalized = messages.keyDefault("link.image.original", "");
         }
 
-        // get the paragraph nodes from the XML content
-        Iterator i = m_content.getValues(NODE_PARAGRAPH, locale).iterator();
+        // resolve the paragraphs with all linked files and images before rendering them
+        Iterator i = resolveParagraphs(locale, messages).iterator();
 
         // open column table
-        result.append(macros.getResult("content_start"));
+        output.add(macros.addCall("content_start"));
 
         // set variables needed in loop to determine correct column to show
         boolean firstInRow = true;
 
-        while (i.hasNext()) {
-            // loop all paragraph nodes
-            I_CmsXmlContentValue value = (I_CmsXmlContentValue)i.next();
-            String xPath = value.getPath() + "/";
-
-            // check if a file has to be integrated
-            boolean hasFileLink = m_content.hasValue(xPath + NODE_FILELINK, locale);
-
-            CmsParameterConfiguration xmlElementsProperties = null;
-            CmsFile linkToFile = null;
-            CmsXmlContent xmlContentFileLink = null;
-            if (hasFileLink) {
-                try {
-                    // read the integrated file, get the xml content of it and recieve the properties for
-                    // the type of this resource
-                    linkToFile = getCmsObject().readFile(
-                        m_content.getStringValue(getCmsObject(), xPath + NODE_FILELINK, locale));
-                    xmlContentFileLink = CmsXmlContentFactory.unmarshal(getCmsObject(), linkToFile);
-                    xmlElementsProperties = getXmlElementsProperties(linkToFile);
-                } catch (Exception e) {
-                    // if reading of external file fails the external file will be ignored
-                    hasFileLink = false;
-                }
-            }
-
-            // get the optional headline
-            String headline = "";
-            if (m_content.hasValue(xPath + NODE_HEADLINE, locale)) {
-                headline = m_content.getStringValue(getCmsObject(), xPath + NODE_HEADLINE, locale);
-            }
-            // if headline is empty try to get it from the integrated xml content
-            if (CmsStringUtil.isEmptyOrWhitespaceOnly(headline)) {
-                if (hasFileLink) {
-                    String titleValue = this.getPropertiesValue(
-                        xmlElementsProperties,
-                        KEY_HEADLINE,
-                        xmlContentFileLink,
-                        locale);
-                    if (!CmsStringUtil.isEmptyOrWhitespaceOnly(titleValue)) {
-                        // if titleValue is not empty set the headline to this value and build a link
-                        // to the integrated file around it 
-                        headline = "<a title=\""
-                            + titleValue
-                            + "\" href=\""
-                            + m_jspActionElement.link(m_content.getStringValue(
-                                getCmsObject(),
-                                xPath + NODE_FILELINK,
-                                locale)) + "\" target=\"_self\">" + titleValue + "</a>";
-                    } else {
-                        headline = "";
-                    }
-                } else {
-                    headline = "";
-                }
-            }
-
-            // get the paragraph text value
-            String textValue = m_content.getStringValue(getCmsObject(), xPath + NODE_TEXT, locale);
+        // cache the image scalers, pages often show the same image in the same layout more than once
+        Map scalers = new HashMap();
 
-            if (CmsStringUtil.isEmptyOrWhitespaceOnly(textValue)) {
-                if (hasFileLink) {
-                    String text = getPropertiesValue(xmlElementsProperties, KEY_TEXTVALUE, xmlContentFileLink, locale);
-                    if (!CmsStringUtil.isEmptyOrWhitespaceOnly(text)) {
-                        // if text is not empty set textValue to it, trim the size and
-                        // append a link to the integrated file
-                        textValue = text;
-                        textValue = CmsStringUtil.trimToSize(textValue, 250);
-                        textValue += "<a href=\""
-                            + m_jspActionElement.link(m_content.getStringValue(
-                                getCmsObject(),
-                                xPath + NODE_FILELINK,
-                                locale)) + "\" target=\"_self\">&gt; " + messages.keyDefault("link.more", "") + "</a>";
-                    } else {
-                        textValue = "";
-                    }
-                } else {
-                    textValue = "";
-                }
-            }
+        while (i.hasNext()) {
+            // loop all paragraphs
+            CmsLayoutPageParagraph paragraph = (CmsLayoutPageParagraph)i.next();
 
             // process optional image
-            xPath += NODE_IMAGE + "/";
-            String imgDesc = "";
+            Object imgDesc = paragraph.getImageDescription();
             String paragraphType = "";
-            String imgTag = "";
+            Object imgTag = "";
             String imgUrl = "";
             int imgWidth = getColumnWidth();
-            boolean imagePresent = false;
-
-            if (m_content.hasValue(xPath, locale)) {
-                // image node found, check VFS presence by reading image size property
-                String imgUri = m_content.getStringValue(getCmsObject(), xPath + NODE_IMAGE, locale);
-
-                if (CmsStringUtil.isEmptyOrWhitespaceOnly(imgUri)) {
-                    if (hasFileLink) {
-                        String imgValue = getPropertiesValue(
-                            xmlElementsProperties,
-                            KEY_IMGURI,
-                            xmlContentFileLink,
-                            locale);
-                        if (!CmsStringUtil.isEmptyOrWhitespaceOnly(imgValue)) {
-                            imgUri = imgValue;
-                        } else {
-                            imgUri = "";
-                        }
-                    } else {
-                        imgUri = "";
-                    }
+            boolean imagePresent = paragraph.hasImage();
+
+            if (imagePresent) {
+                // image exists, create image tag to show
+                String imgUri = paragraph.getImageUri();
+                String imgSize = paragraph.getImageSize();
+                String imgDescValue = paragraph.getImageDescription();
+                paragraphType = paragraph.getImageAlign();
+                // get initialized image scaler for the image
+                String scalerKey = paragraphType + "|" + imgSize;
+                CmsImageScaler scaler = (CmsImageScaler)scalers.get(scalerKey);
+                if (scaler == null) {
+                    scaler = getImageScaler(paragraphType, imgSize);
+                    scalers.put(scalerKey, scaler);
                 }
-
-                String imgSize = null;
-                try {
-                    imgSize = getCmsObject().readPropertyObject(
-                        imgUri,
-                        CmsPropertyDefinition.PROPERTY_IMAGE_SIZE,
-                        false).getValue();
-                } catch (CmsException e) {
-                    // file property not found, ignore
-                }
-                if (imgSize != null) {
-                    // image exists, create image tag to show
-                    imagePresent = true;
-                    if (m_content.hasValue(xPath + NODE_DESCRIPTION, locale)) {
-                        // get image description
-                        imgDesc = m_content.getStringValue(getCmsObject(), xPath + NODE_DESCRIPTION, locale);
-                    }
-                    paragraphType = m_content.getStringValue(getCmsObject(), xPath + NODE_ALIGN, locale);
-                    // get initialized image scaler for the image                   
-                    CmsImageScaler scaler = getImageScaler(paragraphType, imgSize);
-                    imgWidth = scaler.getWidth();
-
-                    // determine image description String to show
-                    String imgTitle = imgDesc;
-                    if (showImgLinks) {
-                        // append localized note for large image link to description
-                        StringBuffer tempImgTitle = new StringBuffer(128);
-                        tempImgTitle.append(imgDesc);
-                        if (CmsStringUtil.isNotEmpty(imgDesc)) {
-                            tempImgTitle.append(" ");
-                        }
-                        tempImgTitle.append(imgLinkTitleLocalized);
-                        imgTitle = tempImgTitle.toString();
-                    }
-
-                    // create image tag with additional "alt", "title" and "border" attributes
-                    Map attrs = new HashMap(4);
-                    attrs.put("alt", imgTitle);
-                    attrs.put("title", imgTitle);
-                    attrs.put("border", "0");
-                    imgTag = getCmsJspActionElement().img(imgUri, scaler, attrs);
-
-                    // create link around image if configured
-                    macros.putContextVariable(MACRO_IMAGE, imgTag);
-                    if (showImgLinks) {
-                        // use macro with link
-                        imgUrl = getLinkToLargeImage(imgUri, imgSize);
-                        macros.putContextVariable(MACRO_TITLE, imgTitle);
-                        macros.putContextVariable(MACRO_TARGET, imgUrl);
-                        imgTag = macros.getResult("image_with_link");
-                    } else {
-                        // use macro without link
-                        imgTag = macros.getResult("image_without_link");
+                imgWidth = scaler.getWidth();
+
+                // determine image description String to show
+                String imgTitle = imgDescValue;
+                if (showImgLinks) {
+                    // append localized note for large image link to description
+                    StringBuffer tempImgTitle = new StringBuffer(128);
+                    tempImgTitle.append(imgDescValue);
+                    if (CmsStringUtil.isNotEmpty(imgDescValue)) {
+                        tempImgTitle.append(" ");
                     }
+                    tempImgTitle.append(imgLinkTitleLocalized);
+                    imgTitle = tempImgTitle.toString();
+                }
 
+                // create image tag with additional "alt", "title" and "border" attributes
+                Map attrs = new HashMap(4);
+                attrs.put("alt", imgTitle);
+                attrs.put("title", imgTitle);
+                attrs.put("border", "0");
+                imgTag = getCmsJspActionElement().img(imgUri, scaler, attrs);
+
+                // create link around image if configured
+                macros.putContextVariable(MACRO_IMAGE, imgTag);
+                if (showImgLinks) {
+                    // use macro with link
+                    imgUrl = getLinkToLargeImage(imgUri, imgSize);
+                    macros.putContextVariable(MACRO_TITLE, imgTitle);
+                    macros.putContextVariable(MACRO_TARGET, imgUrl);
+                    imgTag = macros.addCall("image_with_link");
+                } else {
+                    // use macro without link
+                    imgTag = macros.addCall("image_without_link");
                 }
             }
 
@@ -533,10 +432,10 @@ public class CmsLayoutPageBean {
                 // use description with link to image
                 macros.putContextVariable(MACRO_TITLE, imgLinkTitleLocalized);
                 macros.putContextVariable(MACRO_TARGET, imgUrl);
-                imgDesc = macros.getResult("description_with_link");
+                imgDesc = macros.addCall("description_with_link");
             } else {
                 // use description without link to image
-                imgDesc = macros.getResult("description_without_link");
+                imgDesc = macros.addCall("description_without_link");
             }
 
             if (CmsStringUtil.isEmpty(paragraphType)) {
@@ -548,40 +447,46 @@ public class CmsLayoutPageBean {
 
             if (firstInRow || !showTwoCols) {
                 // open row (tr) 
-                result.append(macros.getResult("row_start"));
+                output.add(macros.addCall("row_start"));
             }
 
             // open td
-            result.append(macros.getResult("element_start"));
+            output.add(macros.addCall("element_start"));
 
             // put macro variables in context to use for this paragraph
-            macros.putContextVariable(MACRO_HEADLINE, headline);
-            macros.putContextVariable(MACRO_TEXT, textValue);
+            macros.putContextVariable(MACRO_HEADLINE, paragraph.getHeadline());
+            macros.putContextVariable(MACRO_TEXT, paragraph.getText());
             macros.putContextVariable(MACRO_IMAGE, imgTag);
             macros.putContextVariable(MACRO_IMAGE_WIDTH, new Integer(imgWidth));
             macros.putContextVariable(MACRO_DESCRIPTION, imgDesc);
             // add resolved macro layout paragraph to result
-            result.append(macros.getResult(paragraphType));
+            output.add(macros.addCall(paragraphType));
 
             // close td
-            result.append(macros.getResult("element_end"));
+            output.add(macros.addCall("element_end"));
 
             if (!showTwoCols || !firstInRow || (firstInRow && !i.hasNext())) {
                 if (showTwoCols && firstInRow && !i.hasNext()) {
                     // append additional empty dummy element in two column mode
-                    result.append(macros.getResult("element_start"));
-                    result.append(macros.getResult("element_end"));
+                    output.add(macros.addCall("element_start"));
+                    output.add(macros.addCall("element_end"));
                 }
                 // close row (tr)
-                result.append(macros.getResult("row_end"));
+                output.add(macros.addCall("row_end"));
             }
 
             firstInRow = !firstInRow;
         }
 
         // close column table
-        result.append(macros.getResult("content_end"));
+        output.add(macros.addCall("content_end"));
 
+        // render all macro calls and build the result
+        macros.process();
+        Iterator j = output.iterator();
+        while (j.hasNext()) {
+            result.append(((CmsMacroCall)j.next()).getResult());
+        }
         return result.toString();
     }
 
@@ -783,6 +688,16 @@ public class CmsLayoutPageBean {
         return m_fixedImageSize;
     }
 
+    /**
+     * Returns if the paragraph macros are rendered in a single template pass.<p>
+     * 
+     * @return true if the paragraph macros are rendered in a single template pass, false if the template is processed once per macro
+     */
+    public boolean isSinglePassRendering() {
+
+        return m_singlePassRendering;
+    }
+
     /**
      * Sets the width of the content area of the template.<p>
      *
@@ -903,6 +818,18 @@ public class CmsLayoutPageBean {
         m_pathLayoutElements = pathLayoutElements;
     }
 
+    /**
+     * Sets if the paragraph macros are rendered in a single template pass.<p>
+     * 
+     * This is enabled by default, disabling it processes the template once per macro.<p>
+     * 
+     * @param singlePassRendering true if the paragraph macros are rendered in a single template pass
+     */
+    public void setSinglePassRendering(boolean singlePassRendering) {
+
+        m_singlePassRendering = singlePassRendering;
+    }
+
     /**
      * Sets the layout variant to show, e.g. "common", "print" or "accessibe".<p>
      *
@@ -1049,33 +976,25 @@ public class CmsLayoutPageBean {
         macroFile.append(getVariant());
         macroFile.append(".");
         macroFile.append(CmsMacroWrapperFreeMarker.FILE_SUFFIX);
-        String fileName = macroFile.toString();
-        if (!getCmsObject().existsResource(fileName)) {
-            // macro file not found, log error and throw exception
-            if (LOG.isErrorEnabled()) {
-                LOG.error(Messages.get().getBundle().key(Messages.LOG_ERR_VFS_RESOURCE_1, fileName));
-            }
-            throw new CmsException(Messages.get().container(Messages.LOG_ERR_VFS_RESOURCE_1, fileName));
-        }
-        return new CmsMacroWrapperFreeMarker(getCmsObject(), fileName);
+        return CmsLayoutPageRegistry.getInstance().getMacroWrapper(getCmsObject(), macroFile.toString());
     }
 
     /**
-     * Returns the String value of the xml content defined by the value(s) inside the given extended properties.<p>
+     * Returns the String value of the xml content defined by the value(s) inside the given type mappings.<p>
      * 
-     * @param xmlElements the instance of ExtendedProperties for the integrated resource type, e.g. news.
+     * @param xmlElements the read-only type mappings for the integrated resource type, e.g. news.
      * @param key key is used to identify the value inside the given map.
      * @param xmlContentFileLink the xml content of the integrated file.
      * @param locale the locale object.
      * @return the String value of the xml content defined by the value(s) inside the given map.
      */
     protected String getPropertiesValue(
-        CmsParameterConfiguration xmlElements,
+        Map xmlElements,
         String key,
         CmsXmlContent xmlContentFileLink,
         Locale locale) {
 
-        Object value = xmlElements.getObject(key);
+        Object value = xmlElements.get(key);
         String result = "";
         if (value != null) {
             if (value instanceof String) {
@@ -1106,35 +1025,206 @@ public class CmsLayoutPageBean {
     }
 
     /**
-     * Returns an instance of ExtendedProperties with key-values pairs which can be used to build e.g. the headline.<p>
+     * Returns the read-only type mappings with key-values pairs which can be used to build e.g. the headline.<p>
      * 
      * @param linkToFile xml content file which is integrated inside the layout page
-     * @return an instance of ExtendedProperties with key-value pairs which define the elements to use inside
-     *         an integrated xml content, e.g. to build the headline
+     * @return the read-only type mappings with key-value pairs which define the elements to use inside
+     *         an integrated xml content, e.g. to build the headline, see 
+     *         {@link CmsLayoutPageRegistry#getTypeMappings(CmsObject, String)}
      */
-    protected CmsParameterConfiguration getXmlElementsProperties(CmsFile linkToFile) {
+    protected Map getXmlElementsProperties(CmsFile linkToFile) {
 
-        CmsParameterConfiguration properties = new CmsParameterConfiguration();
+        Map properties = Collections.EMPTY_MAP;
         try {
-            // get the type name for the integrated file
-            // type name is used as key for m_typeMappings
+            // get the type name for the integrated file, it is used to look up the shared type mappings
             String typeName = OpenCms.getResourceManager().getResourceType(linkToFile.getTypeId()).getTypeName();
-            if (m_typeMappings.get(typeName) == null) {
-                // get key/value from the .properties file and store it in properties and m_typeMappings
-                properties.load(new ByteArrayInputStream(
-                    getCmsObject().readFile(
-                        CmsWorkplace.VFS_PATH_MODULES + MODULE_NAME + "/mappings/" + typeName + ".properties").getContents()));
-                m_typeMappings.put(typeName, properties);
-            } else {
-                // if typeName is already used inside m_typeProperties get properties from this map
-                properties = (CmsParameterConfiguration)m_typeMappings.get(typeName);
-            }
+            properties = CmsLayoutPageRegistry.getInstance().getTypeMappings(getCmsObject(), typeName);
         } catch (Exception e) {
             // ignore
         }
         return properties;
     }
 
+    /**
+     * Returns the resolved paragraphs of the layout page.<p>
+     * 
+     * All integrated files are read and unmarshalled first, then the image size properties of all images 
+     * are read. Every distinct file and image is read only once, even if it is used in several paragraphs.<p>
+     * 
+     * @param locale the locale to use
+     * @param messages the localized frontend messages
+     * 
+     * @return the list of resolved {@link CmsLayoutPageParagraph} objects
+     */
+    protected List resolveParagraphs(Locale locale, CmsMessages messages) {
+
+        List values = m_content.getValues(NODE_PARAGRAPH, locale);
+        List result = new ArrayList(values.size());
+
+        // first collect the paragraphs and the links to all integrated files
+        Set fileLinks = new HashSet();
+        Iterator i = values.iterator();
+        while (i.hasNext()) {
+            I_CmsXmlContentValue value = (I_CmsXmlContentValue)i.next();
+            CmsLayoutPageParagraph paragraph = new CmsLayoutPageParagraph(value.getPath() + "/");
+            if (m_content.hasValue(paragraph.getXPath() + NODE_FILELINK, locale)) {
+                String fileLink = m_content.getStringValue(getCmsObject(), paragraph.getXPath() + NODE_FILELINK, locale);
+                paragraph.setFileLink(fileLink);
+                fileLinks.add(fileLink);
+            }
+            result.add(paragraph);
+        }
+
+        // read all integrated files
+        Map fileContents = new HashMap();
+        Map fileProperties = new HashMap();
+        i = fileLinks.iterator();
+        while (i.hasNext()) {
+            String fileLink = (String)i.next();
+            try {
+                // read the integrated file, get the xml content of it and recieve the properties for
+                // the type of this resource
+                CmsFile linkToFile = getCmsObject().readFile(fileLink);
+                fileContents.put(fileLink, CmsXmlContentFactory.unmarshal(getCmsObject(), linkToFile));
+                fileProperties.put(fileLink, getXmlElementsProperties(linkToFile));
+            } catch (Exception e) {
+                // if reading of external file fails the external file will be ignored
+            }
+        }
+
+        // resolve the paragraph values and collect the URIs of all images
+        List imageParagraphs = new ArrayList(result.size());
+        Set imageUris = new HashSet();
+        i = result.iterator();
+        while (i.hasNext()) {
+            CmsLayoutPageParagraph paragraph = (CmsLayoutPageParagraph)i.next();
+            String xPath = paragraph.getXPath();
+            String fileLink = paragraph.getFileLink();
+            CmsXmlContent xmlContentFileLink = null;
+            Map xmlElementsProperties = null;
+            if (fileLink != null) {
+                xmlContentFileLink = (CmsXmlContent)fileContents.get(fileLink);
+                xmlElementsProperties = (Map)fileProperties.get(fileLink);
+            }
+            boolean hasFileLink = xmlContentFileLink != null;
+            String fileLinkTarget = null;
+            if (hasFileLink) {
+                fileLinkTarget = m_jspActionElement.link(fileLink);
+            }
+
+            // get the optional headline
+            String headline = "";
+            if (m_content.hasValue(xPath + NODE_HEADLINE, locale)) {
+                headline = m_content.getStringValue(getCmsObject(), xPath + NODE_HEADLINE, locale);
+            }
+            // if headline is empty try to get it from the integrated xml content
+            if (CmsStringUtil.isEmptyOrWhitespaceOnly(headline)) {
+                headline = "";
+                if (hasFileLink) {
+                    String titleValue = getPropertiesValue(
+                        xmlElementsProperties,
+                        KEY_HEADLINE,
+                        xmlContentFileLink,
+                        locale);
+                    if (!CmsStringUtil.isEmptyOrWhitespaceOnly(titleValue)) {
+                        // if titleValue is not empty set the headline to this value and build a link
+                        // to the integrated file around it 
+                        headline = "<a title=\""
+                            + titleValue
+                            + "\" href=\""
+                            + fileLinkTarget
+                            + "\" target=\"_self\">"
+                            + titleValue
+                            + "</a>";
+                    }
+                }
+            }
+            paragraph.setHeadline(headline);
+
+            // get the paragraph text value
+            String textValue = m_content.getStringValue(getCmsObject(), xPath + NODE_TEXT, locale);
+            if (CmsStringUtil.isEmptyOrWhitespaceOnly(textValue)) {
+                textValue = "";
+                if (hasFileLink) {
+                    String text = getPropertiesValue(xmlElementsProperties, KEY_TEXTVALUE, xmlContentFileLink, locale);
+                    if (!CmsStringUtil.isEmptyOrWhitespaceOnly(text)) {
+                        // if text is not empty set textValue to it, trim the size and
+                        // append a link to the integrated file
+                        textValue = CmsStringUtil.trimToSize(text, 250);
+                        textValue += "<a href=\""
+                            + fileLinkTarget
+                            + "\" target=\"_self\">&gt; "
+                            + messages.keyDefault("link.more", "")
+                            + "</a>";
+                    }
+                }
+            }
+            paragraph.setText(textValue);
+
+            // get the optional image URI
+            String imgXPath = xPath + NODE_IMAGE + "/";
+            if (m_content.hasValue(imgXPath, locale)) {
+                String imgUri = m_content.getStringValue(getCmsObject(), imgXPath + NODE_IMAGE, locale);
+                if (CmsStringUtil.isEmptyOrWhitespaceOnly(imgUri)) {
+                    imgUri = "";
+                    if (hasFileLink) {
+                        String imgValue = getPropertiesValue(
+                            xmlElementsProperties,
+                            KEY_IMGURI,
+                            xmlContentFileLink,
+                            locale);
+                        if (!CmsStringUtil.isEmptyOrWhitespaceOnly(imgValue)) {
+                            imgUri = imgValue;
+                        }
+                    }
+                }
+                paragraph.setImageUri(imgUri);
+                imageParagraphs.add(paragraph);
+                if (CmsStringUtil.isNotEmpty(imgUri)) {
+                    imageUris.add(imgUri);
+                }
+            }
+        }
+
+        // read the image size properties of all images, this also checks the VFS presence of the images
+        Map imageSizes = new HashMap();
+        i = imageUris.iterator();
+        while (i.hasNext()) {
+            String imgUri = (String)i.next();
+            try {
+                String imgSize = getCmsObject().readPropertyObject(
+                    imgUri,
+                    CmsPropertyDefinition.PROPERTY_IMAGE_SIZE,
+                    false).getValue();
+                if (imgSize != null) {
+                    imageSizes.put(imgUri, imgSize);
+                }
+            } catch (CmsException e) {
+                // file property not found, ignore
+            }
+        }
+
+        // set the image information of all paragraphs with an existing image
+        i = imageParagraphs.iterator();
+        while (i.hasNext()) {
+            CmsLayoutPageParagraph paragraph = (CmsLayoutPageParagraph)i.next();
+            String imgSize = (String)imageSizes.get(paragraph.getImageUri());
+            if (imgSize != null) {
+                String imgXPath = paragraph.getXPath() + NODE_IMAGE + "/";
+                paragraph.setImageSize(imgSize);
+                if (m_content.hasValue(imgXPath + NODE_DESCRIPTION, locale)) {
+                    // get image description
+                    paragraph.setImageDescription(m_content.getStringValue(
+                        getCmsObject(),
+                        imgXPath + NODE_DESCRIPTION,
+                        locale));
+                }
+                paragraph.setImageAlign(m_content.getStringValue(getCmsObject(), imgXPath + NODE_ALIGN, locale));
+            }
+        }
+        return result;
+    }
+
     /**
      * Sets the calculated width of a single paragraph column.<p>
      *
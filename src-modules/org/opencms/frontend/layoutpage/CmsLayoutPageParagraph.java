@@ -0,0 +1,238 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software GmbH, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+
+package org.opencms.frontend.layoutpage;
+
+/**
+ * The resolved model of a single layout page paragraph.<p>
+ * 
+ * All linked resources and image size properties of the paragraph have already been read
+ * when the paragraph is rendered, see {@link CmsLayoutPageBean#resolveParagraphs(java.util.Locale, org.opencms.i18n.CmsMessages)}.<p>
+ * 
+ * @since 8.0.1
+ */
+public class CmsLayoutPageParagraph {
+
+    /** The link to the integrated file, or null if no file is integrated. */
+    private String m_fileLink;
+
+    /** The headline of the paragraph. */
+    private String m_headline;
+
+    /** The image alignment, i.e. the paragraph type. */
+    private String m_imageAlign;
+
+    /** The image description. */
+    private String m_imageDescription;
+
+    /** The image size property value of the image, or null if no image is shown. */
+    private String m_imageSize;
+
+    /** The VFS URI of the image. */
+    private String m_imageUri;
+
+    /** The text of the paragraph. */
+    private String m_text;
+
+    /** The XML path of the paragraph node. */
+    private String m_xPath;
+
+    /**
+     * Constructor, with parameters.<p>
+     * 
+     * @param xPath the XML path of the paragraph node
+     */
+    public CmsLayoutPageParagraph(String xPath) {
+
+        m_xPath = xPath;
+        m_headline = "";
+        m_text = "";
+        m_imageUri = "";
+        m_imageDescription = "";
+        m_imageAlign = "";
+    }
+
+    /**
+     * Returns the link to the integrated file, or null if no file is integrated.<p>
+     * 
+     * @return the link to the integrated file, or null if no file is integrated
+     */
+    public String getFileLink() {
+
+        return m_fileLink;
+    }
+
+    /**
+     * Returns the headline of the paragraph.<p>
+     * 
+     * @return the headline of the paragraph
+     */
+    public String getHeadline() {
+
+        return m_headline;
+    }
+
+    /**
+     * Returns the image alignment, i.e. the paragraph type.<p>
+     * 
+     * @return the image alignment
+     */
+    public String getImageAlign() {
+
+        return m_imageAlign;
+    }
+
+    /**
+     * Returns the image description.<p>
+     * 
+     * @return the image description
+     */
+    public String getImageDescription() {
+
+        return m_imageDescription;
+    }
+
+    /**
+     * Returns the image size property value of the image, or null if no image is shown.<p>
+     * 
+     * @return the image size property value of the image, or null if no image is shown
+     */
+    public String getImageSize() {
+
+        return m_imageSize;
+    }
+
+    /**
+     * Returns the VFS URI of the image.<p>
+     * 
+     * @return the VFS URI of the image
+     */
+    public String getImageUri() {
+
+        return m_imageUri;
+    }
+
+    /**
+     * Returns the text of the paragraph.<p>
+     * 
+     * @return the text of the paragraph
+     */
+    public String getText() {
+
+        return m_text;
+    }
+
+    /**
+     * Returns the XML path of the paragraph node.<p>
+     * 
+     * @return the XML path of the paragraph node
+     */
+    public String getXPath() {
+
+        return m_xPath;
+    }
+
+    /**
+     * Returns if the paragraph shows an image.<p>
+     * 
+     * @return true if the paragraph shows an image
+     */
+    public boolean hasImage() {
+
+        return m_imageSize != null;
+    }
+
+    /**
+     * Sets the link to the integrated file.<p>
+     * 
+     * @param fileLink the link to the integrated file
+     */
+    public void setFileLink(String fileLink) {
+
+        m_fileLink = fileLink;
+    }
+
+    /**
+     * Sets the headline of the paragraph.<p>
+     * 
+     * @param headline the headline of the paragraph
+     */
+    public void setHeadline(String headline) {
+
+        m_headline = headline;
+    }
+
+    /**
+     * Sets the image alignment, i.e. the paragraph type.<p>
+     * 
+     * @param imageAlign the image alignment
+     */
+    public void setImageAlign(String imageAlign) {
+
+        m_imageAlign = imageAlign;
+    }
+
+    /**
+     * Sets the image description.<p>
+     * 
+     * @param imageDescription the image description
+     */
+    public void setImageDescription(String imageDescription) {
+
+        m_imageDescription = imageDescription;
+    }
+
+    /**
+     * Sets the image size property value of the image.<p>
+     * 
+     * @param imageSize the image size property value of the image
+     */
+    public void setImageSize(String imageSize) {
+
+        m_imageSize = imageSize;
+    }
+
+    /**
+     * Sets the VFS URI of the image.<p>
+     * 
+     * @param imageUri the VFS URI of the image
+     */
+    public void setImageUri(String imageUri) {
+
+        m_imageUri = imageUri;
+    }
+
+    /**
+     * Sets the text of the paragraph.<p>
+     * 
+     * @param text the text of the paragraph
+     */
+    public void setText(String text) {
+
+        m_text = text;
+    }
+}
@@ -0,0 +1,274 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software GmbH, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+
+package org.opencms.frontend.layoutpage;
+
+import org.opencms.configuration.CmsParameterConfiguration;
+import org.opencms.file.CmsObject;
+import org.opencms.file.CmsResource;
+import org.opencms.file.CmsVfsResourceNotFoundException;
+import org.opencms.main.CmsEvent;
+import org.opencms.main.CmsException;
+import org.opencms.main.CmsLog;
+import org.opencms.main.I_CmsEventListener;
+import org.opencms.main.OpenCms;
+import org.opencms.workplace.CmsWorkplace;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.logging.Log;
+
+/**
+ * Application wide registry of the parsed type mappings and the macro files used by layout pages.<p>
+ * 
+ * The type mappings are read from the <code>mappings/</code> folder of the module once per project type
+ * (online or offline) and shared between all requests, so they are only returned read-only. Cached offline mappings
+ * are removed when their mapping file is modified, cached online mappings are removed when a project is published.<p>
+ * 
+ * Macro wrappers are created from the templates cached by the {@link CmsFreeMarkerTemplateCache}, 
+ * so no VFS access is required for macro files that were read before.<p>
+ * 
+ * @since 8.0.1
+ */
+public final class CmsLayoutPageRegistry implements I_CmsEventListener {
+
+    /** The VFS path to the folder containing the type mapping files. */
+    public static final String VFS_PATH_MAPPINGS = CmsWorkplace.VFS_PATH_MODULES
+        + CmsLayoutPageBean.MODULE_NAME
+        + "/mappings/";
+
+    /** Cache key prefix for mappings read in the offline project. */
+    private static final String KEY_OFFLINE = "offline:";
+
+    /** Cache key prefix for mappings read in the online project. */
+    private static final String KEY_ONLINE = "online:";
+
+    /** The log object for this class. */
+    private static final Log LOG = CmsLog.getLog(CmsLayoutPageRegistry.class);
+
+    /** The file suffix of the type mapping files. */
+    private static final String MAPPING_SUFFIX = ".properties";
+
+    /** The singleton instance. */
+    private static CmsLayoutPageRegistry m_instance;
+
+    /** The cached type mappings with the project type and the type name as key. */
+    private ConcurrentHashMap m_typeMappings;
+
+    /**
+     * Hidden constructor.<p>
+     */
+    private CmsLayoutPageRegistry() {
+
+        m_typeMappings = new ConcurrentHashMap();
+        // add an event listener to refresh the mappings on modification, publish and clear events
+        OpenCms.addCmsEventListener(this, new int[] {
+            I_CmsEventListener.EVENT_PUBLISH_PROJECT,
+            I_CmsEventListener.EVENT_CLEAR_CACHES,
+            I_CmsEventListener.EVENT_CLEAR_ONLINE_CACHES,
+            I_CmsEventListener.EVENT_CLEAR_OFFLINE_CACHES,
+            I_CmsEventListener.EVENT_RESOURCE_AND_PROPERTIES_MODIFIED,
+            I_CmsEventListener.EVENT_RESOURCE_MODIFIED,
+            I_CmsEventListener.EVENT_RESOURCES_AND_PROPERTIES_MODIFIED,
+            I_CmsEventListener.EVENT_RESOURCES_MODIFIED,
+            I_CmsEventListener.EVENT_RESOURCE_DELETED,
+            I_CmsEventListener.EVENT_RESOURCE_MOVED});
+    }
+
+    /**
+     * Returns the singleton instance of the registry.<p>
+     * 
+     * @return the singleton instance of the registry
+     */
+    public static synchronized CmsLayoutPageRegistry getInstance() {
+
+        if (m_instance == null) {
+            m_instance = new CmsLayoutPageRegistry();
+        }
+        return m_instance;
+    }
+
+    /**
+     * Implements the CmsEvent interface, removes the affected type mappings on modification, publish and clear cache events.<p>
+     *
+     * @param event CmsEvent that has occurred
+     */
+    public void cmsEvent(CmsEvent event) {
+
+        switch (event.getType()) {
+            case I_CmsEventListener.EVENT_PUBLISH_PROJECT:
+            case I_CmsEventListener.EVENT_CLEAR_ONLINE_CACHES:
+                removeTypeMappings(KEY_ONLINE);
+                break;
+            case I_CmsEventListener.EVENT_CLEAR_OFFLINE_CACHES:
+                removeTypeMappings(KEY_OFFLINE);
+                break;
+            case I_CmsEventListener.EVENT_CLEAR_CACHES:
+                m_typeMappings.clear();
+                break;
+            case I_CmsEventListener.EVENT_RESOURCE_AND_PROPERTIES_MODIFIED:
+            case I_CmsEventListener.EVENT_RESOURCE_MODIFIED:
+                Object resource = event.getData().get(I_CmsEventListener.KEY_RESOURCE);
+                if (resource instanceof CmsResource) {
+                    resourceModified((CmsResource)resource);
+                }
+                break;
+            case I_CmsEventListener.EVENT_RESOURCES_AND_PROPERTIES_MODIFIED:
+            case I_CmsEventListener.EVENT_RESOURCES_MODIFIED:
+            case I_CmsEventListener.EVENT_RESOURCE_DELETED:
+            case I_CmsEventListener.EVENT_RESOURCE_MOVED:
+                Object resources = event.getData().get(I_CmsEventListener.KEY_RESOURCES);
+                if (resources instanceof List) {
+                    Iterator i = ((List)resources).iterator();
+                    while (i.hasNext()) {
+                        Object res = i.next();
+                        if (res instanceof CmsResource) {
+                            resourceModified((CmsResource)res);
+                        }
+                    }
+                }
+                break;
+            default: // no operation
+        }
+    }
+
+    /**
+     * Returns a new macro wrapper for the given macro file.<p>
+     * 
+     * The returned wrapper holds its own context and must not be shared between requests.<p>
+     * 
+     * @param cms the OpenCms user context to use
+     * @param macroFile the absolute path of the macro template file in the VFS of OpenCms
+     * 
+     * @return a new macro wrapper for the given macro file
+     * 
+     * @throws Exception if the macro file is not found or the initialization of the wrapper fails
+     */
+    public I_CmsMacroWrapper getMacroWrapper(CmsObject cms, String macroFile) throws Exception {
+
+        try {
+            // the template cache only accesses the VFS if the template was not read before
+            return new CmsMacroWrapperFreeMarker(cms, macroFile);
+        } catch (CmsException e) {
+            // macro file not found, log error and throw exception
+            if (LOG.isErrorEnabled()) {
+                LOG.error(Messages.get().getBundle().key(Messages.LOG_ERR_VFS_RESOURCE_1, macroFile));
+            }
+            throw new CmsException(Messages.get().container(Messages.LOG_ERR_VFS_RESOURCE_1, macroFile), e);
+        }
+    }
+
+    /**
+     * Returns the shared type mappings for the resource type with the given name.<p>
+     * 
+     * The mappings map the keys of the mapping file to their value, which is a String, 
+     * or a List of Strings for keys with several values, like {@link CmsParameterConfiguration#getObject(String)}.
+     * If no mapping file exists for the resource type, empty mappings are returned.<p>
+     * 
+     * @param cms the OpenCms user context to use
+     * @param typeName the name of the resource type
+     * 
+     * @return the shared read-only type mappings for the resource type
+     * 
+     * @throws CmsException if reading the mapping file fails
+     * @throws IOException if parsing the mapping file fails
+     */
+    public Map getTypeMappings(CmsObject cms, String typeName) throws CmsException, IOException {
+
+        boolean online = cms.getRequestContext().getCurrentProject().isOnlineProject();
+        String key = (online ? KEY_ONLINE : KEY_OFFLINE) + typeName;
+        Map result = (Map)m_typeMappings.get(key);
+        if (result == null) {
+            byte[] contents;
+            try {
+                contents = cms.readFile(VFS_PATH_MAPPINGS + typeName + MAPPING_SUFFIX).getContents();
+            } catch (CmsVfsResourceNotFoundException e) {
+                // no mapping file available for this type, only remember this online
+                // because an offline mapping file might be created without a modification event
+                if (online) {
+                    m_typeMappings.put(key, Collections.EMPTY_MAP);
+                }
+                return Collections.EMPTY_MAP;
+            }
+            CmsParameterConfiguration mappings = new CmsParameterConfiguration();
+            mappings.load(new ByteArrayInputStream(contents));
+            result = new HashMap();
+            Iterator i = mappings.keySet().iterator();
+            while (i.hasNext()) {
+                String mappingKey = (String)i.next();
+                Object value = mappings.getObject(mappingKey);
+                if (value instanceof List) {
+                    value = Collections.unmodifiableList(new ArrayList((List)value));
+                }
+                result.put(mappingKey, value);
+            }
+            result = Collections.unmodifiableMap(result);
+            m_typeMappings.put(key, result);
+        }
+        return result;
+    }
+
+    /**
+     * Removes the offline type mappings that were read from the given resource.<p>
+     * 
+     * @param resource the modified resource
+     */
+    private void resourceModified(CmsResource resource) {
+
+        String rootPath = resource.getRootPath();
+        if (rootPath.startsWith(VFS_PATH_MAPPINGS) && rootPath.endsWith(MAPPING_SUFFIX)) {
+            String typeName = rootPath.substring(VFS_PATH_MAPPINGS.length(), rootPath.length()
+                - MAPPING_SUFFIX.length());
+            m_typeMappings.remove(KEY_OFFLINE + typeName);
+        }
+    }
+
+    /**
+     * Removes all type mappings with a cache key starting with the given prefix.<p>
+     * 
+     * @param prefix the cache key prefix of the type mappings to remove
+     */
+    private void removeTypeMappings(String prefix) {
+
+        List keys = new ArrayList(m_typeMappings.keySet());
+        Iterator i = keys.iterator();
+        while (i.hasNext()) {
+            String key = (String)i.next();
+            if (key.startsWith(prefix)) {
+                m_typeMappings.remove(key);
+            }
+        }
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software GmbH, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+
+package org.opencms.frontend.layoutpage;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects a sequence of macro calls that are rendered together.<p>
+ *
+ * Context variables and macro calls are recorded in the same order as they would be passed to a
+ * {@link I_CmsMacroWrapper}. After calling {@link #process()}, the results are available from the returned
+ * {@link CmsMacroCall} objects.<p>
+ *
+ * In single pass mode, a {@link CmsMacroWrapperFreeMarker} renders all calls by processing the template
+ * only once. Otherwise, or if single pass rendering fails, the template is processed once per macro call.<p>
+ *
+ * Use this class with caution! It might be moved to the OpenCms core packages in the future.<p>
+ *
+ * @since 8.0.1
+ */
+public class CmsMacroBatch {
+
+    /** The recorded macro calls. */
+    private List m_calls;
+
+    /** The context variables put since the last recorded macro call. */
+    private Map m_pendingVariables;
+
+    /** Indicates if all macro calls should be rendered in a single template pass. */
+    private boolean m_singlePass;
+
+    /** The macro wrapper to render the calls with. */
+    private I_CmsMacroWrapper m_wrapper;
+
+    /**
+     * Constructor, with parameters.<p>
+     *
+     * @param wrapper the macro wrapper to render the calls with
+     * @param singlePass if true, all macro calls are rendered in a single template pass if the wrapper supports it
+     */
+    public CmsMacroBatch(I_CmsMacroWrapper wrapper, boolean singlePass) {
+
+        m_wrapper = wrapper;
+        m_singlePass = singlePass;
+        m_calls = new ArrayList();
+        m_pendingVariables = new HashMap(8);
+    }
+
+    /**
+     * Records a call of the macro with the given name.<p>
+     *
+     * The returned call can be used as context variable value of later calls,
+     * it is replaced by the rendered result of the macro.<p>
+     *
+     * @param macroName the name of the macro to render
+     *
+     * @return the recorded macro call
+     */
+    public CmsMacroCall addCall(String macroName) {
+
+        CmsMacroCall call = new CmsMacroCall(macroName, m_pendingVariables);
+        m_calls.add(call);
+        m_pendingVariables = new HashMap(8);
+        return call;
+    }
+
+    /**
+     * Returns the recorded macro calls.<p>
+     *
+     * @return the recorded macro calls
+     */
+    public List getCalls() {
+
+        return Collections.unmodifiableList(m_calls);
+    }
+
+    /**
+     * Returns the macro wrapper to render the calls with.<p>
+     *
+     * @return the macro wrapper to render the calls with
+     */
+    public I_CmsMacroWrapper getMacroWrapper() {
+
+        return m_wrapper;
+    }
+
+    /**
+     * Returns if all macro calls should be rendered in a single template pass.<p>
+     *
+     * @return true if all macro calls should be rendered in a single template pass
+     */
+    public boolean isSinglePass() {
+
+        return m_singlePass;
+    }
+
+    /**
+     * Renders all recorded macro calls.<p>
+     */
+    public void process() {
+
+        if (isSinglePass() && (m_wrapper instanceof CmsMacroWrapperFreeMarker)) {
+            if (((CmsMacroWrapperFreeMarker)m_wrapper).processBatch(getCalls())) {
+                return;
+            }
+        }
+        processSequential();
+    }
+
+    /**
+     * Adds a name/value pair to the context of the next recorded macro call.<p>
+     *
+     * @param key the name to key the provided value with
+     * @param value the corresponding value, this can also be a previously recorded {@link CmsMacroCall}
+     */
+    public void putContextVariable(String key, Object value) {
+
+        m_pendingVariables.put(key, value);
+    }
+
+    /**
+     * Renders the recorded macro calls one after the other using the macro wrapper.<p>
+     */
+    protected void processSequential() {
+
+        Iterator i = m_calls.iterator();
+        while (i.hasNext()) {
+            CmsMacroCall call = (CmsMacroCall)i.next();
+            Iterator j = call.getResolvedVariables().entrySet().iterator();
+            while (j.hasNext()) {
+                Map.Entry entry = (Map.Entry)j.next();
+                m_wrapper.putContextVariable((String)entry.getKey(), entry.getValue());
+            }
+            call.setResult(m_wrapper.getResult(call.getMacroName()));
+        }
+    }
+}
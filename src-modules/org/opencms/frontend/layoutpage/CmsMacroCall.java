@@ -0,0 +1,148 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software GmbH, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+
+package org.opencms.frontend.layoutpage;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * A single macro call of a {@link CmsMacroBatch}.<p>
+ *
+ * The call stores the context variables that were put to the batch since the previous call.
+ * A call can be used as value of a context variable of a later call, it is then replaced
+ * with the rendered result of the call.<p>
+ *
+ * Use this class with caution! It might be moved to the OpenCms core packages in the future.<p>
+ *
+ * @since 8.0.1
+ */
+public class CmsMacroCall {
+
+    /** The name of the macro to render. */
+    private String m_macroName;
+
+    /** The rendered result of the macro. */
+    private String m_result;
+
+    /** The context variables to set before rendering the macro. */
+    private Map m_variables;
+
+    /**
+     * Constructor, with parameters.<p>
+     *
+     * @param macroName the name of the macro to render
+     * @param variables the context variables to set before rendering the macro
+     */
+    protected CmsMacroCall(String macroName, Map variables) {
+
+        m_macroName = macroName;
+        m_variables = variables;
+        m_result = "";
+    }
+
+    /**
+     * Returns the given context variable value, replacing macro calls with their rendered result.<p>
+     *
+     * @param value the context variable value
+     *
+     * @return the resolved context variable value
+     */
+    public static Object resolveValue(Object value) {
+
+        if (value instanceof CmsMacroCall) {
+            return ((CmsMacroCall)value).getResult();
+        }
+        return value;
+    }
+
+    /**
+     * Returns the name of the macro to render.<p>
+     *
+     * @return the name of the macro to render
+     */
+    public String getMacroName() {
+
+        return m_macroName;
+    }
+
+    /**
+     * Returns the context variables with all macro call values replaced by their rendered results.<p>
+     *
+     * @return the resolved context variables
+     */
+    public Map getResolvedVariables() {
+
+        Map result = new HashMap(m_variables.size());
+        Iterator i = m_variables.entrySet().iterator();
+        while (i.hasNext()) {
+            Map.Entry entry = (Map.Entry)i.next();
+            result.put(entry.getKey(), resolveValue(entry.getValue()));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the rendered result of the macro, or an empty String if the call was not processed yet.<p>
+     *
+     * @return the rendered result of the macro
+     */
+    public String getResult() {
+
+        return m_result;
+    }
+
+    /**
+     * Returns the context variables to set before rendering the macro.<p>
+     *
+     * @return the context variables to set before rendering the macro
+     */
+    public Map getVariables() {
+
+        return Collections.unmodifiableMap(m_variables);
+    }
+
+    /**
+     * Sets the rendered result of the macro.<p>
+     *
+     * @param result the rendered result of the macro
+     */
+    protected void setResult(String result) {
+
+        m_result = (result == null) ? "" : result;
+    }
+
+    /**
+     * @see java.lang.Object#toString()
+     */
+    public String toString() {
+
+        return getResult();
+    }
+}
@@ -27,15 +27,23 @@
 
 package org.opencms.frontend.layoutpage;
 
+import freemarker.core.Environment;
 import freemarker.core.Macro;
+import freemarker.template.ObjectWrapper;
 import freemarker.template.Template;
+import freemarker.template.TemplateModelException;
+import freemarker.template.TemplateTransformModel;
 
 import org.opencms.file.CmsObject;
 import org.opencms.main.CmsLog;
 
+import java.io.IOException;
 import java.io.StringWriter;
 import java.io.Writer;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.commons.logging.Log;
@@ -49,9 +57,70 @@ import org.apache.commons.logging.Log;
  */
 public class CmsMacroWrapperFreeMarker implements I_CmsMacroWrapper {
 
+    /**
+     * Template transform that sets the context variables of a macro call and captures the rendered macro.<p>
+     */
+    private static final class CmsMacroCaptureTransform implements TemplateTransformModel {
+
+        /** The macro call to capture the result for. */
+        protected CmsMacroCall m_call;
+
+        /** The context variables to set before rendering the macro. */
+        private Map m_variables;
+
+        /**
+         * Constructor, with parameters.<p>
+         * 
+         * @param call the macro call to capture the result for
+         * @param variables the context variables to set before rendering the macro
+         */
+        protected CmsMacroCaptureTransform(CmsMacroCall call, Map variables) {
+
+            m_call = call;
+            m_variables = variables;
+        }
+
+        /**
+         * @see freemarker.template.TemplateTransformModel#getWriter(java.io.Writer, java.util.Map)
+         */
+        public Writer getWriter(Writer out, Map args) throws TemplateModelException {
+
+            Environment env = Environment.getCurrentEnvironment();
+            ObjectWrapper wrapper = env.getObjectWrapper();
+            Iterator i = m_variables.entrySet().iterator();
+            while (i.hasNext()) {
+                Map.Entry entry = (Map.Entry)i.next();
+                // global variables hide the data model, so the macro sees the values of this call
+                env.setGlobalVariable(
+                    (String)entry.getKey(),
+                    wrapper.wrap(CmsMacroCall.resolveValue(entry.getValue())));
+            }
+            return new StringWriter() {
+
+                /**
+                 * @see java.io.StringWriter#close()
+                 */
+                public void close() throws IOException {
+
+                    super.close();
+                    m_call.setResult(toString());
+                }
+            };
+        }
+    }
+
     /** File suffix for template files. */
     public static final String FILE_SUFFIX = "ftl";
 
+    /** Variable name for the list of macro calls to execute in a single pass. */
+    protected static final String CALLS_NAME = "ocmscalls";
+
+    /** Key of the capture transform in the entries of the list of macro calls. */
+    protected static final String CALL_CAPTURE = "capture";
+
+    /** Key of the macro in the entries of the list of macro calls. */
+    protected static final String CALL_MACRO = "macro";
+
     /** Variable name for the macro to execute. */
     protected static final String MACRO_NAME = "ocmsmacro";
 
@@ -146,6 +215,67 @@ public class CmsMacroWrapperFreeMarker implements I_CmsMacroWrapper {
         m_template = cache.getTemplate(cms, macroFile);
     }
 
+    /**
+     * Renders all given macro calls by processing the template only once.<p>
+     * 
+     * Calls of macros that are not found in the template get an empty result, 
+     * their context variables are passed to the following call.<p>
+     * 
+     * @param calls the list of {@link CmsMacroCall} objects to render
+     * 
+     * @return true if the calls were rendered successfully, otherwise false
+     */
+    public boolean processBatch(List calls) {
+
+        List sequence = new ArrayList(calls.size());
+        Map carriedVariables = null;
+        Iterator i = calls.iterator();
+        while (i.hasNext()) {
+            CmsMacroCall call = (CmsMacroCall)i.next();
+            Map variables = call.getVariables();
+            if (carriedVariables != null) {
+                // add the variables of previous calls with a missing macro
+                carriedVariables.putAll(variables);
+                variables = carriedVariables;
+                carriedVariables = null;
+            }
+            Macro macro = (Macro)m_template.getMacros().get(call.getMacroName());
+            if (macro == null) {
+                // did not find macro
+                call.setResult("");
+                carriedVariables = new HashMap(variables);
+                continue;
+            }
+            Map entry = new HashMap(4);
+            entry.put(CALL_MACRO, macro);
+            entry.put(CALL_CAPTURE, new CmsMacroCaptureTransform(call, variables));
+            sequence.add(entry);
+        }
+
+        boolean success = true;
+        Writer out = new StringWriter();
+        putContextVariable(CALLS_NAME, sequence);
+        try {
+            // the template output itself is not used, the results are captured per call
+            m_template.process(getContext(), out);
+        } catch (Exception e) {
+            if (LOG.isErrorEnabled()) {
+                LOG.error(e.getLocalizedMessage(), e);
+            }
+            success = false;
+        } finally {
+            removeContextVariable(CALLS_NAME);
+        }
+        if (success) {
+            // keep the context in the same state as after rendering the calls one by one
+            i = calls.iterator();
+            while (i.hasNext()) {
+                getContext().putAll(((CmsMacroCall)i.next()).getResolvedVariables());
+            }
+        }
+        return success;
+    }
+
     /**
      * @see org.opencms.frontend.layoutpage.I_CmsMacroWrapper#putContextVariable(java.lang.String, java.lang.Object)
      */
@@ -43,6 +43,9 @@ public final class Messages extends A_CmsMessageBundle {
     /** Message constant for key in the resource bundle. */
     public static final String LOG_ERR_VFS_RESOURCE_1 = "LOG_ERR_VFS_RESOURCE_1";
 
+    /** Message constant for key in the resource bundle. */
+    public static final String LOG_TEMPLATE_REMOVED_1 = "LOG_TEMPLATE_REMOVED_1";
+
     /** Name of the used resource bundle. */
     private static final String BUNDLE_NAME = "org.opencms.frontend.layoutpage.messages";
 
@@ -273,7 +273,7 @@ public class CmsPhotoAlbumBean extends CmsJspActionElement {
         setStyle(new CmsPhotoAlbumStyle());
         // initialize the photo album configuration
         try {
-            setConfiguration(new CmsPhotoAlbumConfiguration(this, configUri));
+            setConfiguration(CmsPhotoAlbumConfigurationCache.getInstance().getConfiguration(this, configUri));
         } catch (Exception e) {
             // set empty configuration
             setConfiguration(new CmsPhotoAlbumConfiguration());
@@ -603,7 +603,7 @@ public class CmsPhotoAlbumBean extends CmsJspActionElement {
         result.append("<table border=\"0\"");
         result.append(getStyle().getClassThumbTable());
         result.append(" width=\"");
-        result.append(getConfiguration().getDetailImageScaler().getWidth());
+        result.append(getConfiguration().getDetailImageWidth());
         result.append("\">\n");
 
         // show the navigation if configured position is top above text
@@ -629,12 +629,12 @@ public class CmsPhotoAlbumBean extends CmsJspActionElement {
         result.append("<img src=\"");
         StringBuffer link = new StringBuffer(256);
         link.append(resourceName);
-        link.append(getConfiguration().getDetailImageScaler().toRequestParam());
+        link.append(getConfiguration().getDetailImageRequestParam());
         result.append(link(link.toString()));
         result.append("\" border=\"0\" width=\"");
-        result.append(getConfiguration().getDetailImageScaler().getWidth());
+        result.append(getConfiguration().getDetailImageWidth());
         result.append("\" height=\"");
-        result.append(getConfiguration().getDetailImageScaler().getHeight());
+        result.append(getConfiguration().getDetailImageHeight());
         result.append("\" alt=\"");
         result.append(title);
         result.append("\" title=\"");
@@ -700,7 +700,7 @@ public class CmsPhotoAlbumBean extends CmsJspActionElement {
         result.append("<table border=\"0\"");
         result.append(getStyle().getClassThumbTable());
         result.append(" width=\"");
-        result.append(getConfiguration().getThumbCols() * getConfiguration().getThumbNailScaler().getWidth());
+        result.append(getConfiguration().getThumbCols() * getConfiguration().getThumbNailWidth());
         result.append("\">\n");
 
         // show the navigation if configured position is top above text
@@ -721,7 +721,7 @@ public class CmsPhotoAlbumBean extends CmsJspActionElement {
             for (int k = 1; k <= getConfiguration().getThumbCols(); k++) {
                 // build the tumbnail table data cell
                 result.append("\t<td width=\"");
-                result.append(getConfiguration().getThumbNailScaler().getWidth());
+                result.append(getConfiguration().getThumbNailWidth());
                 result.append("\"");
                 result.append(getStyle().getClassThumbImageTitle());
                 result.append(styleAttr);
@@ -749,12 +749,12 @@ public class CmsPhotoAlbumBean extends CmsJspActionElement {
                     result.append("<img src=\"");
                     link = new StringBuffer(256);
                     link.append(resourceName);
-                    link.append(getConfiguration().getThumbNailScaler().toRequestParam());
+                    link.append(getConfiguration().getThumbNailRequestParam());
                     result.append(link(link.toString()));
                     result.append("\" border=\"0\" width=\"");
-                    result.append(getConfiguration().getThumbNailScaler().getWidth());
+                    result.append(getConfiguration().getThumbNailWidth());
                     result.append("\" height=\"");
-                    result.append(getConfiguration().getThumbNailScaler().getHeight());
+                    result.append(getConfiguration().getThumbNailHeight());
                     result.append("\" alt=\"");
                     result.append(title);
                     result.append("\" title=\"");
@@ -46,6 +46,10 @@ import java.util.Locale;
 /**
  * Represents the frontend configuration of a photo album.<p>
  * 
+ * Initialized configurations are shared between requests by the {@link CmsPhotoAlbumConfigurationCache}, 
+ * so they must not be initialized again. The image scalers are only returned as copies, 
+ * use the width and height accessors to read the image sizes without copying a scaler.<p>
+ * 
  * @since 6.1.3 
  */
 public class CmsPhotoAlbumConfiguration {
@@ -137,6 +141,9 @@ public class CmsPhotoAlbumConfiguration {
     /** The image scaler for the detail image. */
     private CmsImageScaler m_detailImageScaler;
 
+    /** The precomputed request parameters of the detail image scaler. */
+    private String m_detailImageRequestParam;
+
     /** The navigation element position on the pages. */
     private String m_navigationPosition;
 
@@ -161,6 +168,9 @@ public class CmsPhotoAlbumConfiguration {
     /** The number of image columns on the thumbnail overview. */
     private int m_thumbCols;
 
+    /** The precomputed request parameters of the thumbnail image scaler. */
+    private String m_thumbNailRequestParam;
+
     /** The image scaler for the thumbnails. */
     private CmsImageScaler m_thumbNailScaler;
 
@@ -241,13 +251,47 @@ public class CmsPhotoAlbumConfiguration {
     }
 
     /**
-     * Returns the image scaler for the detail image.<p>
+     * Returns the height of the detail image.<p>
      * 
-     * @return the image scaler for the detail image
+     * @return the height of the detail image
+     */
+    public int getDetailImageHeight() {
+
+        return m_detailImageScaler.getHeight();
+    }
+
+    /**
+     * Returns the precomputed request parameters of the detail image scaler.<p>
+     * 
+     * @return the precomputed request parameters of the detail image scaler
+     */
+    public String getDetailImageRequestParam() {
+
+        if (m_detailImageRequestParam == null) {
+            // configuration was not initialized from a VFS file
+            return m_detailImageScaler.toRequestParam();
+        }
+        return m_detailImageRequestParam;
+    }
+
+    /**
+     * Returns a copy of the image scaler for the detail image.<p>
+     * 
+     * @return a copy of the image scaler for the detail image
      */
     public CmsImageScaler getDetailImageScaler() {
 
-        return m_detailImageScaler;
+        return copyScaler(m_detailImageScaler);
+    }
+
+    /**
+     * Returns the width of the detail image.<p>
+     * 
+     * @return the width of the detail image
+     */
+    public int getDetailImageWidth() {
+
+        return m_detailImageScaler.getWidth();
     }
 
     /**
@@ -281,13 +325,47 @@ public class CmsPhotoAlbumConfiguration {
     }
 
     /**
-     * Returns the image scaler for the thumbnails.<p>
+     * Returns the height of the thumbnails.<p>
+     * 
+     * @return the height of the thumbnails
+     */
+    public int getThumbNailHeight() {
+
+        return m_thumbNailScaler.getHeight();
+    }
+
+    /**
+     * Returns the precomputed request parameters of the thumbnail image scaler.<p>
      * 
-     * @return the image scaler for the thumbnails
+     * @return the precomputed request parameters of the thumbnail image scaler
+     */
+    public String getThumbNailRequestParam() {
+
+        if (m_thumbNailRequestParam == null) {
+            // configuration was not initialized from a VFS file
+            return m_thumbNailScaler.toRequestParam();
+        }
+        return m_thumbNailRequestParam;
+    }
+
+    /**
+     * Returns a copy of the image scaler for the thumbnails.<p>
+     * 
+     * @return a copy of the image scaler for the thumbnails
      */
     public CmsImageScaler getThumbNailScaler() {
 
-        return m_thumbNailScaler;
+        return copyScaler(m_thumbNailScaler);
+    }
+
+    /**
+     * Returns the width of the thumbnails.<p>
+     * 
+     * @return the width of the thumbnails
+     */
+    public int getThumbNailWidth() {
+
+        return m_thumbNailScaler.getWidth();
     }
 
     /**
@@ -333,6 +411,8 @@ public class CmsPhotoAlbumConfiguration {
     /**
      * Initializes the album configuration.<p>
      * 
+     * Configurations shared by the {@link CmsPhotoAlbumConfigurationCache} must not be initialized again.<p>
+     * 
      * @param jsp the initialized CmsJspActionElement to access the OpenCms API
      * @param configUri URI of the form configuration file, if not provided, current URI is used for configuration
      * 
@@ -403,17 +483,17 @@ public class CmsPhotoAlbumConfiguration {
         } catch (NumberFormatException e) {
             throw new CmsException(Messages.get().container(Messages.LOG_ERR_WRONG_THUMB_BGCOLOR_1, stringValue));
         }
-        getThumbNailScaler().setColor(color);
+        m_thumbNailScaler.setColor(color);
 
         // get the thumbs high quality flag
         stringValue = content.getStringValue(cms, nodePrefix + NODE_HIGHQUALITY, locale);
         if (Boolean.valueOf(stringValue).booleanValue()) {
             // use high quality for thumbnails
-            getThumbNailScaler().setQuality(85);
+            m_thumbNailScaler.setQuality(85);
         } else {
             // use speed render settings for thumbnails
-            getThumbNailScaler().setQuality(50);
-            getThumbNailScaler().setRenderMode(Simapi.RENDER_SPEED);
+            m_thumbNailScaler.setQuality(50);
+            m_thumbNailScaler.setRenderMode(Simapi.RENDER_SPEED);
         }
 
         // get the thumbnail size
@@ -478,7 +558,11 @@ public class CmsPhotoAlbumConfiguration {
         } catch (NumberFormatException e) {
             throw new CmsException(Messages.get().container(Messages.LOG_ERR_WRONG_DETAIL_BGCOLOR_1, stringValue));
         }
-        getDetailImageScaler().setColor(color);
+        m_detailImageScaler.setColor(color);
+
+        // the scalers are complete now, precompute the request parameters used for every image link
+        m_thumbNailRequestParam = m_thumbNailScaler.toRequestParam();
+        m_detailImageRequestParam = m_detailImageScaler.toRequestParam();
     }
 
     /**
@@ -584,6 +668,8 @@ public class CmsPhotoAlbumConfiguration {
         // initialize member image scaler objects
         setDetailImageScaler(new CmsImageScaler());
         setThumbNailScaler(new CmsImageScaler());
+        m_thumbNailRequestParam = null;
+        m_detailImageRequestParam = null;
 
         // set defaults
         setVfsPathGallery("/");
@@ -767,6 +853,18 @@ public class CmsPhotoAlbumConfiguration {
         m_vfsPathGallery = vfsPathGallery;
     }
 
+    /**
+     * Returns a copy of the given image scaler, so that the shared configuration can not be modified.<p>
+     * 
+     * @param scaler the image scaler to copy
+     * 
+     * @return a copy of the given image scaler
+     */
+    private CmsImageScaler copyScaler(CmsImageScaler scaler) {
+
+        return new CmsImageScaler(scaler, scaler.getWidth(), scaler.getHeight());
+    }
+
     /**
      * Checks if the given value is empty and returns in that case the default value.<p>
      * 
@@ -798,10 +896,10 @@ public class CmsPhotoAlbumConfiguration {
                 String currentFilter = (String)filter.get(i);
                 if (isThumbNail) {
                     // set thumbnail filter
-                    getThumbNailScaler().addFilter(currentFilter);
+                    m_thumbNailScaler.addFilter(currentFilter);
                 } else {
                     // set detail image filter
-                    getDetailImageScaler().addFilter(currentFilter);
+                    m_detailImageScaler.addFilter(currentFilter);
                 }
             }
             
@@ -821,11 +919,11 @@ public class CmsPhotoAlbumConfiguration {
         int width = Integer.parseInt((String)sizes.get(0));
         int height = Integer.parseInt((String)sizes.get(1));
         if (isThumbNail) {
-            getThumbNailScaler().setWidth(width);
-            getThumbNailScaler().setHeight(height);
+            m_thumbNailScaler.setWidth(width);
+            m_thumbNailScaler.setHeight(height);
         } else {
-            getDetailImageScaler().setWidth(width);
-            getDetailImageScaler().setHeight(height);
+            m_detailImageScaler.setWidth(width);
+            m_detailImageScaler.setHeight(height);
         }
     }
 
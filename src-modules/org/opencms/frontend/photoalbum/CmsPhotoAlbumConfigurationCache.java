@@ -0,0 +1,177 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software GmbH, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+
+package org.opencms.frontend.photoalbum;
+
+import org.opencms.file.CmsObject;
+import org.opencms.file.CmsResource;
+import org.opencms.jsp.CmsJspActionElement;
+import org.opencms.main.CmsEvent;
+import org.opencms.main.CmsLog;
+import org.opencms.main.I_CmsEventListener;
+import org.opencms.main.OpenCms;
+import org.opencms.util.CmsCollectionsGenericWrapper;
+import org.opencms.util.CmsStringUtil;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.apache.commons.logging.Log;
+
+/**
+ * Caches initialized photo album configurations.<p>
+ *
+ * The configurations are keyed by the root path and the date of last modification of the
+ * configuration resource, the project type, the current site and the requested locale. A modified configuration
+ * file therefore always results in a new cache key, the cache is cleared on publish and clear cache events.<p>
+ *
+ * The cached configurations are shared between all requests and must not be modified.<p>
+ *
+ * @since 8.0.1
+ */
+public final class CmsPhotoAlbumConfigurationCache implements I_CmsEventListener {
+
+    /** The maximum number of cached configurations. */
+    private static final int CACHE_SIZE = 128;
+
+    /** The log object for this class. */
+    private static final Log LOG = CmsLog.getLog(CmsPhotoAlbumConfigurationCache.class);
+
+    /** The singleton instance. */
+    private static CmsPhotoAlbumConfigurationCache m_instance;
+
+    /** The map of cached configurations. */
+    private volatile Map m_configurations;
+
+    /**
+     * Hidden constructor.<p>
+     */
+    private CmsPhotoAlbumConfigurationCache() {
+
+        initConfigurations();
+        // add an event listener to clear the cache on publish and clear events
+        OpenCms.addCmsEventListener(this, new int[] {
+            I_CmsEventListener.EVENT_CLEAR_CACHES,
+            I_CmsEventListener.EVENT_CLEAR_ONLINE_CACHES,
+            I_CmsEventListener.EVENT_CLEAR_OFFLINE_CACHES,
+            I_CmsEventListener.EVENT_PUBLISH_PROJECT});
+    }
+
+    /**
+     * Returns the singleton instance of the configuration cache.<p>
+     *
+     * @return the singleton instance of the configuration cache
+     */
+    public static synchronized CmsPhotoAlbumConfigurationCache getInstance() {
+
+        if (m_instance == null) {
+            m_instance = new CmsPhotoAlbumConfigurationCache();
+        }
+        return m_instance;
+    }
+
+    /**
+     * @see org.opencms.main.I_CmsEventListener#cmsEvent(org.opencms.main.CmsEvent)
+     */
+    public void cmsEvent(CmsEvent event) {
+
+        switch (event.getType()) {
+            case I_CmsEventListener.EVENT_CLEAR_CACHES:
+            case I_CmsEventListener.EVENT_CLEAR_ONLINE_CACHES:
+            case I_CmsEventListener.EVENT_CLEAR_OFFLINE_CACHES:
+            case I_CmsEventListener.EVENT_PUBLISH_PROJECT:
+                initConfigurations();
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug(Messages.get().getBundle().key(Messages.LOG_CONFIGURATION_CACHE_CLEARED_0));
+                }
+                break;
+            default:
+                // noop
+                break;
+        }
+    }
+
+    /**
+     * Returns the shared photo album configuration for the given configuration URI.<p>
+     *
+     * @param jsp the initialized CmsJspActionElement to access the OpenCms API
+     * @param configUri URI of the configuration file, if not provided, current URI is used for configuration
+     *
+     * @return the shared photo album configuration
+     *
+     * @throws Exception if reading or parsing the configuration fails
+     */
+    public CmsPhotoAlbumConfiguration getConfiguration(CmsJspActionElement jsp, String configUri) throws Exception {
+
+        CmsObject cms = jsp.getCmsObject();
+        if (CmsStringUtil.isEmpty(configUri)) {
+            configUri = cms.getRequestContext().getUri();
+        }
+        // reading the resource is cheap compared to unmarshalling the content, it provides the version
+        CmsResource resource = cms.readResource(configUri);
+        String key = getCacheKey(cms, resource);
+        CmsPhotoAlbumConfiguration result = (CmsPhotoAlbumConfiguration)m_configurations.get(key);
+        if (result == null) {
+            result = new CmsPhotoAlbumConfiguration(jsp, configUri);
+            m_configurations.put(key, result);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the cache key for the given configuration resource.<p>
+     *
+     * @param cms the current users context
+     * @param resource the configuration resource
+     *
+     * @return the cache key for the given configuration resource
+     */
+    private String getCacheKey(CmsObject cms, CmsResource resource) {
+
+        StringBuffer key = new StringBuffer(128);
+        key.append(cms.getRequestContext().getCurrentProject().isOnlineProject() ? "online" : "offline");
+        key.append("_");
+        key.append(resource.getRootPath());
+        key.append("_");
+        // the HTML texts contain links that depend on the current site
+        key.append(cms.getRequestContext().getSiteRoot());
+        key.append("_");
+        key.append(resource.getDateLastModified());
+        key.append("_");
+        key.append(cms.getRequestContext().getLocale());
+        return key.toString();
+    }
+
+    /**
+     * Initializes (also clears) the internal configuration map.<p>
+     */
+    private synchronized void initConfigurations() {
+
+        Map configurations = CmsCollectionsGenericWrapper.createLRUMap(CACHE_SIZE);
+        m_configurations = Collections.synchronizedMap(configurations);
+    }
+}
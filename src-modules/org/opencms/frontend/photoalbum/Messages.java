@@ -58,6 +58,9 @@ public final class Messages extends A_CmsMessageBundle {
     /** Message constant for key in the resource bundle. */
     public static final String GUI_THUMB_PAGEINFO_2 = "GUI_THUMB_PAGEINFO_2";
 
+    /** Message constant for key in the resource bundle. */
+    public static final String LOG_CONFIGURATION_CACHE_CLEARED_0 = "LOG_CONFIGURATION_CACHE_CLEARED_0";
+
     /** Message constant for key in the resource bundle. */
     public static final String LOG_ERR_IMAGEFOLDER_NOT_FOUND_1 = "LOG_ERR_IMAGEFOLDER_NOT_FOUND_1";
 
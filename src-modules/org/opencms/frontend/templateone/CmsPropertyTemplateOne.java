@@ -35,7 +35,6 @@ import org.opencms.file.types.CmsResourceTypeBinary;
 import org.opencms.file.types.CmsResourceTypeImage;
 import org.opencms.file.types.CmsResourceTypePlain;
 import org.opencms.file.types.CmsResourceTypeXmlPage;
-import org.opencms.frontend.templateone.modules.CmsLayoutXmlContentHandler;
 import org.opencms.i18n.CmsEncoder;
 import org.opencms.i18n.CmsMessages;
 import org.opencms.jsp.CmsJspActionElement;
@@ -711,21 +710,14 @@ public class CmsPropertyTemplateOne extends CmsPropertyCustom {
 
         for (int i = 0; i < resources.size(); i++) {
             // loop all found resources defining the layout
-            CmsResource res = (CmsResource)resources.get(i);
-            String path = getCms().getSitePath(res);
-            // determine description to show for layout
-            String description = "";
-            try {
-                description = getCms().readPropertyObject(path, CmsPropertyDefinition.PROPERTY_DESCRIPTION, false).getValue(
-                    null);
-                if (CmsStringUtil.isEmpty(description)) {
-                    description = getCms().readPropertyObject(path, CmsPropertyDefinition.PROPERTY_TITLE, false).getValue(
-                        path);
-                }
-            } catch (CmsException e) {
-                // should never happen
-                if (LOG.isErrorEnabled()) {
-                    LOG.error(e.getLocalizedMessage(), e);
+            CmsTemplateConfigurationFile configFile = (CmsTemplateConfigurationFile)resources.get(i);
+            String path = getCms().getSitePath(configFile.getResource());
+            // determine description to show for layout, the properties are read by the configuration file index
+            String description = configFile.getDescription();
+            if (CmsStringUtil.isEmpty(description)) {
+                description = configFile.getTitle();
+                if (description == null) {
+                    description = path;
                 }
             }
             // try to find a localized key for the description property value
@@ -850,8 +842,10 @@ public class CmsPropertyTemplateOne extends CmsPropertyCustom {
     /**
      * Returns the layout configuration files for the specified list type.<p>
      *
+     * The files and their display properties are read from the {@link CmsTemplateConfigurationFileIndex}.<p>
+     *
      * @param listType the type of the layout list, "center" or "right"
-     * @return the layout configuration files for the specified list type
+     * @return the list of {@link CmsTemplateConfigurationFile} objects for the specified list type
      */
     private List getConfigurationFiles(String listType) {
 
@@ -863,8 +857,9 @@ public class CmsPropertyTemplateOne extends CmsPropertyCustom {
             configFolder = VFS_PATH_CONFIGFILES_RIGHT;
         }
         try {
+            CmsTemplateConfigurationFileIndex index = CmsTemplateConfigurationFileIndex.getInstance();
             // first get the default layout files for the list type
-            result = getCms().readResources(configFolder, CmsResourceFilter.ONLY_VISIBLE_NO_DELETED);
+            result.addAll(index.getFiles(getCms(), configFolder, false, true));
 
             // add eventual individual layout files for the list type in the microsite 
             String configPath = getCms().readPropertyObject(
@@ -872,19 +867,12 @@ public class CmsPropertyTemplateOne extends CmsPropertyCustom {
                 CmsTemplateBean.PROPERTY_CONFIGPATH,
                 true).getValue();
             if (CmsStringUtil.isNotEmpty(configPath)) {
-                int type = OpenCms.getResourceManager().getResourceType(CmsLayoutXmlContentHandler.CONFIG_RESTYPE_NAME).getTypeId();
-                CmsResourceFilter filter = CmsResourceFilter.ONLY_VISIBLE_NO_DELETED.addRequireType(type);
-                Iterator i = getCms().readResources(configPath, filter, false).iterator();
+                Iterator i = index.getFiles(getCms(), configPath, true, false).iterator();
                 while (i.hasNext()) {
-                    CmsResource res = (CmsResource)i.next();
-                    // read column property
-                    String column = getCms().readPropertyObject(
-                        getCms().getSitePath(res),
-                        CmsLayoutXmlContentHandler.PROPERTY_LAYOUT_COLUMN,
-                        false).getValue();
-                    if (listType.equals(column)) {
-                        // add resource to list
-                        result.add(res);
+                    CmsTemplateConfigurationFile configFile = (CmsTemplateConfigurationFile)i.next();
+                    if (listType.equals(configFile.getColumn())) {
+                        // add file to list
+                        result.add(configFile);
                     }
                 }
             }
@@ -0,0 +1,105 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software GmbH, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package org.opencms.frontend.templateone;
+
+import org.opencms.file.CmsResource;
+
+/**
+ * A layout configuration file with the properties shown in the template one property dialog.<p>
+ * 
+ * @since 8.0.1
+ */
+public final class CmsTemplateConfigurationFile {
+
+    /** The value of the layout column property. */
+    private String m_column;
+
+    /** The value of the description property. */
+    private String m_description;
+
+    /** The configuration file resource. */
+    private CmsResource m_resource;
+
+    /** The value of the title property. */
+    private String m_title;
+
+    /**
+     * Constructor, with parameters.<p>
+     * 
+     * @param resource the configuration file resource
+     * @param column the value of the layout column property
+     * @param description the value of the description property
+     * @param title the value of the title property
+     */
+    CmsTemplateConfigurationFile(CmsResource resource, String column, String description, String title) {
+
+        m_resource = resource;
+        m_column = column;
+        m_description = description;
+        m_title = title;
+    }
+
+    /**
+     * Returns the value of the layout column property.<p>
+     * 
+     * @return the value of the layout column property, or <code>null</code> if not set
+     */
+    public String getColumn() {
+
+        return m_column;
+    }
+
+    /**
+     * Returns the value of the description property.<p>
+     * 
+     * @return the value of the description property, or <code>null</code> if not set
+     */
+    public String getDescription() {
+
+        return m_description;
+    }
+
+    /**
+     * Returns the configuration file resource.<p>
+     * 
+     * @return the configuration file resource
+     */
+    public CmsResource getResource() {
+
+        return m_resource;
+    }
+
+    /**
+     * Returns the value of the title property.<p>
+     * 
+     * @return the value of the title property, or <code>null</code> if not set
+     */
+    public String getTitle() {
+
+        return m_title;
+    }
+}
@@ -0,0 +1,267 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software GmbH, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package org.opencms.frontend.templateone;
+
+import org.opencms.file.CmsObject;
+import org.opencms.file.CmsPropertyDefinition;
+import org.opencms.file.CmsResource;
+import org.opencms.file.CmsResourceFilter;
+import org.opencms.frontend.templateone.modules.CmsLayoutXmlContentHandler;
+import org.opencms.main.CmsEvent;
+import org.opencms.main.CmsException;
+import org.opencms.main.I_CmsEventListener;
+import org.opencms.main.OpenCms;
+import org.opencms.util.CmsCollectionsGenericWrapper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Caches the layout configuration files of the configuration folders with their display properties.<p>
+ * 
+ * The files are keyed by the project type, the folder, the resource type restriction and the user. 
+ * Online files are removed on publish, offline files are removed if a resource 
+ * inside the configuration folder or a parent folder of it is modified. The number of cached file lists 
+ * is limited, the least recently used lists are removed first.<p>
+ * 
+ * @since 8.0.1
+ */
+public final class CmsTemplateConfigurationFileIndex implements I_CmsEventListener {
+
+    /** The maximum number of cached configuration file lists. */
+    private static final int CACHE_SIZE = 256;
+
+    /** The key prefix for offline files. */
+    private static final String KEY_OFFLINE = "offline_";
+
+    /** The key prefix for online files. */
+    private static final String KEY_ONLINE = "online_";
+
+    /** The singleton instance. */
+    private static CmsTemplateConfigurationFileIndex m_instance;
+
+    /** The map of cached configuration file lists. */
+    private Map m_files;
+
+    /**
+     * Hidden constructor.<p>
+     */
+    private CmsTemplateConfigurationFileIndex() {
+
+        m_files = Collections.synchronizedMap(CmsCollectionsGenericWrapper.createLRUMap(CACHE_SIZE));
+        // add an event listener to remove changed configuration folders
+        OpenCms.addCmsEventListener(this, new int[] {
+            I_CmsEventListener.EVENT_CLEAR_CACHES,
+            I_CmsEventListener.EVENT_CLEAR_ONLINE_CACHES,
+            I_CmsEventListener.EVENT_CLEAR_OFFLINE_CACHES,
+            I_CmsEventListener.EVENT_PUBLISH_PROJECT,
+            I_CmsEventListener.EVENT_PROPERTY_MODIFIED,
+            I_CmsEventListener.EVENT_RESOURCE_MODIFIED,
+            I_CmsEventListener.EVENT_RESOURCE_AND_PROPERTIES_MODIFIED,
+            I_CmsEventListener.EVENT_RESOURCES_MODIFIED,
+            I_CmsEventListener.EVENT_RESOURCES_AND_PROPERTIES_MODIFIED,
+            I_CmsEventListener.EVENT_RESOURCE_DELETED,
+            I_CmsEventListener.EVENT_RESOURCE_MOVED});
+    }
+
+    /**
+     * Returns the singleton instance of the configuration file index.<p>
+     * 
+     * @return the singleton instance of the configuration file index
+     */
+    public static synchronized CmsTemplateConfigurationFileIndex getInstance() {
+
+        if (m_instance == null) {
+            m_instance = new CmsTemplateConfigurationFileIndex();
+        }
+        return m_instance;
+    }
+
+    /**
+     * @see org.opencms.main.I_CmsEventListener#cmsEvent(org.opencms.main.CmsEvent)
+     */
+    public void cmsEvent(CmsEvent event) {
+
+        switch (event.getType()) {
+            case I_CmsEventListener.EVENT_PUBLISH_PROJECT:
+            case I_CmsEventListener.EVENT_CLEAR_ONLINE_CACHES:
+                removeFiles(KEY_ONLINE);
+                break;
+            case I_CmsEventListener.EVENT_CLEAR_OFFLINE_CACHES:
+                removeFiles(KEY_OFFLINE);
+                break;
+            case I_CmsEventListener.EVENT_CLEAR_CACHES:
+                m_files.clear();
+                break;
+            case I_CmsEventListener.EVENT_PROPERTY_MODIFIED:
+            case I_CmsEventListener.EVENT_RESOURCE_AND_PROPERTIES_MODIFIED:
+            case I_CmsEventListener.EVENT_RESOURCE_MODIFIED:
+                Object resource = event.getData().get(I_CmsEventListener.KEY_RESOURCE);
+                if (resource instanceof CmsResource) {
+                    removeFiles((CmsResource)resource);
+                } else {
+                    removeFiles(KEY_OFFLINE);
+                }
+                break;
+            case I_CmsEventListener.EVENT_RESOURCES_AND_PROPERTIES_MODIFIED:
+            case I_CmsEventListener.EVENT_RESOURCES_MODIFIED:
+            case I_CmsEventListener.EVENT_RESOURCE_DELETED:
+            case I_CmsEventListener.EVENT_RESOURCE_MOVED:
+                Object resources = event.getData().get(I_CmsEventListener.KEY_RESOURCES);
+                if (resources instanceof List) {
+                    Iterator i = ((List)resources).iterator();
+                    while (i.hasNext()) {
+                        Object res = i.next();
+                        if (res instanceof CmsResource) {
+                            removeFiles((CmsResource)res);
+                        }
+                    }
+                } else {
+                    removeFiles(KEY_OFFLINE);
+                }
+                break;
+            default: // no operation
+        }
+    }
+
+    /**
+     * Returns the configuration files inside the given folder.<p>
+     * 
+     * @param cms the current users OpenCms context
+     * @param folder the site path of the configuration folder
+     * @param layoutOnly if true, only files of the layout configuration resource type are returned
+     * @param readTree if true, the files of the sub folders are returned as well
+     * 
+     * @return the list of {@link CmsTemplateConfigurationFile} objects
+     * 
+     * @throws CmsException if reading the files fails
+     */
+    public List getFiles(CmsObject cms, String folder, boolean layoutOnly, boolean readTree) throws CmsException {
+
+        StringBuffer key = new StringBuffer(128);
+        key.append(cms.getRequestContext().getCurrentProject().isOnlineProject() ? KEY_ONLINE : KEY_OFFLINE);
+        key.append(cms.getRequestContext().addSiteRoot(folder));
+        if (!folder.endsWith("/")) {
+            key.append('/');
+        }
+        key.append('|');
+        key.append(layoutOnly);
+        key.append('|');
+        key.append(readTree);
+        key.append('|');
+        // the visible files depend on the permissions of the user
+        key.append(cms.getRequestContext().getCurrentUser().getId());
+        List result = (List)m_files.get(key.toString());
+        if (result == null) {
+            result = Collections.unmodifiableList(readFiles(cms, folder, layoutOnly, readTree));
+            m_files.put(key.toString(), result);
+        }
+        return result;
+    }
+
+    /**
+     * Reads the configuration files inside the given folder with their display properties.<p>
+     * 
+     * @param cms the current users OpenCms context
+     * @param folder the site path of the configuration folder
+     * @param layoutOnly if true, only files of the layout configuration resource type are returned
+     * @param readTree if true, the files of the sub folders are returned as well
+     * 
+     * @return the list of {@link CmsTemplateConfigurationFile} objects
+     * 
+     * @throws CmsException if reading the files fails
+     */
+    private List readFiles(CmsObject cms, String folder, boolean layoutOnly, boolean readTree) throws CmsException {
+
+        CmsResourceFilter filter = CmsResourceFilter.ONLY_VISIBLE_NO_DELETED;
+        if (layoutOnly) {
+            filter = filter.addRequireType(OpenCms.getResourceManager().getResourceType(
+                CmsLayoutXmlContentHandler.CONFIG_RESTYPE_NAME).getTypeId());
+        }
+        List resources = cms.readResources(folder, filter, readTree);
+        List result = new ArrayList(resources.size());
+        Iterator i = resources.iterator();
+        while (i.hasNext()) {
+            CmsResource res = (CmsResource)i.next();
+            String column = cms.readPropertyObject(
+                res,
+                CmsLayoutXmlContentHandler.PROPERTY_LAYOUT_COLUMN,
+                false).getValue();
+            String description = cms.readPropertyObject(
+                res,
+                CmsPropertyDefinition.PROPERTY_DESCRIPTION,
+                false).getValue();
+            String title = cms.readPropertyObject(res, CmsPropertyDefinition.PROPERTY_TITLE, false).getValue();
+            result.add(new CmsTemplateConfigurationFile(res, column, description, title));
+        }
+        return result;
+    }
+
+    /**
+     * Removes the offline files of all configuration folders containing the given resource, 
+     * and of all configuration folders inside the resource if it is a folder.<p>
+     * 
+     * @param resource the modified resource
+     */
+    private void removeFiles(CmsResource resource) {
+
+        String rootPath = resource.getRootPath();
+        synchronized (m_files) {
+            Iterator i = m_files.keySet().iterator();
+            while (i.hasNext()) {
+                String key = (String)i.next();
+                if (!key.startsWith(KEY_OFFLINE)) {
+                    continue;
+                }
+                String folder = key.substring(KEY_OFFLINE.length(), key.indexOf('|'));
+                if (rootPath.startsWith(folder) || (resource.isFolder() && folder.startsWith(rootPath))) {
+                    i.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes all cached files with keys starting with the given prefix.<p>
+     * 
+     * @param prefix the key prefix
+     */
+    private void removeFiles(String prefix) {
+
+        synchronized (m_files) {
+            Iterator i = m_files.keySet().iterator();
+            while (i.hasNext()) {
+                if (((String)i.next()).startsWith(prefix)) {
+                    i.remove();
+                }
+            }
+        }
+    }
+}
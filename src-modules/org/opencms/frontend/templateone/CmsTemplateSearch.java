@@ -40,6 +40,7 @@ import org.opencms.util.CmsStringUtil;
 import org.opencms.workplace.CmsWorkplace;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -59,9 +60,15 @@ public class CmsTemplateSearch extends CmsTemplateBean {
     /** Request parameter name for the search entire website flag.<p> */
     public static final String PARAM_SEARCHALL = "entire";
 
+    /** The HTML of the file icons created for the current request, keyed by file extension.<p> */
+    private Map m_fileIcons;
+
     /** Stores the URI of the page calling the search result page.<p> */
     private String m_pageUri;
 
+    /** The ranked results of the current search.<p> */
+    private CmsTemplateSearchResultSet m_resultSet;
+
     /** The search entire website flag.<p> */
     private boolean m_searchAll;
 
@@ -155,55 +162,32 @@ public class CmsTemplateSearch extends CmsTemplateBean {
      */
     public String buildSearchLinks(CmsSearch search) {
 
-        StringBuffer result = new StringBuffer(32);
-        boolean showPageLinks = false;
-        // additional parameters for search result page in module folder
-        StringBuffer additionalParams = new StringBuffer(16);
-        if (search.getPreviousUrl() != null || search.getNextUrl() != null) {
-            // there is at least one previous or next page, build page links
-            showPageLinks = true;
-            result.append("<div class=\"searchlinks\">\n");
-            // fill additional parameters
-            additionalParams.append("&uri=");
-            additionalParams.append(CmsEncoder.encode(getRequestContext().getUri()));
-            additionalParams.append("&");
-            additionalParams.append(CmsLocaleManager.PARAMETER_LOCALE);
-            additionalParams.append("=");
-            additionalParams.append(getRequestContext().getLocale());
-            additionalParams.append("&");
-            additionalParams.append(PARAM_SEARCHALL);
-            additionalParams.append("=");
-            additionalParams.append(isSearchAll());
+        if (m_resultSet == null) {
+            return "";
+        }
+        int pageCount = m_resultSet.getPageCount(search.getMatchesPerPage());
+        if (pageCount < 2) {
+            // there is no previous or next page
+            return "";
         }
-        if (search.getPreviousUrl() != null) {
+        CmsTemplateSearchPagingLinks links = getPagingLinks(search, pageCount);
+        StringBuffer result = new StringBuffer(256 + ((links.getEndPage() - links.getStartPage()) * 256));
+        result.append("<div class=\"searchlinks\">\n");
+        if (links.hasPreviousPage()) {
             // build the link to the previous page
             result.append("\t<input type=\"button\" class=\"formbutton\" value=\"&lt;&lt; ");
             result.append(key("search.previous"));
             result.append("\" onclick=\"location.href=\'");
-            result.append(link(search.getPreviousUrl()));
-            result.append(additionalParams);
+            links.appendLink(result, links.getPage() - 1);
             result.append("\';\">");
         }
-        Map pageLinks;
-        try {
-            // first set request context URI to form URI to obtain right page links
-            getRequestContext().setUri(CmsWorkplace.VFS_PATH_MODULES + MODULE_NAME + "/pages/search.html");
-            pageLinks = search.getPageLinks();
-        } finally {
-            // reset URI to page
-            getRequestContext().setUri(getPageUri());
-        }
-        Iterator i = pageLinks.keySet().iterator();
-        while (i.hasNext()) {
+        for (int pageNumber = links.getStartPage(); pageNumber <= links.getEndPage(); pageNumber++) {
             // show the page links
-            int pageNumber = ((Integer)i.next()).intValue();
-            String pageLink = link((String)pageLinks.get(new Integer(pageNumber)));
             result.append("&nbsp;&nbsp;");
-            if (pageNumber != search.getSearchPage()) {
+            if (pageNumber != links.getPage()) {
                 // create a link to the page
                 result.append("<a href=\"");
-                result.append(pageLink);
-                result.append(additionalParams);
+                links.appendLink(result, pageNumber);
                 result.append("\">");
                 result.append(pageNumber);
                 result.append("</a>");
@@ -212,18 +196,15 @@ public class CmsTemplateSearch extends CmsTemplateBean {
                 result.append(pageNumber);
             }
         }
-        if (search.getNextUrl() != null) {
+        if (links.hasNextPage()) {
             // build the link to the next page
             result.append("&nbsp;&nbsp;<input type=\"button\" class=\"formbutton\" value=\"");
             result.append(key("search.next"));
             result.append(" &gt;&gt;\" onclick=\"location.href=\'");
-            result.append(link(search.getNextUrl()));
-            result.append(additionalParams);
+            links.appendLink(result, links.getPage() + 1);
             result.append("\';\">");
         }
-        if (showPageLinks) {
-            result.append("\n</div>\n");
-        }
+        result.append("\n</div>\n");
         return result.toString();
     }
 
@@ -301,28 +282,33 @@ public class CmsTemplateSearch extends CmsTemplateBean {
     public String getFileIcon(String fileName) {
 
         int lastDot = fileName.lastIndexOf('.');
-        String extension = "";
         // get the file extension 
         if ((lastDot > 0) && (lastDot < (fileName.length() - 1))) {
-            extension = fileName.substring(lastDot + 1).toLowerCase();
-            String iconPath = CmsWorkplace.VFS_PATH_MODULES
-                + MODULE_NAME
-                + "/resources/icons/ic_app_"
-                + extension
-                + ".gif";
-            // check if an icon exists
-            if (getCmsObject().existsResource(iconPath)) {
-                StringBuffer result = new StringBuffer(8);
-                String title = property(CmsPropertyDefinition.PROPERTY_TITLE, iconPath, "");
-                result.append("<img src=\"");
-                result.append(link(iconPath));
-                result.append("\" border=\"0\" alt=\"");
-                result.append(title);
-                result.append("\" title=\"");
-                result.append(title);
-                result.append("\" align=\"left\" hspace=\"2\">");
-                return result.toString();
+            String extension = fileName.substring(lastDot + 1).toLowerCase();
+            if (m_fileIcons == null) {
+                m_fileIcons = new HashMap();
             }
+            String result = (String)m_fileIcons.get(extension);
+            if (result == null) {
+                // the available icons are read only once, see CmsTemplateSearchIcons
+                result = "";
+                CmsTemplateSearchIcons icons = CmsTemplateSearchIcons.getInstance();
+                String iconPath = icons.getIconPath(getCmsObject(), extension);
+                if (iconPath != null) {
+                    StringBuffer html = new StringBuffer(128);
+                    String title = icons.getIconTitle(getCmsObject(), extension);
+                    html.append("<img src=\"");
+                    html.append(link(iconPath));
+                    html.append("\" border=\"0\" alt=\"");
+                    html.append(title);
+                    html.append("\" title=\"");
+                    html.append(title);
+                    html.append("\" align=\"left\" hspace=\"2\">");
+                    result = html.toString();
+                }
+                m_fileIcons.put(extension, result);
+            }
+            return result;
         }
         return "";
 
@@ -369,21 +355,18 @@ public class CmsTemplateSearch extends CmsTemplateBean {
             // set search root to start folder
             search.setSearchRoot(getStartFolder());
         }
-        String queryString = search.getQuery();
-        try {
-            if (CmsStringUtil.isEmptyOrWhitespaceOnly(queryString)) {
-                // no query String found, return empty list
-                queryString = "";
-                search.setQuery("");
-                result = new ArrayList();
+        if (CmsStringUtil.isEmptyOrWhitespaceOnly(search.getQuery())) {
+            // no query String found, return empty list
+            search.setQuery("");
+            result = new ArrayList();
+        } else {
+            // the results of a search are cached, paging only slices the cached result set
+            m_resultSet = CmsTemplateSearchCache.getInstance().getResultSet(getCmsObject(), search);
+            if (m_resultSet != null) {
+                result = m_resultSet.getPage(search.getSearchPage(), search.getMatchesPerPage());
             } else {
-                // first set request context URI to form URI to obtain right page links
-                getRequestContext().setUri(CmsWorkplace.VFS_PATH_MODULES + MODULE_NAME + "/pages/search.html");
-                result = search.getSearchResult();
+                result = null;
             }
-        } finally {
-            // reset URI to page
-            getRequestContext().setUri(getPageUri());
         }
         return result;
     }
@@ -457,4 +440,43 @@ public class CmsTemplateSearch extends CmsTemplateBean {
         m_searchAll = searchAll;
     }
 
+    /**
+     * Returns the paging link builder for the current search.<p>
+     * 
+     * The link to the search result page in the module folder is calculated only once, 
+     * the request context is not changed.<p>
+     * 
+     * @param search the search result object holding all necessary information
+     * @param pageCount the number of result pages
+     * 
+     * @return the paging link builder for the current search
+     */
+    private CmsTemplateSearchPagingLinks getPagingLinks(CmsSearch search, int pageCount) {
+
+        StringBuffer prefix = new StringBuffer(256);
+        prefix.append(CmsWorkplace.VFS_PATH_MODULES);
+        prefix.append(MODULE_NAME);
+        prefix.append("/pages/search.html");
+        prefix.append(search.getSearchParameters());
+        prefix.append("&searchPage=");
+        // additional parameters for search result page in module folder
+        StringBuffer suffix = new StringBuffer(128);
+        suffix.append("&uri=");
+        suffix.append(CmsEncoder.encode(getRequestContext().getUri()));
+        suffix.append("&");
+        suffix.append(CmsLocaleManager.PARAMETER_LOCALE);
+        suffix.append("=");
+        suffix.append(getRequestContext().getLocale());
+        suffix.append("&");
+        suffix.append(PARAM_SEARCHALL);
+        suffix.append("=");
+        suffix.append(isSearchAll());
+        return new CmsTemplateSearchPagingLinks(
+            link(prefix.toString()),
+            suffix.toString(),
+            search.getSearchPage(),
+            pageCount,
+            search.getDisplayPages());
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,74 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software GmbH, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package org.opencms.frontend.templateone;
+
+import org.opencms.search.CmsSearch;
+
+import java.util.List;
+
+/**
+ * Executes the searches of the search result page with the OpenCms search.<p>
+ * 
+ * @since 8.0.1
+ */
+public class CmsTemplateSearchBackend implements I_CmsTemplateSearchBackend {
+
+    /**
+     * @see org.opencms.frontend.templateone.I_CmsTemplateSearchBackend#search(org.opencms.search.CmsSearch, int)
+     */
+    public CmsTemplateSearchResultSet search(CmsSearch search, int maxResults) {
+
+        int searchPage = search.getSearchPage();
+        int matchesPerPage = search.getMatchesPerPage();
+        try {
+            // fetch all results up to the maximum with the first page
+            search.setSearchPage(1);
+            search.setMatchesPerPage(maxResults);
+            List results = search.getSearchResult();
+            if ((results == null) || (search.getLastException() != null)) {
+                return null;
+            }
+            return new CmsTemplateSearchResultSet(results, search.getSearchResultCount(), 0);
+        } finally {
+            search.setSearchPage(searchPage);
+            search.setMatchesPerPage(matchesPerPage);
+        }
+    }
+
+    /**
+     * @see org.opencms.frontend.templateone.I_CmsTemplateSearchBackend#searchPage(org.opencms.search.CmsSearch)
+     */
+    public CmsTemplateSearchResultSet searchPage(CmsSearch search) {
+
+        List results = search.getSearchResult();
+        if ((results == null) || (search.getLastException() != null)) {
+            return null;
+        }
+        int start = (search.getSearchPage() - 1) * search.getMatchesPerPage();
+        return new CmsTemplateSearchResultSet(results, search.getSearchResultCount(), start);
+    }
+}
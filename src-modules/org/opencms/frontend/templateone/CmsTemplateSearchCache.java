@@ -0,0 +1,208 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software GmbH, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package org.opencms.frontend.templateone;
+
+import org.opencms.file.CmsObject;
+import org.opencms.main.CmsEvent;
+import org.opencms.main.CmsLog;
+import org.opencms.main.I_CmsEventListener;
+import org.opencms.main.OpenCms;
+import org.opencms.search.CmsSearch;
+import org.opencms.util.CmsCollectionsGenericWrapper;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.apache.commons.logging.Log;
+
+/**
+ * Caches the first ranked results of the searches on the search result page.<p>
+ * 
+ * The entries are keyed by the user, site, locale and all parameters of the search except the page. 
+ * A search is executed once for the first {@link #MAX_RESULTS} results, paging through these results 
+ * only slices the cached result set. Pages beyond are always read from the search index. 
+ * Only searches in the online project are cached, offline searches are executed for the requested 
+ * page only. The cached entries expire after a short time and the cache is cleared on publish, 
+ * clear cache and search index rebuild events.<p>
+ * 
+ * @since 8.0.1
+ */
+public final class CmsTemplateSearchCache implements I_CmsEventListener {
+
+    /** The maximum number of cached searches. */
+    public static final int CACHE_SIZE = 256;
+
+    /** The number of ranked results of a search that are cached. */
+    public static final int MAX_RESULTS = 200;
+
+    /** The time in milliseconds a cached search is used. */
+    public static final long MAX_AGE = 5 * 60 * 1000;
+
+    /** The log object for this class. */
+    private static final Log LOG = CmsLog.getLog(CmsTemplateSearchCache.class);
+
+    /** The singleton instance. */
+    private static CmsTemplateSearchCache m_instance;
+
+    /** The backend executing the searches that are not cached. */
+    private I_CmsTemplateSearchBackend m_backend;
+
+    /** The map of cached search entries. */
+    private volatile Map m_resultSets;
+
+    /**
+     * Constructor, with parameters.<p>
+     * 
+     * Use this constructor only to create a cache with a custom backend, 
+     * the cache does not register itself as event listener.<p>
+     * 
+     * @param backend the backend executing the searches that are not cached
+     */
+    public CmsTemplateSearchCache(I_CmsTemplateSearchBackend backend) {
+
+        m_backend = backend;
+        clear();
+    }
+
+    /**
+     * Returns the singleton instance of the search cache.<p>
+     * 
+     * @return the singleton instance of the search cache
+     */
+    public static synchronized CmsTemplateSearchCache getInstance() {
+
+        if (m_instance == null) {
+            m_instance = new CmsTemplateSearchCache(new CmsTemplateSearchBackend());
+            // add an event listener to clear the cache on publish, clear and index events
+            OpenCms.addCmsEventListener(m_instance, new int[] {
+                I_CmsEventListener.EVENT_CLEAR_CACHES,
+                I_CmsEventListener.EVENT_CLEAR_ONLINE_CACHES,
+                I_CmsEventListener.EVENT_PUBLISH_PROJECT,
+                I_CmsEventListener.EVENT_REBUILD_SEARCHINDEXES});
+        }
+        return m_instance;
+    }
+
+    /**
+     * Removes all cached searches.<p>
+     */
+    public synchronized void clear() {
+
+        Map resultSets = CmsCollectionsGenericWrapper.createLRUMap(CACHE_SIZE);
+        m_resultSets = Collections.synchronizedMap(resultSets);
+    }
+
+    /**
+     * @see org.opencms.main.I_CmsEventListener#cmsEvent(org.opencms.main.CmsEvent)
+     */
+    public void cmsEvent(CmsEvent event) {
+
+        switch (event.getType()) {
+            case I_CmsEventListener.EVENT_CLEAR_CACHES:
+            case I_CmsEventListener.EVENT_CLEAR_ONLINE_CACHES:
+            case I_CmsEventListener.EVENT_PUBLISH_PROJECT:
+            case I_CmsEventListener.EVENT_REBUILD_SEARCHINDEXES:
+                clear();
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug(Messages.get().getBundle().key(Messages.LOG_SEARCH_CACHE_CLEARED_0));
+                }
+                break;
+            default:
+                // noop
+                break;
+        }
+    }
+
+    /**
+     * Returns a result set containing the page set in the given search.<p>
+     * 
+     * The search is only executed if no result set is cached for it, 
+     * use {@link CmsTemplateSearchResultSet#getPage(int, int)} to read the results of the page. 
+     * Failed searches are not cached, the exception is available from the search object.<p>
+     * 
+     * @param cms the current users context
+     * @param search the initialized search object
+     * 
+     * @return a result set containing the page, or <code>null</code> if the search failed
+     */
+    public CmsTemplateSearchResultSet getResultSet(CmsObject cms, CmsSearch search) {
+
+        if (!cms.getRequestContext().getCurrentProject().isOnlineProject()) {
+            // the offline indexes are updated continuously, never cache them
+            return m_backend.searchPage(search);
+        }
+        int page = search.getSearchPage();
+        if ((page < 1) || (((page - 1) * search.getMatchesPerPage()) >= MAX_RESULTS)) {
+            // the page is beyond the cached results
+            return m_backend.searchPage(search);
+        }
+        String key = getCacheKey(cms, search);
+        long now = System.currentTimeMillis();
+        CmsTemplateSearchCacheEntry entry = (CmsTemplateSearchCacheEntry)m_resultSets.get(key);
+        CmsTemplateSearchResultSet result;
+        if ((entry != null) && ((now - entry.getDateCreated()) < MAX_AGE)) {
+            result = entry.getResultSet();
+        } else {
+            result = m_backend.search(search, MAX_RESULTS);
+            if (result == null) {
+                m_resultSets.remove(key);
+                return null;
+            }
+            m_resultSets.put(key, new CmsTemplateSearchCacheEntry(result, now));
+        }
+        if (!result.hasPage(page, search.getMatchesPerPage())) {
+            // the page reaches beyond the cached results
+            return m_backend.searchPage(search);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the cache key for the given search.<p>
+     * 
+     * The search parameters include the categories, resource types and date ranges 
+     * that may be set from the request, but not the page.<p>
+     * 
+     * @param cms the current users context
+     * @param search the initialized search object
+     * 
+     * @return the cache key for the given search
+     */
+    private String getCacheKey(CmsObject cms, CmsSearch search) {
+
+        StringBuffer key = new StringBuffer(128);
+        // the results are filtered by the read permissions of the user
+        key.append(cms.getRequestContext().getCurrentUser().getId());
+        key.append('|');
+        key.append(cms.getRequestContext().getSiteRoot());
+        key.append('|');
+        key.append(cms.getRequestContext().getLocale());
+        key.append('|');
+        key.append(search.getSearchParameters());
+        return key.toString();
+    }
+}
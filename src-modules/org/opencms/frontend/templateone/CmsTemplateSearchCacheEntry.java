@@ -0,0 +1,73 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software GmbH, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package org.opencms.frontend.templateone;
+
+/**
+ * A result set stored in the {@link CmsTemplateSearchCache} together with its creation date.<p>
+ * 
+ * @since 8.0.1
+ */
+final class CmsTemplateSearchCacheEntry {
+
+    /** The creation date of the entry. */
+    private long m_dateCreated;
+
+    /** The cached result set. */
+    private CmsTemplateSearchResultSet m_resultSet;
+
+    /**
+     * Constructor, with parameters.<p>
+     * 
+     * @param resultSet the cached result set
+     * @param dateCreated the creation date of the entry
+     */
+    CmsTemplateSearchCacheEntry(CmsTemplateSearchResultSet resultSet, long dateCreated) {
+
+        m_resultSet = resultSet;
+        m_dateCreated = dateCreated;
+    }
+
+    /**
+     * Returns the creation date of the entry.<p>
+     * 
+     * @return the creation date of the entry
+     */
+    long getDateCreated() {
+
+        return m_dateCreated;
+    }
+
+    /**
+     * Returns the cached result set.<p>
+     * 
+     * @return the cached result set
+     */
+    CmsTemplateSearchResultSet getResultSet() {
+
+        return m_resultSet;
+    }
+}
@@ -0,0 +1,213 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software GmbH, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package org.opencms.frontend.templateone;
+
+import org.opencms.file.CmsObject;
+import org.opencms.file.CmsPropertyDefinition;
+import org.opencms.file.CmsResource;
+import org.opencms.file.CmsResourceFilter;
+import org.opencms.main.CmsEvent;
+import org.opencms.main.CmsException;
+import org.opencms.main.CmsLog;
+import org.opencms.main.I_CmsEventListener;
+import org.opencms.main.OpenCms;
+import org.opencms.workplace.CmsWorkplace;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.logging.Log;
+
+/**
+ * Stores the file icons of the search result list, keyed by file extension.<p>
+ * 
+ * The map is built once per project type from the icon files available in the module and contains 
+ * the icon path and the title of each icon. It is rebuilt after publish, clear cache events and 
+ * modifications of the offline icons.<p>
+ * 
+ * @since 8.0.1
+ */
+public final class CmsTemplateSearchIcons implements I_CmsEventListener {
+
+    /** The prefix of the icon file names. */
+    public static final String ICON_PREFIX = "ic_app_";
+
+    /** The suffix of the icon file names. */
+    public static final String ICON_SUFFIX = ".gif";
+
+    /** The VFS folder containing the icons. */
+    public static final String VFS_PATH_ICONS = CmsWorkplace.VFS_PATH_MODULES
+        + CmsTemplateBean.MODULE_NAME
+        + "/resources/icons/";
+
+    /** The log object for this class. */
+    private static final Log LOG = CmsLog.getLog(CmsTemplateSearchIcons.class);
+
+    /** The singleton instance. */
+    private static CmsTemplateSearchIcons m_instance;
+
+    /** The offline icons, keyed by file extension. */
+    private volatile Map m_offlineIcons;
+
+    /** The online icons, keyed by file extension. */
+    private volatile Map m_onlineIcons;
+
+    /**
+     * Hidden constructor.<p>
+     */
+    private CmsTemplateSearchIcons() {
+
+        // add an event listener to rebuild the icon maps
+        OpenCms.addCmsEventListener(this, new int[] {
+            I_CmsEventListener.EVENT_CLEAR_CACHES,
+            I_CmsEventListener.EVENT_CLEAR_ONLINE_CACHES,
+            I_CmsEventListener.EVENT_CLEAR_OFFLINE_CACHES,
+            I_CmsEventListener.EVENT_PUBLISH_PROJECT,
+            I_CmsEventListener.EVENT_RESOURCE_AND_PROPERTIES_MODIFIED,
+            I_CmsEventListener.EVENT_RESOURCES_AND_PROPERTIES_MODIFIED,
+            I_CmsEventListener.EVENT_PROPERTY_MODIFIED,
+            I_CmsEventListener.EVENT_RESOURCE_DELETED,
+            I_CmsEventListener.EVENT_RESOURCE_MOVED});
+    }
+
+    /**
+     * Returns the singleton instance of the icon map.<p>
+     * 
+     * @return the singleton instance of the icon map
+     */
+    public static synchronized CmsTemplateSearchIcons getInstance() {
+
+        if (m_instance == null) {
+            m_instance = new CmsTemplateSearchIcons();
+        }
+        return m_instance;
+    }
+
+    /**
+     * @see org.opencms.main.I_CmsEventListener#cmsEvent(org.opencms.main.CmsEvent)
+     */
+    public void cmsEvent(CmsEvent event) {
+
+        switch (event.getType()) {
+            case I_CmsEventListener.EVENT_CLEAR_CACHES:
+                m_onlineIcons = null;
+                m_offlineIcons = null;
+                break;
+            case I_CmsEventListener.EVENT_CLEAR_ONLINE_CACHES:
+            case I_CmsEventListener.EVENT_PUBLISH_PROJECT:
+                m_onlineIcons = null;
+                break;
+            default:
+                // an offline icon or its title may have changed
+                m_offlineIcons = null;
+                break;
+        }
+    }
+
+    /**
+     * Returns the path of the icon for the given file extension.<p>
+     * 
+     * @param cms the current users OpenCms context
+     * @param extension the file extension in lower case
+     * 
+     * @return the path of the icon, or <code>null</code> if no icon exists for the extension
+     */
+    public String getIconPath(CmsObject cms, String extension) {
+
+        return getIcons(cms).containsKey(extension) ? VFS_PATH_ICONS + ICON_PREFIX + extension + ICON_SUFFIX : null;
+    }
+
+    /**
+     * Returns the title of the icon for the given file extension.<p>
+     * 
+     * @param cms the current users OpenCms context
+     * @param extension the file extension in lower case
+     * 
+     * @return the title of the icon, or <code>null</code> if no icon exists for the extension
+     */
+    public String getIconTitle(CmsObject cms, String extension) {
+
+        return (String)getIcons(cms).get(extension);
+    }
+
+    /**
+     * Returns the icon map for the project of the given context, building it if necessary.<p>
+     * 
+     * @param cms the current users OpenCms context
+     * 
+     * @return the map of icon titles, keyed by file extension
+     */
+    private Map getIcons(CmsObject cms) {
+
+        boolean online = cms.getRequestContext().getCurrentProject().isOnlineProject();
+        Map result = online ? m_onlineIcons : m_offlineIcons;
+        if (result == null) {
+            result = readIcons(cms);
+            if (online) {
+                m_onlineIcons = result;
+            } else {
+                m_offlineIcons = result;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Reads the available icons and their titles from the VFS.<p>
+     * 
+     * @param cms the current users OpenCms context
+     * 
+     * @return the map of icon titles, keyed by file extension
+     */
+    private Map readIcons(CmsObject cms) {
+
+        Map result = new HashMap();
+        try {
+            List icons = cms.readResources(VFS_PATH_ICONS, CmsResourceFilter.DEFAULT_FILES, false);
+            Iterator i = icons.iterator();
+            while (i.hasNext()) {
+                CmsResource icon = (CmsResource)i.next();
+                String name = icon.getName();
+                if (name.startsWith(ICON_PREFIX) && name.endsWith(ICON_SUFFIX)) {
+                    String extension = name.substring(ICON_PREFIX.length(), name.length() - ICON_SUFFIX.length());
+                    String title = cms.readPropertyObject(icon, CmsPropertyDefinition.PROPERTY_TITLE, false).getValue(
+                        "");
+                    result.put(extension.toLowerCase(), title);
+                }
+            }
+        } catch (CmsException e) {
+            // icon folder not readable, show no icons
+            if (LOG.isDebugEnabled()) {
+                LOG.debug(e.getLocalizedMessage(), e);
+            }
+        }
+        return Collections.unmodifiableMap(result);
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software GmbH, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package org.opencms.frontend.templateone;
+
+/**
+ * Builds the links to the result pages of a search.<p>
+ * 
+ * The link to a result page is created from a link prefix and a link suffix 
+ * that are calculated only once per request, the page number is put between them.<p>
+ * 
+ * @since 8.0.1
+ */
+public class CmsTemplateSearchPagingLinks {
+
+    /** The last page to show a link for. */
+    private int m_endPage;
+
+    /** The part of the links before the page number. */
+    private String m_linkPrefix;
+
+    /** The part of the links after the page number. */
+    private String m_linkSuffix;
+
+    /** The current page. */
+    private int m_page;
+
+    /** The number of result pages. */
+    private int m_pageCount;
+
+    /** The first page to show a link for. */
+    private int m_startPage;
+
+    /**
+     * Constructor, with parameters.<p>
+     * 
+     * @param linkPrefix the part of the links before the page number
+     * @param linkSuffix the part of the links after the page number
+     * @param page the current page
+     * @param pageCount the number of result pages
+     * @param displayPages the maximum number of page links to show, if less than 1, all pages are shown
+     */
+    public CmsTemplateSearchPagingLinks(
+        String linkPrefix,
+        String linkSuffix,
+        int page,
+        int pageCount,
+        int displayPages) {
+
+        m_linkPrefix = linkPrefix;
+        m_linkSuffix = linkSuffix;
+        m_page = page;
+        m_pageCount = pageCount;
+        m_startPage = 1;
+        m_endPage = pageCount;
+        if (displayPages > 0) {
+            // calculate the window of page links around the current page
+            m_startPage = Math.max(1, page - ((displayPages - 1) / 2));
+            m_endPage = Math.min(pageCount, (m_startPage + displayPages) - 1);
+            m_startPage = Math.max(1, (m_endPage - displayPages) + 1);
+        }
+    }
+
+    /**
+     * Appends the link to the given page to the buffer.<p>
+     * 
+     * @param buffer the buffer to append the link to
+     * @param page the page number to link to
+     */
+    public void appendLink(StringBuffer buffer, int page) {
+
+        buffer.append(m_linkPrefix);
+        buffer.append(page);
+        buffer.append(m_linkSuffix);
+    }
+
+    /**
+     * Returns the last page to show a link for.<p>
+     * 
+     * @return the last page to show a link for
+     */
+    public int getEndPage() {
+
+        return m_endPage;
+    }
+
+    /**
+     * Returns the current page.<p>
+     * 
+     * @return the current page
+     */
+    public int getPage() {
+
+        return m_page;
+    }
+
+    /**
+     * Returns the number of result pages.<p>
+     * 
+     * @return the number of result pages
+     */
+    public int getPageCount() {
+
+        return m_pageCount;
+    }
+
+    /**
+     * Returns the first page to show a link for.<p>
+     * 
+     * @return the first page to show a link for
+     */
+    public int getStartPage() {
+
+        return m_startPage;
+    }
+
+    /**
+     * Returns true if there is a page after the current page.<p>
+     * 
+     * @return true if there is a page after the current page
+     */
+    public boolean hasNextPage() {
+
+        return m_page < m_pageCount;
+    }
+
+    /**
+     * Returns true if there is a page before the current page.<p>
+     * 
+     * @return true if there is a page before the current page
+     */
+    public boolean hasPreviousPage() {
+
+        return m_page > 1;
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software GmbH, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package org.opencms.frontend.templateone;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A window of the ranked results of a search, shared between the requests paging through them.<p>
+ * 
+ * The window starts with the result at the given index and may be smaller than the number of hits 
+ * of the search, the pages of the search are counted from the number of hits.<p>
+ * 
+ * @since 8.0.1
+ */
+public final class CmsTemplateSearchResultSet {
+
+    /** The number of hits of the search. */
+    private int m_hitCount;
+
+    /** The ranked results of the window. */
+    private List m_results;
+
+    /** The index of the first result of the window in the ranked results of the search. */
+    private int m_start;
+
+    /**
+     * Constructor, with parameters.<p>
+     * 
+     * @param results the ranked list of {@link org.opencms.search.CmsSearchResult} objects of the window
+     * @param hitCount the number of hits of the search
+     * @param start the index of the first result of the window in the ranked results of the search
+     */
+    public CmsTemplateSearchResultSet(List results, int hitCount, int start) {
+
+        m_results = Collections.unmodifiableList(new ArrayList(results));
+        m_hitCount = hitCount;
+        m_start = start;
+    }
+
+    /**
+     * Returns the number of hits of the search.<p>
+     * 
+     * @return the number of hits of the search
+     */
+    public int getHitCount() {
+
+        return m_hitCount;
+    }
+
+    /**
+     * Returns the results of the given page.<p>
+     * 
+     * @param page the page number, starting with 1
+     * @param matchesPerPage the number of results per page
+     * 
+     * @return the results of the given page, an empty list if the page is not inside the window
+     */
+    public List getPage(int page, int matchesPerPage) {
+
+        if ((page < 1) || (matchesPerPage < 1)) {
+            return Collections.EMPTY_LIST;
+        }
+        int start = ((page - 1) * matchesPerPage) - m_start;
+        if ((start < 0) || (start >= m_results.size())) {
+            return Collections.EMPTY_LIST;
+        }
+        return m_results.subList(start, Math.min(start + matchesPerPage, m_results.size()));
+    }
+
+    /**
+     * Returns the number of result pages of the search.<p>
+     * 
+     * @param matchesPerPage the number of results per page
+     * 
+     * @return the number of result pages of the search
+     */
+    public int getPageCount(int matchesPerPage) {
+
+        if (matchesPerPage < 1) {
+            return 0;
+        }
+        return (m_hitCount + matchesPerPage - 1) / matchesPerPage;
+    }
+
+    /**
+     * Returns the ranked results of the window.<p>
+     * 
+     * @return the ranked list of {@link org.opencms.search.CmsSearchResult} objects of the window
+     */
+    public List getResults() {
+
+        return m_results;
+    }
+
+    /**
+     * Returns <code>true</code> if the given page is inside the window.<p>
+     * 
+     * @param page the page number, starting with 1
+     * @param matchesPerPage the number of results per page
+     * 
+     * @return <code>true</code> if the given page is inside the window
+     */
+    public boolean hasPage(int page, int matchesPerPage) {
+
+        int start = (page - 1) * matchesPerPage;
+        int end = Math.min(start + matchesPerPage, m_hitCount);
+        return (start >= m_start) && (end <= (m_start + m_results.size()));
+    }
+}
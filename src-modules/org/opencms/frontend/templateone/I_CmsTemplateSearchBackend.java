@@ -0,0 +1,58 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software GmbH, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package org.opencms.frontend.templateone;
+
+import org.opencms.search.CmsSearch;
+
+/**
+ * Executes the searches of the search result page.<p>
+ * 
+ * Used by the {@link CmsTemplateSearchCache} to fetch result sets that are not cached.<p>
+ * 
+ * @since 8.0.1
+ */
+public interface I_CmsTemplateSearchBackend {
+
+    /**
+     * Executes the given search and returns the first ranked results.<p>
+     * 
+     * @param search the initialized search object
+     * @param maxResults the maximum number of results to return
+     * 
+     * @return the ranked results, or <code>null</code> if the search failed
+     */
+    CmsTemplateSearchResultSet search(CmsSearch search, int maxResults);
+
+    /**
+     * Executes the given search and returns the ranked results of the page set in the search object.<p>
+     * 
+     * @param search the initialized search object
+     * 
+     * @return the ranked results of the page, or <code>null</code> if the search failed
+     */
+    CmsTemplateSearchResultSet searchPage(CmsSearch search);
+}
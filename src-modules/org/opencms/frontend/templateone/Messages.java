@@ -85,6 +85,9 @@ public final class Messages extends A_CmsMessageBundle {
     /** Message constant for key in the resource bundle. */
     public static final String LOG_NAVIGATION_CONFIG_ERR_2 = "LOG_NAVIGATION_CONFIG_ERR_2";
 
+    /** Message constant for key in the resource bundle. */
+    public static final String LOG_SEARCH_CACHE_CLEARED_0 = "LOG_SEARCH_CACHE_CLEARED_0";
+
     /** Message constant for key in the resource bundle. */
     public static final String LOG_SEND_MAIL_CONTACT_1 = "LOG_SEND_MAIL_CONTACT_1";
 
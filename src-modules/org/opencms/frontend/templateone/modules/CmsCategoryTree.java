@@ -0,0 +1,159 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software GmbH, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package org.opencms.frontend.templateone.modules;
+
+import org.opencms.file.CmsObject;
+import org.opencms.file.CmsPropertyDefinition;
+import org.opencms.file.CmsResource;
+import org.opencms.file.CmsResourceFilter;
+import org.opencms.file.types.CmsResourceTypeFolder;
+import org.opencms.main.CmsException;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The category folders below a start folder together with their titles and 
+ * the number of resources of a resource type they contain.<p>
+ * 
+ * The resources of the whole folder tree are read with a single call and counted per folder, 
+ * only the resources directly inside a folder are counted.<p>
+ * 
+ * Instances are shared by the {@link CmsCategoryTreeCache} and must not be modified.<p>
+ * 
+ * @since 8.0.1
+ */
+public final class CmsCategoryTree {
+
+    /** The resource counts, keyed by the root path of the folders. */
+    private Map m_counts;
+
+    /** The folders of the tree, in the order returned by the VFS. */
+    private List m_folders;
+
+    /** The folder titles, keyed by the root path of the folders. */
+    private Map m_titles;
+
+    /**
+     * Hidden constructor.<p>
+     * 
+     * @param folders the folders of the tree
+     * @param counts the resource counts, keyed by the root path of the folders
+     * @param titles the folder titles, keyed by the root path of the folders
+     */
+    private CmsCategoryTree(List folders, Map counts, Map titles) {
+
+        m_folders = Collections.unmodifiableList(folders);
+        m_counts = counts;
+        m_titles = titles;
+    }
+
+    /**
+     * Reads the category folders below the given start folder and counts the resources of the given type.<p>
+     * 
+     * @param cms the current users OpenCms context
+     * @param startFolder the site path of the start folder
+     * @param resourceTypeId the resource type to count resources inside folders
+     * 
+     * @return the category folder tree
+     * 
+     * @throws CmsException if reading the resources fails
+     */
+    public static CmsCategoryTree read(CmsObject cms, String startFolder, int resourceTypeId) throws CmsException {
+
+        CmsResourceFilter filter = CmsResourceFilter.DEFAULT.addRequireType(CmsResourceTypeFolder.RESOURCE_TYPE_ID);
+        List folders = cms.readResources(startFolder, filter, true);
+        Map counts = new HashMap(folders.size());
+        Map titles = new HashMap(folders.size());
+        Iterator i = folders.iterator();
+        while (i.hasNext()) {
+            CmsResource folder = (CmsResource)i.next();
+            counts.put(folder.getRootPath(), new int[1]);
+            titles.put(folder.getRootPath(), cms.readPropertyObject(
+                folder,
+                CmsPropertyDefinition.PROPERTY_TITLE,
+                false).getValue(null));
+        }
+        if (!folders.isEmpty()) {
+            // read the resources of the whole tree once and count them per parent folder
+            filter = CmsResourceFilter.DEFAULT.addRequireType(resourceTypeId);
+            i = cms.readResources(startFolder, filter, true).iterator();
+            while (i.hasNext()) {
+                CmsResource resource = (CmsResource)i.next();
+                int[] count = (int[])counts.get(CmsResource.getParentFolder(resource.getRootPath()));
+                if (count != null) {
+                    count[0]++;
+                }
+            }
+        }
+        Map result = new HashMap(counts.size());
+        i = counts.entrySet().iterator();
+        while (i.hasNext()) {
+            Map.Entry entry = (Map.Entry)i.next();
+            result.put(entry.getKey(), new Integer(((int[])entry.getValue())[0]));
+        }
+        return new CmsCategoryTree(folders, result, titles);
+    }
+
+    /**
+     * Returns the folders of the tree, in the order returned by the VFS.<p>
+     * 
+     * @return the list of folder resources
+     */
+    public List getFolders() {
+
+        return m_folders;
+    }
+
+    /**
+     * Returns the number of resources directly inside the given folder.<p>
+     * 
+     * @param folder a folder of the tree
+     * 
+     * @return the number of resources, or -1 if the folder is not part of the tree
+     */
+    public int getResourceCount(CmsResource folder) {
+
+        Integer result = (Integer)m_counts.get(folder.getRootPath());
+        return (result != null) ? result.intValue() : -1;
+    }
+
+    /**
+     * Returns the title of the given folder.<p>
+     * 
+     * @param folder a folder of the tree
+     * 
+     * @return the title of the folder, or <code>null</code> if the title property is not set
+     */
+    public String getTitle(CmsResource folder) {
+
+        return (String)m_titles.get(folder.getRootPath());
+    }
+}
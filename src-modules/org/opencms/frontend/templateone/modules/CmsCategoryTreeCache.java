@@ -0,0 +1,220 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software GmbH, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package org.opencms.frontend.templateone.modules;
+
+import org.opencms.file.CmsObject;
+import org.opencms.file.CmsResource;
+import org.opencms.main.CmsEvent;
+import org.opencms.main.CmsException;
+import org.opencms.main.I_CmsEventListener;
+import org.opencms.main.OpenCms;
+import org.opencms.util.CmsCollectionsGenericWrapper;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Caches the category folder trees of the module list views.<p>
+ * 
+ * The trees are keyed by the project type, the user, the site root, the start folder and the 
+ * counted resource type. All online trees are removed on publish. If a resource or property is modified, 
+ * the offline trees containing the resource are removed, and all offline trees below it if it is a folder. 
+ * The number of cached trees is limited, the least recently used trees are removed first.<p>
+ * 
+ * @since 8.0.1
+ */
+public final class CmsCategoryTreeCache implements I_CmsEventListener {
+
+    /** The maximum number of cached trees. */
+    private static final int CACHE_SIZE = 256;
+
+    /** The key prefix for offline trees. */
+    private static final String KEY_OFFLINE = "offline_";
+
+    /** The key prefix for online trees. */
+    private static final String KEY_ONLINE = "online_";
+
+    /** The singleton instance. */
+    private static CmsCategoryTreeCache m_instance;
+
+    /** The map of cached trees. */
+    private Map m_trees;
+
+    /**
+     * Hidden constructor.<p>
+     */
+    private CmsCategoryTreeCache() {
+
+        m_trees = Collections.synchronizedMap(CmsCollectionsGenericWrapper.createLRUMap(CACHE_SIZE));
+        // add an event listener to remove outdated trees
+        OpenCms.addCmsEventListener(this, new int[] {
+            I_CmsEventListener.EVENT_CLEAR_CACHES,
+            I_CmsEventListener.EVENT_CLEAR_ONLINE_CACHES,
+            I_CmsEventListener.EVENT_CLEAR_OFFLINE_CACHES,
+            I_CmsEventListener.EVENT_PUBLISH_PROJECT,
+            I_CmsEventListener.EVENT_PROPERTY_MODIFIED,
+            I_CmsEventListener.EVENT_RESOURCE_AND_PROPERTIES_MODIFIED,
+            I_CmsEventListener.EVENT_RESOURCES_AND_PROPERTIES_MODIFIED,
+            I_CmsEventListener.EVENT_RESOURCE_DELETED,
+            I_CmsEventListener.EVENT_RESOURCE_MODIFIED,
+            I_CmsEventListener.EVENT_RESOURCE_MOVED,
+            I_CmsEventListener.EVENT_RESOURCES_MODIFIED});
+    }
+
+    /**
+     * Returns the singleton instance of the category tree cache.<p>
+     * 
+     * @return the singleton instance of the category tree cache
+     */
+    public static synchronized CmsCategoryTreeCache getInstance() {
+
+        if (m_instance == null) {
+            m_instance = new CmsCategoryTreeCache();
+        }
+        return m_instance;
+    }
+
+    /**
+     * @see org.opencms.main.I_CmsEventListener#cmsEvent(org.opencms.main.CmsEvent)
+     */
+    public void cmsEvent(CmsEvent event) {
+
+        switch (event.getType()) {
+            case I_CmsEventListener.EVENT_PUBLISH_PROJECT:
+            case I_CmsEventListener.EVENT_CLEAR_ONLINE_CACHES:
+                removeTrees(KEY_ONLINE);
+                break;
+            case I_CmsEventListener.EVENT_CLEAR_CACHES:
+                m_trees.clear();
+                break;
+            case I_CmsEventListener.EVENT_CLEAR_OFFLINE_CACHES:
+                removeTrees(KEY_OFFLINE);
+                break;
+            case I_CmsEventListener.EVENT_PROPERTY_MODIFIED:
+            case I_CmsEventListener.EVENT_RESOURCE_AND_PROPERTIES_MODIFIED:
+            case I_CmsEventListener.EVENT_RESOURCE_MODIFIED:
+                Object resource = event.getData().get(I_CmsEventListener.KEY_RESOURCE);
+                if (resource instanceof CmsResource) {
+                    removeTrees((CmsResource)resource);
+                } else {
+                    removeTrees(KEY_OFFLINE);
+                }
+                break;
+            case I_CmsEventListener.EVENT_RESOURCES_AND_PROPERTIES_MODIFIED:
+            case I_CmsEventListener.EVENT_RESOURCES_MODIFIED:
+            case I_CmsEventListener.EVENT_RESOURCE_DELETED:
+            case I_CmsEventListener.EVENT_RESOURCE_MOVED:
+                Object resources = event.getData().get(I_CmsEventListener.KEY_RESOURCES);
+                if (resources instanceof List) {
+                    Iterator i = ((List)resources).iterator();
+                    while (i.hasNext()) {
+                        Object res = i.next();
+                        if (res instanceof CmsResource) {
+                            removeTrees((CmsResource)res);
+                        }
+                    }
+                } else {
+                    removeTrees(KEY_OFFLINE);
+                }
+                break;
+            default: // no operation
+        }
+    }
+
+    /**
+     * Returns the category folder tree below the given start folder.<p>
+     * 
+     * @param cms the current users OpenCms context
+     * @param startFolder the site path of the start folder
+     * @param resourceTypeId the resource type to count resources inside folders
+     * 
+     * @return the category folder tree
+     * 
+     * @throws CmsException if reading the resources fails
+     */
+    public CmsCategoryTree getTree(CmsObject cms, String startFolder, int resourceTypeId) throws CmsException {
+
+        StringBuffer key = new StringBuffer(128);
+        key.append(cms.getRequestContext().getCurrentProject().isOnlineProject() ? KEY_ONLINE : KEY_OFFLINE);
+        // the folders and resources are filtered by the read permissions of the user
+        key.append(cms.getRequestContext().getCurrentUser().getId());
+        key.append('|');
+        key.append(cms.getRequestContext().getSiteRoot());
+        key.append(startFolder);
+        key.append('|');
+        key.append(resourceTypeId);
+        CmsCategoryTree result = (CmsCategoryTree)m_trees.get(key.toString());
+        if (result == null) {
+            result = CmsCategoryTree.read(cms, startFolder, resourceTypeId);
+            m_trees.put(key.toString(), result);
+        }
+        return result;
+    }
+
+    /**
+     * Removes the offline trees containing the given resource, 
+     * and all offline trees inside the resource if it is a folder.<p>
+     * 
+     * @param resource the modified resource
+     */
+    private void removeTrees(CmsResource resource) {
+
+        String rootPath = resource.getRootPath();
+        synchronized (m_trees) {
+            Iterator i = m_trees.keySet().iterator();
+            while (i.hasNext()) {
+                String key = (String)i.next();
+                if (!key.startsWith(KEY_OFFLINE)) {
+                    continue;
+                }
+                String folder = key.substring(key.indexOf('|') + 1, key.lastIndexOf('|'));
+                if (rootPath.startsWith(folder) || (resource.isFolder() && folder.startsWith(rootPath))) {
+                    i.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes all cached trees with keys starting with the given prefix.<p>
+     * 
+     * @param prefix the key prefix
+     */
+    private void removeTrees(String prefix) {
+
+        synchronized (m_trees) {
+            Iterator i = m_trees.keySet().iterator();
+            while (i.hasNext()) {
+                if (((String)i.next()).startsWith(prefix)) {
+                    i.remove();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,272 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software GmbH, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package org.opencms.frontend.templateone.modules;
+
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Assigns dates to day and month buckets of a time zone.<p>
+ * 
+ * The month boundaries between the years {@link #FIRST_YEAR} and {@link #LAST_YEAR} are calculated 
+ * once, the day boundaries of a month are calculated when the month is first used. 
+ * Afterwards a date is assigned to its bucket with a binary search, without creating calendar objects. 
+ * The boundaries are calculated with a calendar, so days with daylight saving time transitions 
+ * get their real length. Dates outside of the precalculated years are handled with a calendar.<p>
+ * 
+ * Instances are thread safe and shared per time zone.<p>
+ * 
+ * @since 8.0.1
+ */
+public final class CmsDateBuckets {
+
+    /** The first year with precalculated boundaries. */
+    public static final int FIRST_YEAR = 1900;
+
+    /** The last year with precalculated boundaries. */
+    public static final int LAST_YEAR = 2100;
+
+    /** The shared instances, keyed by time zone ID. */
+    private static Map m_instances = new ConcurrentHashMap();
+
+    /** The day boundaries of the months, calculated when first used. */
+    private AtomicReferenceArray m_dayStarts;
+
+    /** The start dates of the months, with the end of the last month as last entry. */
+    private long[] m_monthStarts;
+
+    /** The time zone of the buckets. */
+    private TimeZone m_timeZone;
+
+    /**
+     * Hidden constructor.<p>
+     * 
+     * @param timeZone the time zone of the buckets
+     */
+    private CmsDateBuckets(TimeZone timeZone) {
+
+        m_timeZone = (TimeZone)timeZone.clone();
+        int monthCount = ((LAST_YEAR - FIRST_YEAR) + 1) * 12;
+        m_monthStarts = new long[monthCount + 1];
+        Calendar calendar = createCalendar();
+        for (int i = 0; i <= monthCount; i++) {
+            // set the fields for every month, a month starting in a DST gap must not shift the following months
+            calendar.clear();
+            calendar.set(FIRST_YEAR + (i / 12), i % 12, 1);
+            m_monthStarts[i] = calendar.getTimeInMillis();
+        }
+        m_dayStarts = new AtomicReferenceArray(monthCount);
+    }
+
+    /**
+     * Returns the date buckets of the default time zone.<p>
+     * 
+     * @return the date buckets of the default time zone
+     */
+    public static CmsDateBuckets getInstance() {
+
+        return getInstance(TimeZone.getDefault());
+    }
+
+    /**
+     * Returns the date buckets of the given time zone.<p>
+     * 
+     * @param timeZone the time zone
+     * 
+     * @return the date buckets of the given time zone
+     */
+    public static CmsDateBuckets getInstance(TimeZone timeZone) {
+
+        CmsDateBuckets result = (CmsDateBuckets)m_instances.get(timeZone.getID());
+        if ((result == null) || !result.m_timeZone.hasSameRules(timeZone)) {
+            result = new CmsDateBuckets(timeZone);
+            m_instances.put(timeZone.getID(), result);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the start of the day the given date belongs to.<p>
+     * 
+     * @param date the date in milliseconds
+     * 
+     * @return the start of the day in milliseconds
+     */
+    public long getDayStart(long date) {
+
+        int month = getMonthIndex(date);
+        if (month < 0) {
+            Calendar calendar = createCalendar();
+            calendar.setTimeInMillis(date);
+            calendar.set(Calendar.HOUR_OF_DAY, 0);
+            calendar.set(Calendar.MINUTE, 0);
+            calendar.set(Calendar.SECOND, 0);
+            calendar.set(Calendar.MILLISECOND, 0);
+            return calendar.getTimeInMillis();
+        }
+        long[] dayStarts = getDayStarts(month);
+        return dayStarts[findBucket(dayStarts, date)];
+    }
+
+    /**
+     * Returns the start of the month the given date belongs to.<p>
+     * 
+     * @param date the date in milliseconds
+     * 
+     * @return the start of the month in milliseconds
+     */
+    public long getMonthStart(long date) {
+
+        int month = getMonthIndex(date);
+        if (month < 0) {
+            Calendar calendar = createCalendar();
+            calendar.setTimeInMillis(date);
+            int year = calendar.get(Calendar.YEAR);
+            int monthOfYear = calendar.get(Calendar.MONTH);
+            calendar.clear();
+            calendar.set(year, monthOfYear, 1);
+            return calendar.getTimeInMillis();
+        }
+        return m_monthStarts[month];
+    }
+
+    /**
+     * Returns the time zone of the buckets.<p>
+     * 
+     * @return the time zone of the buckets
+     */
+    public TimeZone getTimeZone() {
+
+        return (TimeZone)m_timeZone.clone();
+    }
+
+    /**
+     * Returns true if the given dates belong to the same day.<p>
+     * 
+     * @param date1 the first date in milliseconds
+     * @param date2 the second date in milliseconds
+     * 
+     * @return true if the given dates belong to the same day
+     */
+    public boolean isSameDay(long date1, long date2) {
+
+        return getDayStart(date1) == getDayStart(date2);
+    }
+
+    /**
+     * Returns true if the given dates belong to the same month.<p>
+     * 
+     * @param date1 the first date in milliseconds
+     * @param date2 the second date in milliseconds
+     * 
+     * @return true if the given dates belong to the same month
+     */
+    public boolean isSameMonth(long date1, long date2) {
+
+        return getMonthStart(date1) == getMonthStart(date2);
+    }
+
+    /**
+     * Returns the index of the bucket containing the given date.<p>
+     * 
+     * @param starts the sorted start dates of the buckets, with the end of the last bucket as last entry
+     * @param date the date in milliseconds
+     * 
+     * @return the index of the bucket, or -1 if the date is outside of all buckets
+     */
+    private int findBucket(long[] starts, long date) {
+
+        if ((date < starts[0]) || (date >= starts[starts.length - 1])) {
+            return -1;
+        }
+        int index = Arrays.binarySearch(starts, date);
+        if (index < 0) {
+            // the date is inside the bucket before the insertion point
+            index = -index - 2;
+        }
+        return index;
+    }
+
+    /**
+     * Creates a cleared calendar of the time zone of the buckets.<p>
+     * 
+     * @return a cleared calendar
+     */
+    private Calendar createCalendar() {
+
+        Calendar result = new GregorianCalendar(m_timeZone);
+        result.clear();
+        return result;
+    }
+
+    /**
+     * Returns the day boundaries of the given month, calculating them if required.<p>
+     * 
+     * @param month the index of the month
+     * 
+     * @return the start dates of the days, with the start of the next month as last entry
+     */
+    private long[] getDayStarts(int month) {
+
+        long[] result = (long[])m_dayStarts.get(month);
+        if (result == null) {
+            Calendar calendar = createCalendar();
+            int year = FIRST_YEAR + (month / 12);
+            int monthOfYear = month % 12;
+            calendar.set(year, monthOfYear, 1);
+            int days = calendar.getActualMaximum(Calendar.DAY_OF_MONTH);
+            result = new long[days + 1];
+            for (int i = 0; i < days; i++) {
+                // set the fields for every day, a day starting in a DST gap must not shift the following days
+                calendar.clear();
+                calendar.set(year, monthOfYear, i + 1);
+                result[i] = calendar.getTimeInMillis();
+            }
+            result[days] = m_monthStarts[month + 1];
+            // concurrent calculations produce the same result, so the last one wins
+            m_dayStarts.set(month, result);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the index of the month the given date belongs to.<p>
+     * 
+     * @param date the date in milliseconds
+     * 
+     * @return the index of the month, or -1 if the date is outside of the precalculated years
+     */
+    private int getMonthIndex(long date) {
+
+        return findBucket(m_monthStarts, date);
+    }
+}
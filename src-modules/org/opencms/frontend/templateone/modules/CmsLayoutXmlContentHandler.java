@@ -44,8 +44,11 @@ import org.opencms.xml.content.Messages;
 import org.opencms.xml.types.I_CmsXmlContentValue;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
 /**
  * A special XML content handler, will be used by all XML contents that create layout files.<p>
@@ -94,14 +97,17 @@ public class CmsLayoutXmlContentHandler extends CmsDefaultXmlContentHandler {
     public CmsFile prepareForWrite(CmsObject cms, CmsXmlContent content, CmsFile file) throws CmsException {
 
         super.prepareForWrite(cms, content, file);
-        resolveLayoutMappings(cms, content);
-        removeEmptyLayoutMappings(cms, content);
+        // the empty default mappings have already been removed by the super implementation
+        writeLayoutMappings(cms, content);
         return file;
     }
 
     /**
      * Removes the layout property values on resources for non-existing, optional elements.<p>
      * 
+     * The layout properties are written with {@link #writeLayoutMappings(CmsObject, CmsXmlContent)}, 
+     * which also removes the values of deleted layout items.<p>
+     * 
      * @param cms the current users OpenCms context
      * @param content the XML content to remove the property values for
      * 
@@ -110,83 +116,14 @@ public class CmsLayoutXmlContentHandler extends CmsDefaultXmlContentHandler {
     protected void removeEmptyLayoutMappings(CmsObject cms, CmsXmlContent content) throws CmsException {
 
         super.removeEmptyMappings(cms, content);
-
-        // get root path of the file
-        String rootPath = content.getFile().getRootPath();
-        List siblings = null;
-        String storedSiteRoot = cms.getRequestContext().getSiteRoot();
-        
-        try {
-            // try / catch to ensure site root is always restored
-            cms.getRequestContext().setSiteRoot("/");
-
-            // read all siblings of the file
-            siblings = cms.readSiblings(rootPath, CmsResourceFilter.IGNORE_EXPIRATION);
-
-            for (int i = 0; i < siblings.size(); i++) {
-
-                // get sibline filename and locale
-                String filename = ((CmsResource)siblings.get(i)).getRootPath();
-                Locale locale = OpenCms.getLocaleManager().getDefaultLocale(cms, filename);
-
-                if (!content.hasLocale(locale)) {
-                    // only remove property if the locale fits
-                    continue;
-                }
-
-                List nestedItems = content.getValues(ELEMENT_LAYOUT, locale);
-
-                // delete properties for an eventually deleted nested layout item
-                int deleteIndex = nestedItems.size() + 1;
-
-                // create resolver to resolve property definition names
-                CmsMacroResolver resolver = CmsMacroResolver.newInstance();
-                resolver.addMacro(CmsTemplateContentListItem.MACRO_LISTINDEX, "" + deleteIndex);
-
-                List properties = new ArrayList(4);
-
-                // delete the resource type property
-                CmsProperty p = new CmsProperty(
-                    resolver.resolveMacros(CmsTemplateContentListItem.PROPERTY_LAYOUT_TYPE),
-                    CmsProperty.DELETE_VALUE,
-                    null);
-                properties.add(p);
-
-                // delete the vfs folder property
-                p = new CmsProperty(
-                    resolver.resolveMacros(CmsTemplateContentListItem.PROPERTY_LAYOUT_FOLDER),
-                    CmsProperty.DELETE_VALUE,
-                    null);
-                properties.add(p);
-
-                // delete the list count property
-                p = new CmsProperty(
-                    resolver.resolveMacros(CmsTemplateContentListItem.PROPERTY_LAYOUT_COUNT),
-                    CmsProperty.DELETE_VALUE,
-                    null);
-                properties.add(p);
-
-                // delete the collector property
-                p = new CmsProperty(
-                    resolver.resolveMacros(CmsTemplateContentListItem.PROPERTY_LAYOUT_COLLECTOR),
-                    CmsProperty.DELETE_VALUE,
-                    null);
-                properties.add(p);
-
-                // write the deleted property values
-                cms.writePropertyObjects(filename, properties);
-            }
-
-        } finally {
-            // restore the saved site root
-            cms.getRequestContext().setSiteRoot(storedSiteRoot);
-        }
+        writeLayoutMappings(cms, content);
     }
 
     /**
      * Resolves the special layout property mappings for the resource.<p>
      * 
-     * These mappings are not defined in the XSD, they are fixed for the layout configuration XML contents.<p>
+     * These mappings are not defined in the XSD, they are fixed for the layout configuration XML contents.
+     * The layout properties are written with {@link #writeLayoutMappings(CmsObject, CmsXmlContent)}.<p>
      * 
      * @param cms the current users OpenCms context
      * @param content the XML content to map the layout property values for
@@ -194,6 +131,23 @@ public class CmsLayoutXmlContentHandler extends CmsDefaultXmlContentHandler {
      */
     protected void resolveLayoutMappings(CmsObject cms, CmsXmlContent content) throws CmsException {
 
+        writeLayoutMappings(cms, content);
+    }
+
+    /**
+     * Writes the layout property mappings of all siblings of the resource.<p>
+     * 
+     * The properties of the layout items are set, and the properties of an eventually deleted 
+     * layout item are removed. The siblings are read only once, and only the properties with a 
+     * value different from the current value are written.<p>
+     * 
+     * @param cms the current users OpenCms context
+     * @param content the XML content to map the layout property values for
+     * 
+     * @throws CmsException in case of read/write errors accessing the OpenCms VFS
+     */
+    protected void writeLayoutMappings(CmsObject cms, CmsXmlContent content) throws CmsException {
+
         // get the original VFS file from the content
         CmsFile file = content.getFile();
         if (file == null) {
@@ -201,7 +155,7 @@ public class CmsLayoutXmlContentHandler extends CmsDefaultXmlContentHandler {
         }
 
         // get root path of the file 
-        String rootPath = content.getFile().getRootPath();
+        String rootPath = file.getRootPath();
         String storedSiteRoot = cms.getRequestContext().getSiteRoot();
 
         try {
@@ -225,61 +179,26 @@ public class CmsLayoutXmlContentHandler extends CmsDefaultXmlContentHandler {
                     continue;
                 }
 
-                // iterate the found layout definitions to set the properties
-                List nestedItems = content.getValues(ELEMENT_LAYOUT, locale);
-                List properties = new ArrayList(nestedItems.size() * 4);
-                for (int k = 0; k < nestedItems.size(); k++) {
-                    I_CmsXmlContentValue layoutConfig = (I_CmsXmlContentValue)nestedItems.get(k);
-                    String layoutConfigPath = layoutConfig.getPath() + "/";
-
-                    // create resolver to resolve property definition names
-                    CmsMacroResolver resolver = CmsMacroResolver.newInstance();
-                    resolver.addMacro(CmsTemplateContentListItem.MACRO_LISTINDEX, "" + (layoutConfig.getIndex() + 1));
-
-                    // set the resource type property
-                    String resType = content.getStringValue(cms, layoutConfigPath + ELEMENT_RESOURCETYPE, locale);
-                    CmsProperty p = new CmsProperty(
-                        resolver.resolveMacros(CmsTemplateContentListItem.PROPERTY_LAYOUT_TYPE),
-                        resType,
-                        null);
-                    properties.add(p);
-
-                    // set the vfs folder property
-                    String folder = content.getStringValue(cms, layoutConfigPath + ELEMENT_VFSFOLDER, locale);
-                    if (CmsStringUtil.isNotEmpty(folder)) {
-                        // folder is set, eventually remove site root from path
-                        if ((folder.length() > 1) && folder.startsWith(storedSiteRoot)) {
-                            folder = folder.substring(storedSiteRoot.length());
-                        }
-                    } else {
-                        // folder not set, remove property value
-                        folder = CmsProperty.DELETE_VALUE;
+                // compare the layout properties with the current values and write only the changed ones
+                Map currentValues = new HashMap();
+                Iterator j = cms.readPropertyObjects(filename, false).iterator();
+                while (j.hasNext()) {
+                    CmsProperty property = (CmsProperty)j.next();
+                    currentValues.put(property.getName(), property.getStructureValue());
+                }
+                List properties = new ArrayList();
+                j = getLayoutProperties(cms, content, locale, storedSiteRoot).iterator();
+                while (j.hasNext()) {
+                    CmsProperty property = (CmsProperty)j.next();
+                    String value = property.getStructureValue();
+                    String currentValue = (String)currentValues.get(property.getName());
+                    if (CmsProperty.DELETE_VALUE.equals(value) ? (currentValue != null) : !value.equals(currentValue)) {
+                        properties.add(property);
                     }
-                    p = new CmsProperty(
-                        resolver.resolveMacros(CmsTemplateContentListItem.PROPERTY_LAYOUT_FOLDER),
-                        folder,
-                        null);
-                    properties.add(p);
-
-                    // set the list count property
-                    String count = content.getStringValue(cms, layoutConfigPath + ELEMENT_COUNT, locale);
-                    p = new CmsProperty(
-                        resolver.resolveMacros(CmsTemplateContentListItem.PROPERTY_LAYOUT_COUNT),
-                        count,
-                        null);
-                    properties.add(p);
-
-                    // set the collector property
-                    String collector = content.getStringValue(cms, layoutConfigPath + ELEMENT_COLLECTOR, locale);
-                    p = new CmsProperty(
-                        resolver.resolveMacros(CmsTemplateContentListItem.PROPERTY_LAYOUT_COLLECTOR),
-                        collector,
-                        null);
-                    properties.add(p);
                 }
-
-                // write all property objects
-                cms.writePropertyObjects(filename, properties);
+                if (!properties.isEmpty()) {
+                    cms.writePropertyObjects(filename, properties);
+                }
             }
 
         } finally {
@@ -288,4 +207,94 @@ public class CmsLayoutXmlContentHandler extends CmsDefaultXmlContentHandler {
         }
     }
 
+    /**
+     * Adds a layout property with the given structure value to the list.<p>
+     * 
+     * Values that are <code>null</code> are not written, so the property is not added.<p>
+     * 
+     * @param properties the list of properties to add the property to
+     * @param resolver the resolver for the property definition name
+     * @param propertyName the property definition name, containing the list index macro
+     * @param value the structure value of the property
+     */
+    private void addLayoutProperty(List properties, CmsMacroResolver resolver, String propertyName, String value) {
+
+        if (value != null) {
+            properties.add(new CmsProperty(resolver.resolveMacros(propertyName), value, null));
+        }
+    }
+
+    /**
+     * Returns the layout properties of the given locale of the content.<p>
+     * 
+     * The properties of an eventually deleted layout item following the last 
+     * layout item are returned with delete values.<p>
+     * 
+     * @param cms the current users OpenCms context
+     * @param content the XML content to map the layout property values for
+     * @param locale the locale to map the layout property values for
+     * @param siteRoot the site root to remove from the layout folders
+     * 
+     * @return the list of layout properties
+     * 
+     * @throws CmsException in case of errors reading the content values
+     */
+    private List getLayoutProperties(CmsObject cms, CmsXmlContent content, Locale locale, String siteRoot)
+    throws CmsException {
+
+        // iterate the found layout definitions to set the properties
+        List nestedItems = content.getValues(ELEMENT_LAYOUT, locale);
+        List result = new ArrayList((nestedItems.size() + 1) * 4);
+        for (int k = 0; k < nestedItems.size(); k++) {
+            I_CmsXmlContentValue layoutConfig = (I_CmsXmlContentValue)nestedItems.get(k);
+            String layoutConfigPath = layoutConfig.getPath() + "/";
+
+            // create resolver to resolve property definition names
+            CmsMacroResolver resolver = CmsMacroResolver.newInstance();
+            resolver.addMacro(CmsTemplateContentListItem.MACRO_LISTINDEX, "" + (layoutConfig.getIndex() + 1));
+
+            // set the resource type property
+            String resType = content.getStringValue(cms, layoutConfigPath + ELEMENT_RESOURCETYPE, locale);
+            addLayoutProperty(result, resolver, CmsTemplateContentListItem.PROPERTY_LAYOUT_TYPE, resType);
+
+            // set the vfs folder property
+            String folder = content.getStringValue(cms, layoutConfigPath + ELEMENT_VFSFOLDER, locale);
+            if (CmsStringUtil.isNotEmpty(folder)) {
+                // folder is set, eventually remove site root from path
+                if ((folder.length() > 1) && folder.startsWith(siteRoot)) {
+                    folder = folder.substring(siteRoot.length());
+                }
+            } else {
+                // folder not set, remove property value
+                folder = CmsProperty.DELETE_VALUE;
+            }
+            addLayoutProperty(result, resolver, CmsTemplateContentListItem.PROPERTY_LAYOUT_FOLDER, folder);
+
+            // set the list count property
+            String count = content.getStringValue(cms, layoutConfigPath + ELEMENT_COUNT, locale);
+            addLayoutProperty(result, resolver, CmsTemplateContentListItem.PROPERTY_LAYOUT_COUNT, count);
+
+            // set the collector property
+            String collector = content.getStringValue(cms, layoutConfigPath + ELEMENT_COLLECTOR, locale);
+            addLayoutProperty(result, resolver, CmsTemplateContentListItem.PROPERTY_LAYOUT_COLLECTOR, collector);
+        }
+
+        // delete properties for an eventually deleted nested layout item
+        CmsMacroResolver resolver = CmsMacroResolver.newInstance();
+        resolver.addMacro(CmsTemplateContentListItem.MACRO_LISTINDEX, "" + (nestedItems.size() + 1));
+        addLayoutProperty(result, resolver, CmsTemplateContentListItem.PROPERTY_LAYOUT_TYPE, CmsProperty.DELETE_VALUE);
+        addLayoutProperty(
+            result,
+            resolver,
+            CmsTemplateContentListItem.PROPERTY_LAYOUT_FOLDER,
+            CmsProperty.DELETE_VALUE);
+        addLayoutProperty(result, resolver, CmsTemplateContentListItem.PROPERTY_LAYOUT_COUNT, CmsProperty.DELETE_VALUE);
+        addLayoutProperty(
+            result,
+            resolver,
+            CmsTemplateContentListItem.PROPERTY_LAYOUT_COLLECTOR,
+            CmsProperty.DELETE_VALUE);
+        return result;
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,236 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software GmbH, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package org.opencms.frontend.templateone.modules;
+
+import org.opencms.file.CmsObject;
+import org.opencms.file.CmsResource;
+import org.opencms.file.CmsResourceFilter;
+import org.opencms.file.collectors.I_CmsResourceCollector;
+import org.opencms.main.CmsException;
+import org.opencms.main.OpenCms;
+import org.opencms.xml.content.CmsXmlContent;
+import org.opencms.xml.content.CmsXmlContentFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The collected, sorted and filtered XML contents of a list folder, with the element values 
+ * required to render the list.<p>
+ * 
+ * The contents are read with the configured collector when the view is built, rendering a 
+ * view does not access the VFS anymore. Element values consisting only of digits are additionally 
+ * provided as dates, so the date elements are parsed only once.<p>
+ * 
+ * A view expires at the earliest future expiration date of its entries or release date of a resource 
+ * in the list folder, because the collected resources change at that time.<p>
+ * 
+ * Instances are shared by the {@link CmsListViewCache} and must not be modified.<p>
+ * 
+ * @since 8.0.1
+ */
+public final class CmsListView {
+
+    /** The date when the view has to be built again. */
+    private long m_dateExpires;
+
+    /** The entries of the list, in collector order. */
+    private List m_entries;
+
+    /** The root path of the list folder. */
+    private String m_folderRootPath;
+
+    /**
+     * Hidden constructor.<p>
+     * 
+     * @param folderRootPath the root path of the list folder
+     * @param entries the entries of the list
+     * @param dateExpires the date when the view has to be built again
+     */
+    private CmsListView(String folderRootPath, List entries, long dateExpires) {
+
+        m_folderRootPath = folderRootPath;
+        m_entries = Collections.unmodifiableList(entries);
+        m_dateExpires = dateExpires;
+    }
+
+    /**
+     * Builds the list view with the given collector.<p>
+     * 
+     * @param cms the current users OpenCms context
+     * @param collectorName the name of the collector to use
+     * @param collectorParam the collector parameter, starting with the list folder
+     * @param elements the element paths to read from the XML contents
+     * 
+     * @return the list view, or <code>null</code> if the collector does not exist
+     * 
+     * @throws CmsException if collecting or reading the XML contents fails
+     */
+    public static CmsListView build(CmsObject cms, String collectorName, String collectorParam, String[] elements)
+    throws CmsException {
+
+        I_CmsResourceCollector collector = OpenCms.getResourceManager().getContentCollector(collectorName);
+        if (collector == null) {
+            return null;
+        }
+        Locale locale = cms.getRequestContext().getLocale();
+        long now = System.currentTimeMillis();
+        long dateExpires = Long.MAX_VALUE;
+        List resources = collector.getResults(cms, collectorName, collectorParam);
+        List entries = new ArrayList(resources.size());
+        Iterator i = resources.iterator();
+        while (i.hasNext()) {
+            CmsResource resource = (CmsResource)i.next();
+            if ((resource.getDateExpired() > now) && (resource.getDateExpired() < dateExpires)) {
+                // the entry disappears from the list when it expires
+                dateExpires = resource.getDateExpired();
+            }
+            String fileName = cms.getSitePath(resource);
+            CmsXmlContent content = CmsXmlContentFactory.unmarshal(cms, cms.readFile(resource));
+            Locale contentLocale = locale;
+            if (!content.hasLocale(contentLocale)) {
+                contentLocale = OpenCms.getLocaleManager().getBestMatchingLocale(
+                    locale,
+                    OpenCms.getLocaleManager().getDefaultLocales(cms, fileName),
+                    content.getLocales());
+            }
+            Map values = new HashMap(elements.length);
+            Map dates = new HashMap(elements.length);
+            for (int j = 0; j < elements.length; j++) {
+                if (!content.hasValue(elements[j], contentLocale)) {
+                    continue;
+                }
+                String value = content.getStringValue(cms, elements[j], contentLocale);
+                values.put(elements[j], value);
+                if (isNumber(value)) {
+                    dates.put(elements[j], new Date(Long.parseLong(value)));
+                }
+            }
+            entries.add(new CmsListViewEntry(fileName, values, dates));
+        }
+        String folder = CmsResource.getFolderPath(collectorParam.substring(0, collectorParam.indexOf('|')));
+        // resources released in the future appear in the list when they are released
+        List unreleased = cms.readResources(folder, CmsResourceFilter.ALL.addRequireReleaseAfter(now), true);
+        i = unreleased.iterator();
+        while (i.hasNext()) {
+            long dateReleased = ((CmsResource)i.next()).getDateReleased();
+            if ((dateReleased > now) && (dateReleased < dateExpires)) {
+                dateExpires = dateReleased;
+            }
+        }
+        return new CmsListView(cms.getRequestContext().addSiteRoot(folder), entries, dateExpires);
+    }
+
+    /**
+     * Returns true if the given String consists only of digits.<p>
+     * 
+     * @param value the String to check
+     * 
+     * @return true if the given String consists only of digits
+     */
+    private static boolean isNumber(String value) {
+
+        if ((value == null) || (value.length() == 0) || (value.length() > 18)) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (!Character.isDigit(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the date when the view has to be built again.<p>
+     * 
+     * This is the earliest future expiration date of the entries or release date of a resource 
+     * in the list folder, or <code>{@link Long#MAX_VALUE}</code> if there is no such date.<p>
+     * 
+     * @return the date when the view has to be built again
+     */
+    public long getDateExpires() {
+
+        return m_dateExpires;
+    }
+
+    /**
+     * Returns the entries of the list, in collector order.<p>
+     * 
+     * @return the list of {@link CmsListViewEntry} objects
+     */
+    public List getEntries() {
+
+        return m_entries;
+    }
+
+    /**
+     * Returns the root path of the list folder.<p>
+     * 
+     * @return the root path of the list folder
+     */
+    public String getFolderRootPath() {
+
+        return m_folderRootPath;
+    }
+
+    /**
+     * Returns the given page of the list.<p>
+     * 
+     * @param pageIndex the index of the page, starting with 1
+     * @param pageSize the maximum number of entries on a page
+     * @param pageNavLength the maximum number of page links in the page navigation
+     * 
+     * @return the page of the list
+     */
+    public CmsListViewPage getPage(int pageIndex, int pageSize, int pageNavLength) {
+
+        return new CmsListViewPage(m_entries, pageIndex, pageSize, pageNavLength);
+    }
+
+    /**
+     * Returns true if the given resource root path affects this list view.<p>
+     * 
+     * This is the case if the resource is inside the list folder, or if the resource 
+     * is a parent folder of the list folder.<p>
+     * 
+     * @param rootPath the root path of a resource
+     * 
+     * @return true if the given resource root path affects this list view
+     */
+    public boolean isAffectedBy(String rootPath) {
+
+        return rootPath.startsWith(m_folderRootPath)
+            || (CmsResource.isFolder(rootPath) && m_folderRootPath.startsWith(rootPath));
+    }
+}
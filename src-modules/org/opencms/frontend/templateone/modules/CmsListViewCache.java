@@ -0,0 +1,228 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software GmbH, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package org.opencms.frontend.templateone.modules;
+
+import org.opencms.db.CmsPublishedResource;
+import org.opencms.file.CmsObject;
+import org.opencms.main.CmsEvent;
+import org.opencms.main.CmsException;
+import org.opencms.main.CmsLog;
+import org.opencms.main.I_CmsEventListener;
+import org.opencms.main.OpenCms;
+import org.opencms.util.CmsCollectionsGenericWrapper;
+import org.opencms.util.CmsUUID;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.logging.Log;
+
+/**
+ * Keeps the list views of the module list elements in memory.<p>
+ * 
+ * Only list views of the online project are cached, the offline lists are rendered with 
+ * direct edit buttons by the <code>&lt;cms:contentload&gt;</code> tag. The views are keyed by the user, 
+ * the site root, the locale, the collector, the collector parameter and the read elements.<p>
+ * 
+ * On publish, only the views whose list folder contains a published resource are removed, 
+ * they are built again when they are requested the next time. A view is also built again after 
+ * its expiration date, see {@link CmsListView#getDateExpires()}. The number of cached views is limited, 
+ * the least recently used views are removed first.<p>
+ * 
+ * @since 8.0.1
+ */
+public final class CmsListViewCache implements I_CmsEventListener {
+
+    /** The maximum number of cached list views. */
+    private static final int CACHE_SIZE = 256;
+
+    /** The log object for this class. */
+    private static final Log LOG = CmsLog.getLog(CmsListViewCache.class);
+
+    /** The singleton instance. */
+    private static CmsListViewCache m_instance;
+
+    /** The version of the cached views, increased whenever views are removed. */
+    private volatile int m_version;
+
+    /** The map of cached list views. */
+    private Map m_views;
+
+    /**
+     * Hidden constructor.<p>
+     */
+    private CmsListViewCache() {
+
+        m_views = Collections.synchronizedMap(CmsCollectionsGenericWrapper.createLRUMap(CACHE_SIZE));
+        // add an event listener to remove outdated views
+        OpenCms.addCmsEventListener(this, new int[] {
+            I_CmsEventListener.EVENT_CLEAR_CACHES,
+            I_CmsEventListener.EVENT_CLEAR_ONLINE_CACHES,
+            I_CmsEventListener.EVENT_PUBLISH_PROJECT});
+    }
+
+    /**
+     * Returns the singleton instance of the list view cache.<p>
+     * 
+     * @return the singleton instance of the list view cache
+     */
+    public static synchronized CmsListViewCache getInstance() {
+
+        if (m_instance == null) {
+            m_instance = new CmsListViewCache();
+        }
+        return m_instance;
+    }
+
+    /**
+     * @see org.opencms.main.I_CmsEventListener#cmsEvent(org.opencms.main.CmsEvent)
+     */
+    public void cmsEvent(CmsEvent event) {
+
+        // views built concurrently from the outdated contents must not be cached
+        m_version++;
+        switch (event.getType()) {
+            case I_CmsEventListener.EVENT_PUBLISH_PROJECT:
+                List rootPaths = getPublishedRootPaths(event);
+                if (rootPaths != null) {
+                    removeViews(rootPaths);
+                } else {
+                    m_views.clear();
+                }
+                break;
+            case I_CmsEventListener.EVENT_CLEAR_CACHES:
+            case I_CmsEventListener.EVENT_CLEAR_ONLINE_CACHES:
+                m_views.clear();
+                break;
+            default:
+                // noop
+                break;
+        }
+    }
+
+    /**
+     * Returns the list view for the given collector.<p>
+     * 
+     * @param cms the current users OpenCms context
+     * @param collectorName the name of the collector to use
+     * @param collectorParam the collector parameter, starting with the list folder
+     * @param elements the element paths to read from the XML contents
+     * 
+     * @return the list view, or <code>null</code> if the current project is no online project or the collector does not exist
+     * 
+     * @throws CmsException if collecting or reading the XML contents fails
+     */
+    public CmsListView getListView(CmsObject cms, String collectorName, String collectorParam, String[] elements)
+    throws CmsException {
+
+        if (!cms.getRequestContext().getCurrentProject().isOnlineProject()) {
+            return null;
+        }
+        StringBuffer key = new StringBuffer(128);
+        // the contents are filtered by the read permissions of the user
+        key.append(cms.getRequestContext().getCurrentUser().getId());
+        key.append('|');
+        key.append(cms.getRequestContext().getSiteRoot());
+        key.append('|');
+        key.append(cms.getRequestContext().getLocale());
+        key.append('|');
+        key.append(collectorName);
+        key.append('|');
+        key.append(collectorParam);
+        for (int i = 0; i < elements.length; i++) {
+            key.append('|');
+            key.append(elements[i]);
+        }
+        CmsListView result = (CmsListView)m_views.get(key.toString());
+        if ((result != null) && (System.currentTimeMillis() >= result.getDateExpires())) {
+            // an entry has expired or a resource has been released since the view was built
+            m_views.remove(key.toString());
+            result = null;
+        }
+        if (result == null) {
+            int version = m_version;
+            result = CmsListView.build(cms, collectorName, collectorParam, elements);
+            if ((result != null) && (version == m_version)) {
+                m_views.put(key.toString(), result);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the root paths of the resources published with the given event.<p>
+     * 
+     * @param event the publish event
+     * 
+     * @return the root paths of the published resources, or <code>null</code> if they can not be determined
+     */
+    private List getPublishedRootPaths(CmsEvent event) {
+
+        CmsUUID publishHistoryId = (CmsUUID)event.getData().get(I_CmsEventListener.KEY_PUBLISHID);
+        if (publishHistoryId == null) {
+            return null;
+        }
+        try {
+            CmsObject cms = OpenCms.initCmsObject(OpenCms.getDefaultUsers().getUserGuest());
+            List publishedResources = cms.readPublishedResources(publishHistoryId);
+            List result = new ArrayList(publishedResources.size());
+            Iterator i = publishedResources.iterator();
+            while (i.hasNext()) {
+                result.add(((CmsPublishedResource)i.next()).getRootPath());
+            }
+            return result;
+        } catch (CmsException e) {
+            LOG.error(e.getLocalizedMessage(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Removes all cached views that are affected by one of the given resource root paths.<p>
+     * 
+     * @param rootPaths the root paths of the published resources
+     */
+    private void removeViews(List rootPaths) {
+
+        synchronized (m_views) {
+            Iterator i = m_views.values().iterator();
+            while (i.hasNext()) {
+                CmsListView view = (CmsListView)i.next();
+                Iterator j = rootPaths.iterator();
+                while (j.hasNext()) {
+                    if (view.isAffectedBy((String)j.next())) {
+                        i.remove();
+                        break;
+                    }
+                }
+            }
+        }
+    }
+}
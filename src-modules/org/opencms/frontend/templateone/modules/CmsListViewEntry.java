@@ -0,0 +1,116 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software GmbH, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package org.opencms.frontend.templateone.modules;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * A single entry of a {@link CmsListView}, holding the element values of an XML content.<p>
+ * 
+ * @since 8.0.1
+ */
+public final class CmsListViewEntry {
+
+    /** The date values, keyed by element path. */
+    private Map m_dates;
+
+    /** The site path of the XML content. */
+    private String m_fileName;
+
+    /** The String values, keyed by element path. */
+    private Map m_values;
+
+    /**
+     * Constructor, with parameters.<p>
+     * 
+     * @param fileName the site path of the XML content
+     * @param values the String values, keyed by element path
+     * @param dates the date values, keyed by element path
+     */
+    CmsListViewEntry(String fileName, Map values, Map dates) {
+
+        m_fileName = fileName;
+        m_values = Collections.unmodifiableMap(values);
+        m_dates = Collections.unmodifiableMap(dates);
+    }
+
+    /**
+     * Returns the date value of the given element.<p>
+     * 
+     * @param element the element path
+     * 
+     * @return the date value, or <code>null</code> if the element does not exist or is no date
+     */
+    public Date getDate(String element) {
+
+        return (Date)m_dates.get(element);
+    }
+
+    /**
+     * Returns the date values of all elements that contain a date, keyed by element path.<p>
+     * 
+     * @return the date values, keyed by element path
+     */
+    public Map getDates() {
+
+        return m_dates;
+    }
+
+    /**
+     * Returns the site path of the XML content.<p>
+     * 
+     * @return the site path of the XML content
+     */
+    public String getFileName() {
+
+        return m_fileName;
+    }
+
+    /**
+     * Returns the String value of the given element.<p>
+     * 
+     * @param element the element path
+     * 
+     * @return the String value, or <code>null</code> if the element does not exist
+     */
+    public String getValue(String element) {
+
+        return (String)m_values.get(element);
+    }
+
+    /**
+     * Returns the String values of all existing elements, keyed by element path.<p>
+     * 
+     * @return the String values, keyed by element path
+     */
+    public Map getValues() {
+
+        return m_values;
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software GmbH, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package org.opencms.frontend.templateone.modules;
+
+import java.util.List;
+
+/**
+ * A single page of a {@link CmsListView}, with the information required to render the page navigation.<p>
+ * 
+ * The page navigation is calculated like in the <code>&lt;cms:contentload&gt;</code> tag.<p>
+ * 
+ * @since 8.0.1
+ */
+public final class CmsListViewPage {
+
+    /** The entries of the page. */
+    private List m_entries;
+
+    /** The number of pages. */
+    private int m_pageCount;
+
+    /** The index of the page. */
+    private int m_pageIndex;
+
+    /** The last page index of the page navigation. */
+    private int m_pageNavEndIndex;
+
+    /** The first page index of the page navigation. */
+    private int m_pageNavStartIndex;
+
+    /** The maximum number of entries on a page. */
+    private int m_pageSize;
+
+    /** The number of entries of the list. */
+    private int m_resultSize;
+
+    /**
+     * Constructor, with parameters.<p>
+     * 
+     * @param entries all entries of the list
+     * @param pageIndex the index of the page, starting with 1
+     * @param pageSize the maximum number of entries on a page
+     * @param pageNavLength the maximum number of page links in the page navigation
+     */
+    CmsListViewPage(List entries, int pageIndex, int pageSize, int pageNavLength) {
+
+        m_resultSize = entries.size();
+        m_pageSize = (pageSize > 0) ? pageSize : Math.max(1, m_resultSize);
+        m_pageCount = Math.max(1, ((m_resultSize + m_pageSize) - 1) / m_pageSize);
+        m_pageIndex = Math.min(Math.max(1, pageIndex), m_pageCount);
+        int start = (m_pageIndex - 1) * m_pageSize;
+        m_entries = entries.subList(Math.min(start, m_resultSize), Math.min(start + m_pageSize, m_resultSize));
+        // calculate the window of page links around the current page
+        m_pageNavStartIndex = Math.max(1, m_pageIndex - (pageNavLength / 2));
+        m_pageNavEndIndex = Math.min(m_pageCount, (m_pageNavStartIndex + pageNavLength) - 1);
+        m_pageNavStartIndex = Math.max(1, (m_pageNavEndIndex - pageNavLength) + 1);
+    }
+
+    /**
+     * Returns the entries of the page.<p>
+     * 
+     * @return the list of {@link CmsListViewEntry} objects of the page
+     */
+    public List getEntries() {
+
+        return m_entries;
+    }
+
+    /**
+     * Returns the number of pages.<p>
+     * 
+     * @return the number of pages
+     */
+    public int getPageCount() {
+
+        return m_pageCount;
+    }
+
+    /**
+     * Returns the index of the page, starting with 1.<p>
+     * 
+     * @return the index of the page
+     */
+    public int getPageIndex() {
+
+        return m_pageIndex;
+    }
+
+    /**
+     * Returns the last page index of the page navigation.<p>
+     * 
+     * @return the last page index of the page navigation
+     */
+    public int getPageNavEndIndex() {
+
+        return m_pageNavEndIndex;
+    }
+
+    /**
+     * Returns the first page index of the page navigation.<p>
+     * 
+     * @return the first page index of the page navigation
+     */
+    public int getPageNavStartIndex() {
+
+        return m_pageNavStartIndex;
+    }
+
+    /**
+     * Returns the maximum number of entries on a page.<p>
+     * 
+     * @return the maximum number of entries on a page
+     */
+    public int getPageSize() {
+
+        return m_pageSize;
+    }
+
+    /**
+     * Returns the number of entries of the list.<p>
+     * 
+     * @return the number of entries of the list
+     */
+    public int getResultSize() {
+
+        return m_resultSize;
+    }
+}
@@ -30,7 +30,6 @@ package org.opencms.frontend.templateone.modules;
 import org.opencms.file.CmsPropertyDefinition;
 import org.opencms.file.CmsResource;
 import org.opencms.file.CmsResourceFilter;
-import org.opencms.file.types.CmsResourceTypeFolder;
 import org.opencms.file.types.I_CmsResourceType;
 import org.opencms.frontend.templateone.CmsPropertyTemplateOne;
 import org.opencms.frontend.templateone.CmsTemplateBase;
@@ -40,9 +39,7 @@ import org.opencms.main.CmsLog;
 import org.opencms.main.OpenCms;
 import org.opencms.util.CmsStringUtil;
 
-import java.util.Calendar;
 import java.util.Date;
-import java.util.GregorianCalendar;
 import java.util.List;
 
 import javax.servlet.http.HttpServletRequest;
@@ -168,9 +165,12 @@ public class CmsTemplateModules extends CmsTemplateBase {
                 new Integer(resourceTypeId)));
         }
 
-        // read the resource tree
-        CmsResourceFilter filter = CmsResourceFilter.DEFAULT.addRequireType(CmsResourceTypeFolder.RESOURCE_TYPE_ID);
-        List resourceTree = getCmsObject().readResources(startfolder, filter, true);
+        // read the folder tree with the resource counts, the tree is cached until the next publish
+        CmsCategoryTree categoryTree = CmsCategoryTreeCache.getInstance().getTree(
+            getCmsObject(),
+            startfolder,
+            resourceTypeId);
+        List resourceTree = categoryTree.getFolders();
 
         String indent = "&nbsp;&nbsp;";
         StringBuffer result = new StringBuffer(32);
@@ -203,7 +203,7 @@ public class CmsTemplateModules extends CmsTemplateBase {
                 }
 
                 // count resources of the specified type inside folder
-                int faqCount = getResourceCount(resourceName, resourceTypeId);
+                int faqCount = categoryTree.getResourceCount(resource);
 
                 int level = CmsResource.getPathLevel(resourceName);
 
@@ -238,10 +238,7 @@ public class CmsTemplateModules extends CmsTemplateBase {
 
                 String faqUri = link(getRequestContext().getUri() + "?" + PARAM_CATEGORYFOLDER + "=" + resourceName);
 
-                String title = getCmsObject().readPropertyObject(
-                    resourceName,
-                    CmsPropertyDefinition.PROPERTY_TITLE,
-                    false).getValue(null);
+                String title = categoryTree.getTitle(resource);
 
                 if (CmsStringUtil.isEmptyOrWhitespaceOnly(title)) {
                     if (LOG.isWarnEnabled()) {
@@ -364,6 +361,44 @@ public class CmsTemplateModules extends CmsTemplateBase {
         return m_categoryFolder;
     }
 
+    /**
+     * Returns the list view of the XML contents of the given type inside a folder.<p>
+     * 
+     * The contents are collected with the collector from the request parameter "collector", 
+     * the list views are kept in memory until the list folder is published.<p>
+     * 
+     * @param foldername the list folder
+     * @param resourceTypeName the resource type name of the XML contents, also used as file name prefix
+     * @param count the maximum number of XML contents to collect
+     * @param elements the element paths to read from the XML contents
+     * 
+     * @return the list view, or <code>null</code> if the list has to be rendered with the 
+     *      <code>&lt;cms:contentload&gt;</code> tag, e.g. in an offline project
+     */
+    public CmsListView getListView(String foldername, String resourceTypeName, String count, String[] elements) {
+
+        StringBuffer param = new StringBuffer(64);
+        param.append(foldername);
+        param.append(resourceTypeName);
+        param.append("_%(number).html|");
+        param.append(resourceTypeName);
+        param.append('|');
+        param.append(count);
+        try {
+            return CmsListViewCache.getInstance().getListView(
+                getCmsObject(),
+                getRequest().getParameter(PARAM_COLLECTOR),
+                param.toString(),
+                elements);
+        } catch (CmsException e) {
+            // error reading the resources, let the contentload tag handle the list
+            if (LOG.isErrorEnabled()) {
+                LOG.error(e.getLocalizedMessage(), e);
+            }
+            return null;
+        }
+    }
+
     /**
      * Returns the number of resources with a given resource type inside a folder.<p>
      * 
@@ -440,17 +475,10 @@ public class CmsTemplateModules extends CmsTemplateBase {
      */
     public boolean isSameDate(String startDateAttrib, String endDateAttrib) {
 
-        String timeString = (String)getJspContext().getAttribute(startDateAttrib);
-        long timestamp = (new Long(timeString)).longValue();
-        Calendar calStart = new GregorianCalendar();
-        calStart.setTimeInMillis(timestamp);
-
-        timeString = (String)getJspContext().getAttribute(endDateAttrib);
-        timestamp = (new Long(timeString)).longValue();
-        Calendar calEnd = new GregorianCalendar();
-        calEnd.setTimeInMillis(timestamp);
-
-        return ((calStart.get(Calendar.DAY_OF_YEAR) == calEnd.get(Calendar.DAY_OF_YEAR)) && (calStart.get(Calendar.YEAR) == calEnd.get(Calendar.YEAR)));
+        long start = Long.parseLong((String)getJspContext().getAttribute(startDateAttrib));
+        long end = Long.parseLong((String)getJspContext().getAttribute(endDateAttrib));
+        // the day boundaries are precalculated, no calendar is created for the comparison
+        return CmsDateBuckets.getInstance().isSameDay(start, end);
     }
 
     /**
@@ -461,10 +489,8 @@ public class CmsTemplateModules extends CmsTemplateBase {
      */
     public void setDate(String dateAttrib) {
 
-        String timeString = (String)getJspContext().getAttribute(dateAttrib);
-        long timestamp = (new Long(timeString)).longValue();
-        Date date = new Date(timestamp);
-        getJspContext().setAttribute("date", date);
+        long timestamp = Long.parseLong((String)getJspContext().getAttribute(dateAttrib));
+        getJspContext().setAttribute("date", new Date(timestamp));
     }
 
     /**
@@ -0,0 +1,89 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software GmbH, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package org.opencms.frontend.templatetwo;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+
+/**
+ * Reads the stylesheets combined by the {@link CmsStylesheetBundler} from a folder of the local file system.<p>
+ * 
+ * The stylesheet paths are resolved relative to the base folder, and links are left unchanged.
+ * This allows to create bundles from CSS fixtures without a running OpenCms.<p>
+ * 
+ * @since 8.0.2
+ */
+public class CmsFileSystemStylesheetSource implements I_CmsStylesheetSource {
+
+    /** The base folder of the stylesheet paths. */
+    private File m_baseFolder;
+
+    /** The encoding of the stylesheets. */
+    private String m_encoding;
+
+    /**
+     * Constructor, with parameters.<p>
+     * 
+     * @param baseFolder the base folder of the stylesheet paths
+     * @param encoding the encoding of the stylesheets
+     */
+    public CmsFileSystemStylesheetSource(File baseFolder, String encoding) {
+
+        m_baseFolder = baseFolder;
+        m_encoding = encoding;
+    }
+
+    /**
+     * @see org.opencms.frontend.templatetwo.I_CmsStylesheetSource#getContent(java.lang.String)
+     */
+    public String getContent(String path) throws IOException {
+
+        Reader reader = new InputStreamReader(new FileInputStream(new File(m_baseFolder, path)), m_encoding);
+        try {
+            StringBuffer result = new StringBuffer(1024);
+            char[] buffer = new char[1024];
+            int read;
+            while ((read = reader.read(buffer)) != -1) {
+                result.append(buffer, 0, read);
+            }
+            return result.toString();
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * @see org.opencms.frontend.templatetwo.I_CmsStylesheetSource#getLink(java.lang.String)
+     */
+    public String getLink(String path) {
+
+        return path;
+    }
+}
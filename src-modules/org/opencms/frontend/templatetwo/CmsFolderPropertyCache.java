@@ -0,0 +1,227 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software GmbH, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package org.opencms.frontend.templatetwo;
+
+import org.opencms.file.CmsObject;
+import org.opencms.file.CmsResource;
+import org.opencms.main.CmsEvent;
+import org.opencms.main.CmsException;
+import org.opencms.main.I_CmsEventListener;
+import org.opencms.main.OpenCms;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caches the inherited property values of folders.<p>
+ * 
+ * The values are keyed by the project type, the site root, the folder path and the property name. 
+ * A folder value depends on the properties of the folder and all its parent folders, so the offline 
+ * values of a modified folder and of all folders below it are removed, and all online values are 
+ * removed on publish.<p>
+ * 
+ * @since 8.0.2
+ */
+public final class CmsFolderPropertyCache implements I_CmsEventListener {
+
+    /** The key prefix for offline values. */
+    private static final String KEY_OFFLINE = "offline_";
+
+    /** The key prefix for online values. */
+    private static final String KEY_ONLINE = "online_";
+
+    /** The singleton instance. */
+    private static CmsFolderPropertyCache m_instance;
+
+    /** The map of cached property values. */
+    private Map m_values;
+
+    /**
+     * Hidden constructor.<p>
+     */
+    private CmsFolderPropertyCache() {
+
+        m_values = new ConcurrentHashMap();
+        // add an event listener to remove outdated values
+        OpenCms.addCmsEventListener(this, new int[] {
+            I_CmsEventListener.EVENT_CLEAR_CACHES,
+            I_CmsEventListener.EVENT_CLEAR_ONLINE_CACHES,
+            I_CmsEventListener.EVENT_CLEAR_OFFLINE_CACHES,
+            I_CmsEventListener.EVENT_PUBLISH_PROJECT,
+            I_CmsEventListener.EVENT_PROPERTY_MODIFIED,
+            I_CmsEventListener.EVENT_RESOURCE_AND_PROPERTIES_MODIFIED,
+            I_CmsEventListener.EVENT_RESOURCES_AND_PROPERTIES_MODIFIED,
+            I_CmsEventListener.EVENT_RESOURCE_DELETED,
+            I_CmsEventListener.EVENT_RESOURCE_MOVED});
+    }
+
+    /**
+     * Returns the singleton instance of the folder property cache.<p>
+     * 
+     * @return the singleton instance of the folder property cache
+     */
+    public static synchronized CmsFolderPropertyCache getInstance() {
+
+        if (m_instance == null) {
+            m_instance = new CmsFolderPropertyCache();
+        }
+        return m_instance;
+    }
+
+    /**
+     * @see org.opencms.main.I_CmsEventListener#cmsEvent(org.opencms.main.CmsEvent)
+     */
+    public void cmsEvent(CmsEvent event) {
+
+        switch (event.getType()) {
+            case I_CmsEventListener.EVENT_PUBLISH_PROJECT:
+            case I_CmsEventListener.EVENT_CLEAR_ONLINE_CACHES:
+                removeValues(KEY_ONLINE);
+                break;
+            case I_CmsEventListener.EVENT_CLEAR_CACHES:
+                m_values.clear();
+                break;
+            case I_CmsEventListener.EVENT_PROPERTY_MODIFIED:
+            case I_CmsEventListener.EVENT_RESOURCE_AND_PROPERTIES_MODIFIED:
+                Object resource = event.getData().get(I_CmsEventListener.KEY_RESOURCE);
+                if (resource instanceof CmsResource) {
+                    removeValues((CmsResource)resource);
+                } else {
+                    removeValues(KEY_OFFLINE);
+                }
+                break;
+            case I_CmsEventListener.EVENT_RESOURCES_AND_PROPERTIES_MODIFIED:
+            case I_CmsEventListener.EVENT_RESOURCE_DELETED:
+            case I_CmsEventListener.EVENT_RESOURCE_MOVED:
+                Object resources = event.getData().get(I_CmsEventListener.KEY_RESOURCES);
+                if (resources instanceof List) {
+                    Iterator i = ((List)resources).iterator();
+                    while (i.hasNext()) {
+                        Object res = i.next();
+                        if (res instanceof CmsResource) {
+                            removeValues((CmsResource)res);
+                        }
+                    }
+                } else {
+                    removeValues(KEY_OFFLINE);
+                }
+                break;
+            default: // no operation
+        }
+    }
+
+    /**
+     * Returns the value of the given property of a resource, searching the parent folders if the 
+     * resource itself has no value.<p>
+     * 
+     * Only the properties of the resource itself are read, the inherited value of its folder is cached.<p>
+     * 
+     * @param cms the current users OpenCms context
+     * @param resourcePath the site path of the resource
+     * @param propertyName the name of the property
+     * 
+     * @return the property value, or an empty String if the property is not set
+     * 
+     * @throws CmsException if reading the property fails
+     */
+    public String getValue(CmsObject cms, String resourcePath, String propertyName) throws CmsException {
+
+        if (!CmsResource.isFolder(resourcePath)) {
+            String value = cms.readPropertyObject(resourcePath, propertyName, false).getValue();
+            if (value != null) {
+                return value;
+            }
+        }
+        return getFolderValue(cms, CmsResource.getFolderPath(resourcePath), propertyName);
+    }
+
+    /**
+     * Returns the inherited value of the given property of a folder.<p>
+     * 
+     * @param cms the current users OpenCms context
+     * @param folder the site path of the folder
+     * @param propertyName the name of the property
+     * 
+     * @return the property value, or an empty String if the property is not set
+     * 
+     * @throws CmsException if reading the property fails
+     */
+    private String getFolderValue(CmsObject cms, String folder, String propertyName) throws CmsException {
+
+        StringBuffer key = new StringBuffer(128);
+        key.append(cms.getRequestContext().getCurrentProject().isOnlineProject() ? KEY_ONLINE : KEY_OFFLINE);
+        key.append(cms.getRequestContext().getSiteRoot());
+        key.append(folder);
+        key.append('|');
+        key.append(propertyName);
+        String result = (String)m_values.get(key.toString());
+        if (result == null) {
+            result = cms.readPropertyObject(folder, propertyName, true).getValue("");
+            m_values.put(key.toString(), result);
+        }
+        return result;
+    }
+
+    /**
+     * Removes the offline values of the given folder and of all folders below it.<p>
+     * 
+     * The properties of files are not inherited, so modified files do not change any cached value.<p>
+     * 
+     * @param resource the modified resource
+     */
+    private void removeValues(CmsResource resource) {
+
+        if (!resource.isFolder()) {
+            return;
+        }
+        String rootPath = resource.getRootPath();
+        Iterator i = m_values.keySet().iterator();
+        while (i.hasNext()) {
+            String key = (String)i.next();
+            if (key.startsWith(KEY_OFFLINE) && key.startsWith(rootPath, KEY_OFFLINE.length())) {
+                i.remove();
+            }
+        }
+    }
+
+    /**
+     * Removes all cached values with keys starting with the given prefix.<p>
+     * 
+     * @param prefix the key prefix
+     */
+    private void removeValues(String prefix) {
+
+        Iterator i = m_values.keySet().iterator();
+        while (i.hasNext()) {
+            if (((String)i.next()).startsWith(prefix)) {
+                i.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,330 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software GmbH, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+
+package org.opencms.frontend.templatetwo;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.htmlparser.util.Translate;
+
+/**
+ * Extracts the beginning of the plain text of an HTML fragment without parsing the complete fragment.<p>
+ * 
+ * The extraction follows the rules of the HTML text extraction used by 
+ * {@link org.opencms.xml.types.CmsXmlHtmlValue#getPlainText(org.opencms.file.CmsObject)}:
+ * tags, comments, scripts and styles are skipped, entities are decoded, non breaking spaces are 
+ * replaced by spaces, white space is collapsed and opening block level tags start a new line. 
+ * Like the <code>StringBean</code> of the HTML parser, white space at the end of a text node is dropped 
+ * and the text inside <code>&lt;pre&gt;</code> elements is kept as it is.<p>
+ * 
+ * Scanning stops as soon as the requested number of plain text characters is available, so teasers
+ * of long HTML texts are created without extracting the text of the complete HTML.<p>
+ * 
+ * @since 8.0.2
+ */
+public final class CmsHtmlTextTruncator {
+
+    /** The line separator used for block level tags. */
+    private static final String NEWLINE = System.getProperty("line.separator");
+
+    /** The names of the tags that start a new line. */
+    private static final Set BREAK_TAGS = new HashSet();
+
+    static {
+        String[] breakTags = {
+            "blockquote",
+            "body",
+            "br",
+            "center",
+            "dd",
+            "dir",
+            "div",
+            "dl",
+            "dt",
+            "form",
+            "h1",
+            "h2",
+            "h3",
+            "h4",
+            "h5",
+            "h6",
+            "head",
+            "hr",
+            "html",
+            "isindex",
+            "li",
+            "menu",
+            "noframes",
+            "ol",
+            "p",
+            "pre",
+            "td",
+            "th",
+            "title",
+            "ul"};
+        for (int i = 0; i < breakTags.length; i++) {
+            BREAK_TAGS.add(breakTags[i]);
+        }
+    }
+
+    /** The HTML to extract the text from. */
+    private String m_html;
+
+    /** The maximum number of plain text characters to extract. */
+    private int m_limit;
+
+    /** Indicates that white space was found that has not been written yet. */
+    private boolean m_pendingSpace;
+
+    /** Indicates that the text of a <code>&lt;pre&gt;</code> element is extracted. */
+    private boolean m_pre;
+
+    /** The extracted plain text. */
+    private StringBuffer m_result;
+
+    /**
+     * Hidden constructor.<p>
+     * 
+     * @param html the HTML to extract the text from
+     * @param limit the maximum number of plain text characters to extract
+     */
+    private CmsHtmlTextTruncator(String html, int limit) {
+
+        m_html = html;
+        m_limit = limit;
+        m_result = new StringBuffer(Math.min(limit, html.length()) + 16);
+    }
+
+    /**
+     * Returns the beginning of the plain text of the given HTML.<p>
+     * 
+     * The result contains at most <code>length + 1</code> characters. If the result is not longer 
+     * than <code>length</code>, the complete plain text of the HTML has been extracted. Otherwise the plain text
+     * is longer than <code>length</code>, and the result can be trimmed with
+     * {@link org.opencms.util.CmsStringUtil#trimToSize(String, int)} exactly like the complete plain text.<p>
+     * 
+     * @param html the HTML to extract the text from
+     * @param length the number of plain text characters required
+     * 
+     * @return the beginning of the plain text of the given HTML
+     */
+    public static String getPlainTextPrefix(String html, int length) {
+
+        if (html == null) {
+            return "";
+        }
+        CmsHtmlTextTruncator truncator = new CmsHtmlTextTruncator(html, length + 1);
+        truncator.extract();
+        return truncator.m_result.toString();
+    }
+
+    /**
+     * Appends a line break to the result, unless the result is empty or already ends with a line break.<p>
+     */
+    private void appendNewline() {
+
+        m_pendingSpace = false;
+        if ((m_result.length() >= NEWLINE.length()) && !endsWithNewline()) {
+            m_result.append(NEWLINE);
+        }
+    }
+
+    /**
+     * Appends a text character to the result, collapsing white space.<p>
+     * 
+     * @param c the character to append
+     */
+    private void appendText(char c) {
+
+        if (c == '\u00a0') {
+            // replace non breaking spaces
+            c = ' ';
+        }
+        if ((c == ' ') || (c == '\t') || (c == '\n') || (c == '\f') || (c == '\r') || (c == '\u200b')) {
+            m_pendingSpace = true;
+            return;
+        }
+        if (m_pendingSpace) {
+            m_pendingSpace = false;
+            int length = m_result.length();
+            if ((length > 0) && (m_result.charAt(length - 1) != ' ') && !endsWithNewline()) {
+                m_result.append(' ');
+            }
+        }
+        m_result.append(c);
+    }
+
+    /**
+     * Decodes the entity starting at the given position and appends it to the result.<p>
+     * 
+     * @param pos the position of the '&amp;' character
+     * 
+     * @return the position after the entity
+     */
+    private int decodeEntity(int pos) {
+
+        int end = m_html.indexOf(';', pos);
+        if ((end > pos + 1) && (end - pos <= 10)) {
+            String name = m_html.substring(pos + 1, end);
+            String decoded = null;
+            if (name.charAt(0) == '#') {
+                try {
+                    int code;
+                    if ((name.length() > 1) && ((name.charAt(1) == 'x') || (name.charAt(1) == 'X'))) {
+                        code = Integer.parseInt(name.substring(2), 16);
+                    } else {
+                        code = Integer.parseInt(name.substring(1));
+                    }
+                    if (Character.isValidCodePoint(code)) {
+                        decoded = new String(Character.toChars(code));
+                    }
+                } catch (NumberFormatException e) {
+                    // not a valid numeric entity, keep it as text
+                }
+            } else {
+                // use the same entity table as the HTML text extraction
+                String entity = m_html.substring(pos, end + 1);
+                decoded = Translate.decode(entity);
+                if (entity.equals(decoded)) {
+                    // not a known named entity, keep it as text
+                    decoded = null;
+                }
+            }
+            if (decoded != null) {
+                for (int i = 0; i < decoded.length(); i++) {
+                    appendText(decoded.charAt(i));
+                }
+                return end + 1;
+            }
+        }
+        appendText('&');
+        return pos + 1;
+    }
+
+    /**
+     * Returns <code>true</code> if the result ends with a line break.<p>
+     * 
+     * @return <code>true</code> if the result ends with a line break
+     */
+    private boolean endsWithNewline() {
+
+        int length = m_result.length();
+        return (length >= NEWLINE.length()) && m_result.substring(length - NEWLINE.length()).equals(NEWLINE);
+    }
+
+    /**
+     * Scans the HTML until the end or until enough plain text has been extracted.<p>
+     */
+    private void extract() {
+
+        int length = m_html.length();
+        int pos = 0;
+        while ((pos < length) && (m_result.length() < m_limit)) {
+            char c = m_html.charAt(pos);
+            if (c == '<') {
+                pos = skipTag(pos);
+            } else if (m_pre) {
+                // white space and entities are kept in preformatted text
+                m_result.append(c);
+                pos++;
+            } else if (c == '&') {
+                pos = decodeEntity(pos);
+            } else {
+                appendText(c);
+                pos++;
+            }
+        }
+        if (m_result.length() > m_limit) {
+            // an entity may have added more than one character
+            m_result.setLength(m_limit);
+        } else if ((pos >= length) && endsWithNewline()) {
+            // the complete text has been extracted, drop the line break of a trailing block level tag
+            m_result.setLength(m_result.length() - NEWLINE.length());
+        }
+    }
+
+    /**
+     * Skips the tag, comment or element content starting at the given position.<p>
+     * 
+     * @param pos the position of the '&lt;' character
+     * 
+     * @return the position after the skipped markup
+     */
+    private int skipTag(int pos) {
+
+        if (m_html.startsWith("<!--", pos)) {
+            // a comment ends the current text node
+            m_pendingSpace = false;
+            int end = m_html.indexOf("-->", pos + 4);
+            return (end < 0) ? m_html.length() : end + 3;
+        }
+        int end = m_html.indexOf('>', pos);
+        if (end < 0) {
+            // not a tag, treat the rest as text
+            if (m_pre) {
+                m_result.append('<');
+            } else {
+                appendText('<');
+            }
+            return pos + 1;
+        }
+        // determine the tag name
+        int start = pos + 1;
+        boolean endTag = (start < end) && (m_html.charAt(start) == '/');
+        if (endTag) {
+            start++;
+        }
+        int nameEnd = start;
+        while ((nameEnd < end) && Character.isLetterOrDigit(m_html.charAt(nameEnd))) {
+            nameEnd++;
+        }
+        String name = m_html.substring(start, nameEnd).toLowerCase();
+        // a tag ends the current text node, white space at its end is dropped
+        m_pendingSpace = false;
+        if ("pre".equals(name)) {
+            m_pre = !endTag;
+        }
+        if (!endTag && BREAK_TAGS.contains(name)) {
+            // only opening tags start a new line
+            appendNewline();
+        }
+        if (!endTag && ("script".equals(name) || "style".equals(name))) {
+            // skip the script or style content
+            int close = m_html.indexOf("</", end);
+            while ((close >= 0) && !m_html.regionMatches(true, close + 2, name, 0, name.length())) {
+                close = m_html.indexOf("</", close + 2);
+            }
+            if (close < 0) {
+                return m_html.length();
+            }
+            int closeEnd = m_html.indexOf('>', close);
+            return (closeEnd < 0) ? m_html.length() : closeEnd + 1;
+        }
+        return end + 1;
+    }
+}
@@ -27,23 +27,16 @@
 
 package org.opencms.frontend.templatetwo;
 
-import org.opencms.file.CmsFile;
 import org.opencms.file.CmsResource;
 import org.opencms.file.CmsResourceFilter;
 import org.opencms.jsp.CmsJspActionElement;
 import org.opencms.main.CmsException;
 import org.opencms.main.CmsLog;
-import org.opencms.util.CmsMacroResolver;
 import org.opencms.util.CmsStringUtil;
-import org.opencms.xml.CmsXmlUtils;
 import org.opencms.xml.content.CmsXmlContent;
 import org.opencms.xml.content.CmsXmlContentFactory;
-import org.opencms.xml.types.I_CmsXmlContentValue;
 
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.List;
-import java.util.Locale;
 import java.util.Map;
 
 import javax.servlet.http.HttpServletRequest;
@@ -79,15 +72,12 @@ public class CmsListBox extends CmsJspActionElement {
     /** The log object for this class. */
     private static final Log LOG = CmsLog.getLog(CmsListBox.class);
 
-    /** The XML content that contains the definition of the listbox. */
-    private CmsXmlContent m_content;
+    /** The shared configuration of the list box. */
+    private CmsListBoxConfiguration m_configuration;
 
     /** Lazy map with the mapped entries for the collected resources. */
     private Map m_mappedEntries;
 
-    /** The mapping of the xml content to the list box entries. */
-    private CmsListBoxContentMapping m_mapping;
-
     /**
      * Empty constructor, required for every JavaBean.<p>
      */
@@ -114,6 +104,9 @@ public class CmsListBox extends CmsJspActionElement {
     /**
      * Returns a lazy initialized map with the mapped entries of the collected resources.<p>
      * 
+     * The mapped entries are shared between requests by the {@link CmsListBoxEntryCache}, 
+     * so they must not be modified.<p>
+     * 
      * @return a lazy initialized map
      */
     public Map getMappedEntry() {
@@ -128,12 +121,32 @@ public class CmsListBox extends CmsJspActionElement {
 
                     CmsListBoxEntry entry = null;
 
+                    // look up the shared entry cache first, only changed resources are mapped again
+                    CmsListBoxEntryCache cache = CmsListBoxEntryCache.getInstance();
+                    CmsResource resource;
+                    if (input instanceof CmsXmlContent) {
+                        resource = ((CmsXmlContent)input).getFile();
+                    } else {
+                        resource = (CmsResource)input;
+                    }
+                    String cacheKey = null;
+                    if ((resource != null) && (m_configuration != null)) {
+                        cacheKey = cache.getCacheKey(
+                            getCmsObject(),
+                            resource,
+                            getRequestContext().getLocale(),
+                            m_configuration.getVersion());
+                        entry = cache.getEntry(cacheKey);
+                        if (entry != null) {
+                            return cache.isNullEntry(entry) ? null : entry;
+                        }
+                    }
+
                     try {
                         CmsXmlContent content;
                         if (input instanceof CmsXmlContent) {
                             content = (CmsXmlContent)input;
                         } else {
-                            CmsResource resource = (CmsResource)input;
                             content = CmsXmlContentFactory.unmarshal(getCmsObject(), getCmsObject().readFile(resource));
                         }
 
@@ -143,6 +156,9 @@ public class CmsListBox extends CmsJspActionElement {
                                 content,
                                 getRequestContext().getLocale());
                         }
+                        if (cacheKey != null) {
+                            cache.putEntry(cacheKey, entry);
+                        }
                     } catch (CmsException ex) {
                         // noop
                     }
@@ -161,24 +177,7 @@ public class CmsListBox extends CmsJspActionElement {
      */
     public String getParameter() {
 
-        Locale locale = getRequestContext().getLocale();
-
-        String params = m_content.getStringValue(getCmsObject(), NODE_PARAMETER, locale);
-        List links = m_content.getValues(NODE_LINKS, locale);
-
-        CmsMacroResolver macroResolver = CmsMacroResolver.newInstance();
-        macroResolver.setKeepEmptyMacros(true);
-        for (int i = 0; i < links.size(); i++) {
-            I_CmsXmlContentValue xmlValue = (I_CmsXmlContentValue)links.get(i);
-            String value = xmlValue.getStringValue(getCmsObject());
-            if (CmsStringUtil.isNotEmptyOrWhitespaceOnly(value)) {
-                StringBuffer macro = new StringBuffer(10);
-                macro.append(MACRO_LINK_PREFIX).append(i + 1);
-                macroResolver.addMacro(macro.toString(), getRequestContext().removeSiteRoot(value));
-            }
-        }
-
-        return macroResolver.resolveMacros(params);
+        return (m_configuration != null) ? m_configuration.getParameter() : null;
     }
 
     /**
@@ -195,40 +194,11 @@ public class CmsListBox extends CmsJspActionElement {
                 // TODO
             }
 
-            CmsFile file = getCmsObject().readFile(
+            // reading the resource is cheap, the content is only unmarshalled if the configuration is not cached
+            CmsResource resource = getCmsObject().readResource(
                 getCmsObject().getRequestContext().removeSiteRoot(path),
                 CmsResourceFilter.IGNORE_EXPIRATION);
-            m_content = CmsXmlContentFactory.unmarshal(getCmsObject(), file);
-
-            // process the default mappings (if set / available)
-            m_mapping = null;
-            int mapsize = m_content.getValues(NODE_MAPPING, getRequestContext().getLocale()).size();
-            if (mapsize > 0) {
-                m_mapping = new CmsListBoxContentMapping();
-                for (int i = 1; i <= mapsize; i++) {
-                    String basePath = CmsXmlUtils.createXpath(NODE_MAPPING, i);
-
-                    String field = m_content.getStringValue(
-                        getCmsObject(),
-                        CmsXmlUtils.concatXpath(basePath, "Field"),
-                        getRequestContext().getLocale());
-                    String defaultValue = m_content.getStringValue(getCmsObject(), CmsXmlUtils.concatXpath(
-                        basePath,
-                        "Default"), getRequestContext().getLocale());
-                    String maxLenghtStr = m_content.getStringValue(getCmsObject(), CmsXmlUtils.concatXpath(
-                        basePath,
-                        "MaxLength"), getRequestContext().getLocale());
-                    List xmlNodes = m_content.getValues(
-                        CmsXmlUtils.concatXpath(basePath, "XmlNode"),
-                        getRequestContext().getLocale());
-                    List nodes = new ArrayList(xmlNodes.size());
-                    for (int j = 0; j < xmlNodes.size(); j++) {
-                        nodes.add(((I_CmsXmlContentValue)xmlNodes.get(j)).getStringValue(getCmsObject()));
-                    }
-                    m_mapping.addListBoxFieldMapping(nodes, field, maxLenghtStr, defaultValue);
-                }
-            }
-
+            m_configuration = CmsListBoxConfigurationCache.getInstance().getConfiguration(getCmsObject(), resource);
         } catch (Exception e) {
             if (LOG.isDebugEnabled()) {
                 LOG.debug(e.getMessage(), e);
@@ -243,6 +213,6 @@ public class CmsListBox extends CmsJspActionElement {
      */
     protected CmsListBoxContentMapping getMapping() {
 
-        return m_mapping;
+        return (m_configuration != null) ? m_configuration.getMapping() : null;
     }
 }
\ No newline at end of file
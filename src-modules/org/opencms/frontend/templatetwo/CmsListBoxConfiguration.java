@@ -0,0 +1,183 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software GmbH, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package org.opencms.frontend.templatetwo;
+
+import org.opencms.file.CmsFile;
+import org.opencms.file.CmsObject;
+import org.opencms.main.CmsException;
+import org.opencms.util.CmsMacroResolver;
+import org.opencms.util.CmsStringUtil;
+import org.opencms.xml.CmsXmlUtils;
+import org.opencms.xml.content.CmsXmlContent;
+import org.opencms.xml.content.CmsXmlContentFactory;
+import org.opencms.xml.types.I_CmsXmlContentValue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The resolved configuration of a list box, read from an XML content that uses the listbox schema XSD.<p>
+ * 
+ * A configuration holds the collector parameters with resolved link macros and the mapping of the 
+ * collected XML contents to list box entries for one locale and site. It is shared between all requests
+ * by the {@link CmsListBoxConfigurationCache} and must not be modified after it has been created.<p>
+ * 
+ * @since 8.0.2
+ */
+public final class CmsListBoxConfiguration {
+
+    /** The mapping of the xml content to the list box entries, may be <code>null</code>. */
+    private CmsListBoxContentMapping m_mapping;
+
+    /** The parameters of the collector with resolved macros. */
+    private String m_parameter;
+
+    /** The version of the configuration file. */
+    private String m_version;
+
+    /**
+     * Creates the configuration from the given list box configuration file.<p>
+     * 
+     * @param cms the current users OpenCms context, used to resolve the links of the site 
+     * @param file the list box configuration file
+     * @param locale the locale to read the configuration for
+     * 
+     * @throws CmsException if unmarshalling the configuration file fails
+     */
+    public CmsListBoxConfiguration(CmsObject cms, CmsFile file, Locale locale)
+    throws CmsException {
+
+        CmsXmlContent content = CmsXmlContentFactory.unmarshal(cms, file);
+        m_version = getVersion(file);
+        m_parameter = resolveParameter(cms, content, locale);
+        m_mapping = createMapping(cms, content, locale);
+    }
+
+    /**
+     * Returns the version of the given list box configuration file.<p>
+     * 
+     * @param file the list box configuration file
+     * 
+     * @return the version of the given list box configuration file
+     */
+    public static String getVersion(CmsFile file) {
+
+        return file.getStructureId() + ":" + file.getDateLastModified();
+    }
+
+    /**
+     * Returns the mapping of the xml content to the list box entries.<p>
+     * 
+     * @return the mapping of the xml content to the list box entries, or <code>null</code> if none is configured
+     */
+    public CmsListBoxContentMapping getMapping() {
+
+        return m_mapping;
+    }
+
+    /**
+     * Returns the parameters of the collector with resolved macros.<p>
+     * 
+     * @return the parameters of the collector with resolved macros
+     */
+    public String getParameter() {
+
+        return m_parameter;
+    }
+
+    /**
+     * Returns the version of the configuration file, used to key the cached list box entries.<p>
+     * 
+     * @return the version of the configuration file
+     */
+    public String getVersion() {
+
+        return m_version;
+    }
+
+    /**
+     * Creates the mapping of the xml content to the list box entries.<p>
+     * 
+     * @param cms the current users OpenCms context
+     * @param content the unmarshalled configuration
+     * @param locale the locale to read the configuration for
+     * 
+     * @return the mapping, or <code>null</code> if no mapping is configured
+     */
+    private CmsListBoxContentMapping createMapping(CmsObject cms, CmsXmlContent content, Locale locale) {
+
+        int mapsize = content.getValues(CmsListBox.NODE_MAPPING, locale).size();
+        if (mapsize == 0) {
+            return null;
+        }
+        CmsListBoxContentMapping mapping = new CmsListBoxContentMapping();
+        for (int i = 1; i <= mapsize; i++) {
+            String basePath = CmsXmlUtils.createXpath(CmsListBox.NODE_MAPPING, i);
+
+            String field = content.getStringValue(cms, CmsXmlUtils.concatXpath(basePath, "Field"), locale);
+            String defaultValue = content.getStringValue(cms, CmsXmlUtils.concatXpath(basePath, "Default"), locale);
+            String maxLenghtStr = content.getStringValue(cms, CmsXmlUtils.concatXpath(basePath, "MaxLength"), locale);
+            List xmlNodes = content.getValues(CmsXmlUtils.concatXpath(basePath, "XmlNode"), locale);
+            List nodes = new ArrayList(xmlNodes.size());
+            for (int j = 0; j < xmlNodes.size(); j++) {
+                nodes.add(((I_CmsXmlContentValue)xmlNodes.get(j)).getStringValue(cms));
+            }
+            mapping.addListBoxFieldMapping(nodes, field, maxLenghtStr, defaultValue);
+        }
+        return mapping;
+    }
+
+    /**
+     * Resolves the link macros in the parameters of the collector.<p>
+     * 
+     * @param cms the current users OpenCms context
+     * @param content the unmarshalled configuration
+     * @param locale the locale to read the configuration for
+     * 
+     * @return the parameters of the collector with resolved macros
+     */
+    private String resolveParameter(CmsObject cms, CmsXmlContent content, Locale locale) {
+
+        String params = content.getStringValue(cms, CmsListBox.NODE_PARAMETER, locale);
+        List links = content.getValues(CmsListBox.NODE_LINKS, locale);
+
+        CmsMacroResolver macroResolver = CmsMacroResolver.newInstance();
+        macroResolver.setKeepEmptyMacros(true);
+        for (int i = 0; i < links.size(); i++) {
+            I_CmsXmlContentValue xmlValue = (I_CmsXmlContentValue)links.get(i);
+            String value = xmlValue.getStringValue(cms);
+            if (CmsStringUtil.isNotEmptyOrWhitespaceOnly(value)) {
+                StringBuffer macro = new StringBuffer(10);
+                macro.append(CmsListBox.MACRO_LINK_PREFIX).append(i + 1);
+                macroResolver.addMacro(macro.toString(), cms.getRequestContext().removeSiteRoot(value));
+            }
+        }
+
+        return macroResolver.resolveMacros(params);
+    }
+}
@@ -0,0 +1,252 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software GmbH, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package org.opencms.frontend.templatetwo;
+
+import org.opencms.db.CmsPublishedResource;
+import org.opencms.file.CmsFile;
+import org.opencms.file.CmsObject;
+import org.opencms.file.CmsResource;
+import org.opencms.main.CmsEvent;
+import org.opencms.main.CmsException;
+import org.opencms.main.CmsLog;
+import org.opencms.main.I_CmsEventListener;
+import org.opencms.main.OpenCms;
+import org.opencms.util.CmsUUID;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.logging.Log;
+
+/**
+ * Caches the resolved list box configurations.<p>
+ * 
+ * The configurations are keyed by the project type, the structure id and the date of last modification 
+ * of the configuration file, the site root and the locale. Offline configurations are removed when their 
+ * configuration file is modified, online configurations are removed when their configuration file 
+ * is published.<p>
+ * 
+ * The cached configurations are shared between all requests and must not be modified.<p>
+ * 
+ * @since 8.0.2
+ */
+public final class CmsListBoxConfigurationCache implements I_CmsEventListener {
+
+    /** The key prefix for offline configurations. */
+    private static final String KEY_OFFLINE = "offline_";
+
+    /** The key prefix for online configurations. */
+    private static final String KEY_ONLINE = "online_";
+
+    /** The log object for this class. */
+    private static final Log LOG = CmsLog.getLog(CmsListBoxConfigurationCache.class);
+
+    /** The singleton instance. */
+    private static CmsListBoxConfigurationCache m_instance;
+
+    /** The map of cached configurations. */
+    private Map m_configurations;
+
+    /**
+     * Hidden constructor.<p>
+     */
+    private CmsListBoxConfigurationCache() {
+
+        m_configurations = new ConcurrentHashMap();
+        // add an event listener to remove changed configurations
+        OpenCms.addCmsEventListener(this, new int[] {
+            I_CmsEventListener.EVENT_CLEAR_CACHES,
+            I_CmsEventListener.EVENT_CLEAR_ONLINE_CACHES,
+            I_CmsEventListener.EVENT_CLEAR_OFFLINE_CACHES,
+            I_CmsEventListener.EVENT_PUBLISH_PROJECT,
+            I_CmsEventListener.EVENT_RESOURCE_MODIFIED,
+            I_CmsEventListener.EVENT_RESOURCE_AND_PROPERTIES_MODIFIED,
+            I_CmsEventListener.EVENT_RESOURCES_MODIFIED,
+            I_CmsEventListener.EVENT_RESOURCES_AND_PROPERTIES_MODIFIED,
+            I_CmsEventListener.EVENT_RESOURCE_DELETED,
+            I_CmsEventListener.EVENT_RESOURCE_MOVED});
+    }
+
+    /**
+     * Returns the singleton instance of the list box configuration cache.<p>
+     * 
+     * @return the singleton instance of the list box configuration cache
+     */
+    public static synchronized CmsListBoxConfigurationCache getInstance() {
+
+        if (m_instance == null) {
+            m_instance = new CmsListBoxConfigurationCache();
+        }
+        return m_instance;
+    }
+
+    /**
+     * @see org.opencms.main.I_CmsEventListener#cmsEvent(org.opencms.main.CmsEvent)
+     */
+    public void cmsEvent(CmsEvent event) {
+
+        switch (event.getType()) {
+            case I_CmsEventListener.EVENT_PUBLISH_PROJECT:
+                List publishedIds = getPublishedStructureIds(event);
+                if (publishedIds != null) {
+                    Iterator ids = publishedIds.iterator();
+                    while (ids.hasNext()) {
+                        removeConfigurations(KEY_ONLINE + ids.next() + '_');
+                    }
+                } else {
+                    // the published resources could not be read, remove all online configurations
+                    removeConfigurations(KEY_ONLINE);
+                }
+                break;
+            case I_CmsEventListener.EVENT_CLEAR_ONLINE_CACHES:
+                removeConfigurations(KEY_ONLINE);
+                break;
+            case I_CmsEventListener.EVENT_CLEAR_OFFLINE_CACHES:
+                removeConfigurations(KEY_OFFLINE);
+                break;
+            case I_CmsEventListener.EVENT_CLEAR_CACHES:
+                m_configurations.clear();
+                break;
+            case I_CmsEventListener.EVENT_RESOURCE_AND_PROPERTIES_MODIFIED:
+            case I_CmsEventListener.EVENT_RESOURCE_MODIFIED:
+                Object resource = event.getData().get(I_CmsEventListener.KEY_RESOURCE);
+                if (resource instanceof CmsResource) {
+                    removeConfigurations(KEY_OFFLINE + ((CmsResource)resource).getStructureId() + '_');
+                }
+                break;
+            case I_CmsEventListener.EVENT_RESOURCES_AND_PROPERTIES_MODIFIED:
+            case I_CmsEventListener.EVENT_RESOURCES_MODIFIED:
+            case I_CmsEventListener.EVENT_RESOURCE_DELETED:
+            case I_CmsEventListener.EVENT_RESOURCE_MOVED:
+                Object resources = event.getData().get(I_CmsEventListener.KEY_RESOURCES);
+                if (resources instanceof List) {
+                    Iterator i = ((List)resources).iterator();
+                    while (i.hasNext()) {
+                        Object res = i.next();
+                        if (res instanceof CmsResource) {
+                            removeConfigurations(KEY_OFFLINE + ((CmsResource)res).getStructureId() + '_');
+                        }
+                    }
+                }
+                break;
+            default: // no operation
+        }
+    }
+
+    /**
+     * Returns the shared list box configuration read from the given configuration resource.<p>
+     * 
+     * The content of the configuration file is only read and unmarshalled if the configuration 
+     * is not cached for the current project, site and locale.<p>
+     * 
+     * @param cms the current users OpenCms context
+     * @param resource the list box configuration resource
+     * 
+     * @return the shared list box configuration
+     * 
+     * @throws CmsException if reading or unmarshalling the configuration file fails
+     */
+    public CmsListBoxConfiguration getConfiguration(CmsObject cms, CmsResource resource) throws CmsException {
+
+        String key = getCacheKey(cms, resource);
+        CmsListBoxConfiguration result = (CmsListBoxConfiguration)m_configurations.get(key);
+        if (result == null) {
+            CmsFile file = cms.readFile(resource);
+            result = new CmsListBoxConfiguration(cms, file, cms.getRequestContext().getLocale());
+            m_configurations.put(key, result);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the cache key for the given configuration resource.<p>
+     * 
+     * @param cms the current users OpenCms context
+     * @param resource the list box configuration resource
+     * 
+     * @return the cache key for the given configuration resource
+     */
+    private String getCacheKey(CmsObject cms, CmsResource resource) {
+
+        StringBuffer key = new StringBuffer(128);
+        key.append(cms.getRequestContext().getCurrentProject().isOnlineProject() ? KEY_ONLINE : KEY_OFFLINE);
+        key.append(resource.getStructureId());
+        key.append('_');
+        key.append(resource.getDateLastModified());
+        key.append('_');
+        key.append(cms.getRequestContext().getSiteRoot());
+        key.append('_');
+        key.append(cms.getRequestContext().getLocale());
+        return key.toString();
+    }
+
+    /**
+     * Returns the structure ids of the resources published with the given publish event.<p>
+     * 
+     * @param event the publish event
+     * 
+     * @return the structure ids of the published resources, or <code>null</code> if they can not be read
+     */
+    private List getPublishedStructureIds(CmsEvent event) {
+
+        CmsUUID publishHistoryId = (CmsUUID)event.getData().get(I_CmsEventListener.KEY_PUBLISHID);
+        if (publishHistoryId == null) {
+            return null;
+        }
+        try {
+            CmsObject cms = OpenCms.initCmsObject(OpenCms.getDefaultUsers().getUserGuest());
+            List publishedResources = cms.readPublishedResources(publishHistoryId);
+            List result = new ArrayList(publishedResources.size());
+            Iterator i = publishedResources.iterator();
+            while (i.hasNext()) {
+                result.add(((CmsPublishedResource)i.next()).getStructureId());
+            }
+            return result;
+        } catch (CmsException e) {
+            LOG.error(e.getLocalizedMessage(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Removes all cached configurations with keys starting with the given prefix.<p>
+     * 
+     * @param prefix the key prefix
+     */
+    private void removeConfigurations(String prefix) {
+
+        Iterator i = m_configurations.keySet().iterator();
+        while (i.hasNext()) {
+            if (((String)i.next()).startsWith(prefix)) {
+                i.remove();
+            }
+        }
+    }
+}
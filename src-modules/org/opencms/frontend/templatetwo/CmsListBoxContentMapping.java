@@ -42,11 +42,9 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.Set;
 
 /**
  * Describes the mapping from an OpenCms XML content to a list box entry.<p>
@@ -72,6 +70,9 @@ public class CmsListBoxContentMapping {
         /** The fields in the XML content to map. */
         private List m_xmlFields;
 
+        /** The non empty fields in the XML content to map, in the order they are tried. */
+        private String[] m_xmlFieldPaths;
+
         /**        
         * Creates a new list box field mapping to a list of XML fields with default value and max length.<p> 
         * 
@@ -86,6 +87,7 @@ public class CmsListBoxContentMapping {
             m_listBoxField = listBoxField;
             m_defaultValue = defaultValue;
             m_maxLenght = maxLength;
+            initXmlFieldPaths();
         }
 
         /**
@@ -133,6 +135,8 @@ public class CmsListBoxContentMapping {
 
             if (!m_xmlFields.contains(xmlField)) {
                 m_xmlFields.add(xmlField);
+                initXmlFieldPaths();
+                compilePlan();
             }
         }
 
@@ -186,6 +190,16 @@ public class CmsListBoxContentMapping {
             return m_maxLenght;
         }
 
+        /**
+         * Returns the non empty fields in the XML content to map, in the order they are tried.<p>
+         *
+         * @return the non empty fields in the XML content to map
+         */
+        public String[] getXmlFieldPaths() {
+
+            return m_xmlFieldPaths;
+        }
+
         /**
          * Returns the fields in the XML content to map.<p>
          *
@@ -223,8 +237,74 @@ public class CmsListBoxContentMapping {
 
             return m_maxLenght > 0;
         }
+
+        /**
+         * Initializes the non empty fields in the XML content to map.<p>
+         */
+        private void initXmlFieldPaths() {
+
+            List paths = new ArrayList(m_xmlFields.size());
+            for (int i = 0, size = m_xmlFields.size(); i < size; i++) {
+                String xmlField = (String)m_xmlFields.get(i);
+                if (CmsStringUtil.isNotEmptyOrWhitespaceOnly(xmlField)) {
+                    paths.add(xmlField);
+                }
+            }
+            m_xmlFieldPaths = (String[])paths.toArray(new String[paths.size()]);
+        }
+    }
+
+    /**
+     * One step of the compiled mapping plan, with the converter and the length rule already resolved.<p>
+     * 
+     * A step is never changed after it has been created.<p>
+     */
+    static final class CmsListBoxMappingStep {
+
+        /** The converter used to map the value to the list box entry. */
+        final int m_converter;
+
+        /** The default value for the list box entry field in case no XML content match is found. */
+        final String m_defaultValue;
+
+        /** The maximum length of the mapped value, <code>0</code> if the length is unlimited. */
+        final int m_maxLength;
+
+        /** The non empty fields in the XML content to map, in the order they are tried. */
+        final String[] m_xmlFieldPaths;
+
+        /**
+         * Creates a new mapping plan step for the given field mapping.<p>
+         * 
+         * @param mapping the field mapping to create the step for
+         */
+        CmsListBoxMappingStep(CmsListBoxFieldMapping mapping) {
+
+            m_converter = getConverter(mapping.getListBoxField());
+            m_defaultValue = mapping.getDefaultValue();
+            m_maxLength = mapping.hasMaxLenghtLimit() ? mapping.getMaxLenght() : 0;
+            m_xmlFieldPaths = (String[])mapping.getXmlFieldPaths().clone();
+        }
     }
 
+    /** Converter that sets the value as list box entry author. */
+    private static final int CONVERTER_AUTHOR = 1;
+
+    /** Converter that converts the value to the list box entry date. */
+    private static final int CONVERTER_DATE = 3;
+
+    /** Converter that sets the value as list box entry description. */
+    private static final int CONVERTER_DESCRIPTION = 2;
+
+    /** Converter that sets the non empty value as list box entry image. */
+    private static final int CONVERTER_IMAGE = 5;
+
+    /** Converter that converts the non empty value to the server link of the list box entry. */
+    private static final int CONVERTER_LINK = 4;
+
+    /** Converter that sets the value as list box entry title. */
+    private static final int CONVERTER_TITLE = 0;
+
     /** Constant to map to the list box entry author. */
     public static final String ENTRY_AUTHOR = "Author";
 
@@ -252,12 +332,16 @@ public class CmsListBoxContentMapping {
     /** The map of mappings from the XML content to the list box entry. */
     private Map m_mappings;
 
+    /** The compiled mapping plan, the steps of the configured mappings ordered by their list box entry field index. */
+    private volatile CmsListBoxMappingStep[] m_plan;
+
     /**
      * Creates a new list box content mapping.<p>
      */
     public CmsListBoxContentMapping() {
 
         m_mappings = new HashMap();
+        m_plan = new CmsListBoxMappingStep[0];
     }
 
     /**
@@ -277,6 +361,7 @@ public class CmsListBoxContentMapping {
                 maxLength,
                 defaultValue);
             m_mappings.put(listBoxField, mapping);
+            compilePlan();
         }
     }
 
@@ -322,71 +407,64 @@ public class CmsListBoxContentMapping {
             return null;
         }
 
-        // get all configured mappings
-        Set mappings = m_mappings.entrySet();
         // create the empty syndication entry
         CmsListBoxEntry result = new CmsListBoxEntry();
         boolean hasTitle = false;
 
-        Iterator i = mappings.iterator();
+        // the plan contains all configured mappings with pre-resolved converters and length rules
+        CmsListBoxMappingStep[] plan = m_plan;
         String link = null;
         Date date = null;
-        while (i.hasNext()) {
-            Map.Entry e = (Map.Entry)i.next();
-            String listBoxField = (String)e.getKey();
-            CmsListBoxFieldMapping mapping = (CmsListBoxFieldMapping)e.getValue();
+        for (int i = 0; i < plan.length; i++) {
+            CmsListBoxMappingStep step = plan[i];
 
             I_CmsXmlContentValue xmlContentValue = null;
-            List xmlFields = mapping.getXmlFields();
-            for (int j = 0, size = xmlFields.size(); j < size; j++) {
-                String xmlField = (String)xmlFields.get(j);
-                if (CmsStringUtil.isNotEmptyOrWhitespaceOnly(xmlField)) {
-                    xmlContentValue = content.getValue(xmlField, locale);
-                    if (xmlContentValue != null) {
-                        // found a matching XML content node
-                        break;
-                    }
+            String[] xmlFields = step.m_xmlFieldPaths;
+            for (int j = 0; j < xmlFields.length; j++) {
+                xmlContentValue = content.getValue(xmlFields[j], locale);
+                if (xmlContentValue != null) {
+                    // found a matching XML content node
+                    break;
                 }
             }
             String value = null;
             if (xmlContentValue != null) {
                 // value was found in the content
                 value = xmlContentValue.getStringValue(cms);
-            } else if (mapping.hasDefaultValue()) {
+            } else {
                 // value not found in content, use default value
-                value = mapping.getDefaultValue();
+                value = step.m_defaultValue;
             }
             if (value != null) {
-                if (mapping.hasMaxLenghtLimit()) {
+                if (step.m_maxLength > 0) {
                     // apply length restriction if required
-                    value = applyLengthRestriction(cms, xmlContentValue, value, mapping.getMaxLenght());
+                    value = applyLengthRestriction(cms, xmlContentValue, value, step.m_maxLength);
                 }
                 // a value to map was found
-                int pos = MAPPINGS_LIST.indexOf(listBoxField);
-                switch (pos) {
-                    case 0: // Title
+                switch (step.m_converter) {
+                    case CONVERTER_TITLE:
                         result.setTitle(value);
                         hasTitle = true;
                         break;
-                    case 1: // Author
+                    case CONVERTER_AUTHOR:
                         result.setAuthor(value);
                         break;
-                    case 2: // Description
+                    case CONVERTER_DESCRIPTION:
                         result.setDescription(value);
                         break;
-                    case 3: // Date
+                    case CONVERTER_DATE:
                         date = convertToDate(cms, content.getFile(), xmlContentValue, value);
                         if (date != null) {
                             result.setDate(date);
                         }
                         break;
-                    case 4: // Link
+                    case CONVERTER_LINK:
                         // use link as provided in content
                         if (CmsStringUtil.isNotEmptyOrWhitespaceOnly(value)) {
                             link = OpenCms.getLinkManager().getServerLink(cms, value);
                         }
                         break;
-                    case 5: // Image
+                    case CONVERTER_IMAGE:
                         if (CmsStringUtil.isNotEmptyOrWhitespaceOnly(value)) {
                             result.setImage(value);
                         }
@@ -486,8 +564,12 @@ public class CmsListBoxContentMapping {
         String result;
         // value is to long, apply limitation
         if (xmlContentValue instanceof CmsXmlHtmlValue) {
-            // the content is HTML
-            result = xmlContentValue.getPlainText(cms);
+            // the content is HTML, only extract as much plain text as required for the restriction
+            result = CmsHtmlTextTruncator.getPlainTextPrefix(value, maxLength);
+            if (result.length() <= maxLength) {
+                // the complete plain text fits, use the exact extraction of the value
+                result = xmlContentValue.getPlainText(cms);
+            }
         } else {
             // assume default "text/plain"
             result = value;
@@ -498,6 +580,26 @@ public class CmsListBoxContentMapping {
         return result;
     }
 
+    /**
+     * Compiles the mapping plan from the configured mappings.<p>
+     * 
+     * The converter and the length rule of every mapping are resolved here, 
+     * so that creating an entry does not need to look them up again. 
+     * The plan is replaced as a whole, so concurrent readers always see a complete plan.<p>
+     */
+    private void compilePlan() {
+
+        CmsListBoxMappingStep[] plan = new CmsListBoxMappingStep[m_mappings.size()];
+        int pos = 0;
+        for (int i = 0; i < MAPPINGS.length; i++) {
+            CmsListBoxFieldMapping mapping = (CmsListBoxFieldMapping)m_mappings.get(MAPPINGS[i]);
+            if (mapping != null) {
+                plan[pos++] = new CmsListBoxMappingStep(mapping);
+            }
+        }
+        m_plan = plan;
+    }
+
     /**
      * Converts an XML content value to a Date.<p>
      * 
@@ -535,4 +637,29 @@ public class CmsListBoxContentMapping {
         }
         return result;
     }
+
+    /**
+     * Returns the converter for the given list box entry field.<p>
+     * 
+     * @param listBoxField the list box entry field, one of {@link #MAPPINGS}
+     * 
+     * @return the converter for the given list box entry field, or <code>-1</code> if the field is unknown
+     */
+    private static int getConverter(String listBoxField) {
+
+        if (ENTRY_TITLE.equals(listBoxField)) {
+            return CONVERTER_TITLE;
+        } else if (ENTRY_AUTHOR.equals(listBoxField)) {
+            return CONVERTER_AUTHOR;
+        } else if (ENTRY_TEXT.equals(listBoxField)) {
+            return CONVERTER_DESCRIPTION;
+        } else if (ENTRY_DATE.equals(listBoxField)) {
+            return CONVERTER_DATE;
+        } else if (ENTRY_LINK.equals(listBoxField)) {
+            return CONVERTER_LINK;
+        } else if (ENTRY_IMAGE.equals(listBoxField)) {
+            return CONVERTER_IMAGE;
+        }
+        return -1;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,180 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software GmbH, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+
+package org.opencms.frontend.templatetwo;
+
+import org.opencms.file.CmsObject;
+import org.opencms.file.CmsResource;
+import org.opencms.main.CmsEvent;
+import org.opencms.main.I_CmsEventListener;
+import org.opencms.main.OpenCms;
+import org.opencms.util.CmsCollectionsGenericWrapper;
+
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Caches the list box entries mapped from the collected resources of list boxes.<p>
+ * 
+ * The entries are keyed by the structure id and the date of last modification of the mapped resource,
+ * the locale, the list box configuration version, the project type and the site root, which determines
+ * the generated server links. A changed resource or a changed list box configuration therefore 
+ * always results in a new cache key, so only changed resources are mapped again.<p>
+ * 
+ * The cached entries are shared between all requests and must not be modified.<p>
+ * 
+ * @since 8.0.2
+ */
+public final class CmsListBoxEntryCache implements I_CmsEventListener {
+
+    /** The maximum number of cached list box entries. */
+    private static final int CACHE_SIZE = 2048;
+
+    /** Marker for resources that can not be mapped to a list box entry. */
+    private static final CmsListBoxEntry NULL_ENTRY = new CmsListBoxEntry();
+
+    /** The singleton instance. */
+    private static CmsListBoxEntryCache m_instance;
+
+    /** The map of cached list box entries. */
+    private volatile Map m_entries;
+
+    /**
+     * Hidden constructor.<p>
+     */
+    private CmsListBoxEntryCache() {
+
+        initEntries();
+        // add an event listener to clear the cache on clear events
+        OpenCms.addCmsEventListener(this, new int[] {
+            I_CmsEventListener.EVENT_CLEAR_CACHES,
+            I_CmsEventListener.EVENT_CLEAR_ONLINE_CACHES,
+            I_CmsEventListener.EVENT_CLEAR_OFFLINE_CACHES});
+    }
+
+    /**
+     * Returns the singleton instance of the list box entry cache.<p>
+     * 
+     * @return the singleton instance of the list box entry cache
+     */
+    public static synchronized CmsListBoxEntryCache getInstance() {
+
+        if (m_instance == null) {
+            m_instance = new CmsListBoxEntryCache();
+        }
+        return m_instance;
+    }
+
+    /**
+     * @see org.opencms.main.I_CmsEventListener#cmsEvent(org.opencms.main.CmsEvent)
+     */
+    public void cmsEvent(CmsEvent event) {
+
+        switch (event.getType()) {
+            case I_CmsEventListener.EVENT_CLEAR_CACHES:
+            case I_CmsEventListener.EVENT_CLEAR_ONLINE_CACHES:
+            case I_CmsEventListener.EVENT_CLEAR_OFFLINE_CACHES:
+                initEntries();
+                break;
+            default:
+                // noop
+                break;
+        }
+    }
+
+    /**
+     * Returns the cache key for the list box entry of the given resource.<p>
+     * 
+     * @param cms the current users OpenCms context
+     * @param resource the resource to map
+     * @param locale the locale to use for the mapping
+     * @param configVersion the version of the list box configuration that contains the mapping
+     * 
+     * @return the cache key for the list box entry of the given resource
+     */
+    public String getCacheKey(CmsObject cms, CmsResource resource, Locale locale, String configVersion) {
+
+        StringBuffer key = new StringBuffer(128);
+        key.append(cms.getRequestContext().getCurrentProject().isOnlineProject() ? "online" : "offline");
+        key.append('_');
+        key.append(cms.getRequestContext().getSiteRoot());
+        key.append('_');
+        key.append(resource.getStructureId());
+        key.append('_');
+        key.append(resource.getDateLastModified());
+        key.append('_');
+        key.append(locale);
+        key.append('_');
+        key.append(configVersion);
+        return key.toString();
+    }
+
+    /**
+     * Returns the cached list box entry for the given key.<p>
+     * 
+     * @param key the cache key, see {@link #getCacheKey(CmsObject, CmsResource, Locale, String)}
+     * 
+     * @return the cached list box entry, or <code>null</code> if no entry is cached for the key
+     */
+    public CmsListBoxEntry getEntry(String key) {
+
+        return (CmsListBoxEntry)m_entries.get(key);
+    }
+
+    /**
+     * Returns <code>true</code> if the given entry is the marker for resources that can not be mapped.<p>
+     * 
+     * @param entry the cached entry to check
+     * 
+     * @return <code>true</code> if the given entry is the marker for resources that can not be mapped
+     */
+    public boolean isNullEntry(CmsListBoxEntry entry) {
+
+        return entry == NULL_ENTRY;
+    }
+
+    /**
+     * Caches the list box entry for the given key.<p>
+     * 
+     * @param key the cache key, see {@link #getCacheKey(CmsObject, CmsResource, Locale, String)}
+     * @param entry the list box entry, may be <code>null</code> if the resource can not be mapped
+     */
+    public void putEntry(String key, CmsListBoxEntry entry) {
+
+        m_entries.put(key, (entry != null) ? entry : NULL_ENTRY);
+    }
+
+    /**
+     * Initializes (also clears) the internal entry map.<p>
+     */
+    private synchronized void initEntries() {
+
+        Map entries = CmsCollectionsGenericWrapper.createLRUMap(CACHE_SIZE);
+        m_entries = Collections.synchronizedMap(entries);
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software GmbH, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package org.opencms.frontend.templatetwo;
+
+import org.opencms.file.CmsResource;
+import org.opencms.jsp.CmsJspNavElement;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An in-memory resource tree that provides navigation elements.<p>
+ * 
+ * Resources are added with their site path and properties. This allows to create navigation
+ * snapshots without an OpenCms repository.<p>
+ * 
+ * @since 8.0.2
+ */
+public class CmsMemoryNavigationTree implements I_CmsNavigationTree {
+
+    /** The navigation elements of the added resources, keyed by the site path of their parent folder. */
+    private Map m_children;
+
+    /**
+     * Creates an empty resource tree.<p>
+     */
+    public CmsMemoryNavigationTree() {
+
+        m_children = new HashMap();
+    }
+
+    /**
+     * Adds a resource to the tree.<p>
+     * 
+     * Folder paths must end with a "/". Parent folders are not added automatically.<p>
+     * 
+     * @param sitePath the site path of the resource
+     * @param properties the properties of the resource, with property names as keys and values as Strings
+     */
+    public void addResource(String sitePath, Map properties) {
+
+        int level = CmsResource.getPathLevel(sitePath);
+        if (CmsResource.isFolder(sitePath)) {
+            level--;
+        }
+        String parent = CmsResource.getParentFolder(sitePath);
+        List children = (List)m_children.get(parent);
+        if (children == null) {
+            children = new ArrayList();
+            m_children.put(parent, children);
+        }
+        children.add(new CmsJspNavElement(sitePath, new HashMap(properties), level));
+    }
+
+    /**
+     * Returns <code>{@link Long#MAX_VALUE}</code>, the resources of the tree have no release or expiration dates.<p>
+     * 
+     * @see org.opencms.frontend.templatetwo.I_CmsNavigationTree#getDateExpires(java.lang.String)
+     */
+    public long getDateExpires(String folder) {
+
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * @see org.opencms.frontend.templatetwo.I_CmsNavigationTree#getNavigationForFolder(java.lang.String)
+     */
+    public List getNavigationForFolder(String folder) {
+
+        List result = new ArrayList();
+        List children = (List)m_children.get(CmsResource.getFolderPath(folder));
+        if (children != null) {
+            for (int i = 0; i < children.size(); i++) {
+                CmsJspNavElement elem = (CmsJspNavElement)children.get(i);
+                if (elem.isInNavigation()) {
+                    result.add(elem);
+                }
+            }
+        }
+        Collections.sort(result);
+        return result;
+    }
+}
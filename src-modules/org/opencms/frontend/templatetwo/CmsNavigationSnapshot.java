@@ -0,0 +1,250 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software GmbH, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package org.opencms.frontend.templatetwo;
+
+import org.opencms.file.CmsResource;
+import org.opencms.jsp.CmsJspNavElement;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable snapshot of the navigation of a site.<p>
+ * 
+ * The snapshot contains the navigation elements of all folders that are reachable from the root folder
+ * through folders in the navigation. The navigation methods behave like the corresponding methods of
+ * {@link org.opencms.jsp.CmsJspNavBuilder}, but return <code>null</code> for folders that are not part
+ * of the snapshot.<p>
+ * 
+ * The navigation elements are shared between all requests and must not be modified. 
+ * The navigation changes when a resource is released or expires, see {@link #getDateExpires()}.<p>
+ * 
+ * @since 8.0.2
+ */
+public final class CmsNavigationSnapshot {
+
+    /** The date when the snapshot has to be built again. */
+    private long m_dateExpires;
+
+    /** The navigation elements, keyed by the site path of their folder. */
+    private Map m_folders;
+
+    /** The time the snapshot was created. */
+    private long m_timestamp;
+
+    /**
+     * Hidden constructor.<p>
+     * 
+     * @param folders the navigation elements, keyed by the site path of their folder
+     * @param dateExpires the date when the snapshot has to be built again
+     */
+    private CmsNavigationSnapshot(Map folders, long dateExpires) {
+
+        m_folders = folders;
+        m_dateExpires = dateExpires;
+        m_timestamp = System.currentTimeMillis();
+    }
+
+    /**
+     * Builds the navigation snapshot of the given resource tree.<p>
+     * 
+     * @param tree the resource tree to read the navigation from
+     * @param rootFolder the site path of the root folder of the navigation
+     * 
+     * @return the navigation snapshot
+     */
+    public static CmsNavigationSnapshot build(I_CmsNavigationTree tree, String rootFolder) {
+
+        Map folders = new HashMap();
+        long dateExpires = Long.MAX_VALUE;
+        LinkedList queue = new LinkedList();
+        queue.add(CmsResource.getFolderPath(rootFolder));
+        while (!queue.isEmpty()) {
+            String folder = (String)queue.removeFirst();
+            if (folders.containsKey(folder)) {
+                continue;
+            }
+            List elements = tree.getNavigationForFolder(folder);
+            folders.put(folder, Collections.unmodifiableList(new ArrayList(elements)));
+            // the navigation of the folder changes when a resource in it is released or expires
+            dateExpires = Math.min(dateExpires, tree.getDateExpires(folder));
+            for (int i = 0; i < elements.size(); i++) {
+                CmsJspNavElement elem = (CmsJspNavElement)elements.get(i);
+                if (elem.isFolderLink()) {
+                    queue.add(elem.getResourceName());
+                }
+            }
+        }
+        return new CmsNavigationSnapshot(folders, dateExpires);
+    }
+
+    /**
+     * Returns the date when the snapshot has to be built again.<p>
+     * 
+     * This is the earliest date in the future when a resource in one of the folders 
+     * of the snapshot is released or expires.<p>
+     * 
+     * @return the date when the snapshot has to be built again, 
+     *      or <code>{@link Long#MAX_VALUE}</code> if the snapshot does not expire
+     */
+    public long getDateExpires() {
+
+        return m_dateExpires;
+    }
+
+    /**
+     * Returns the navigation elements of the given folder.<p>
+     * 
+     * The returned elements are shared between all requests, they must not be modified.<p>
+     * 
+     * @param folder the site path of the folder
+     * 
+     * @return a list of {@link CmsJspNavElement} objects, or <code>null</code> if the folder is not part of the snapshot
+     */
+    public List getNavigationForFolder(String folder) {
+
+        return (List)m_folders.get(CmsResource.getFolderPath(folder));
+    }
+
+    /**
+     * Returns the navigation tree of the given folder, like 
+     * {@link org.opencms.jsp.CmsJspNavBuilder#getNavigationTreeForFolder(String, int, int)}.<p>
+     * 
+     * The navigation positions of the elements are changed to sort them into a tree, 
+     * so the result contains copies of the shared navigation elements.<p>
+     * 
+     * @param folder the site path of the folder
+     * @param startlevel the start level of the navigation
+     * @param endlevel the end level of the navigation
+     * 
+     * @return a list of {@link CmsJspNavElement} objects, or <code>null</code> if a folder is not part of the snapshot
+     */
+    public List getNavigationTreeForFolder(String folder, int startlevel, int endlevel) {
+
+        folder = CmsResource.getFolderPath(folder);
+        if (endlevel < startlevel) {
+            return new ArrayList();
+        }
+        int currentlevel = CmsResource.getPathLevel(folder);
+        if (currentlevel < endlevel) {
+            endlevel = currentlevel;
+        }
+        if (startlevel == endlevel) {
+            return getNavigationForFolder(CmsResource.getPathPart(folder, startlevel));
+        }
+
+        List result = new ArrayList();
+        float parentcount = 0;
+        for (int i = startlevel; i <= endlevel; i++) {
+            String currentfolder = CmsResource.getPathPart(folder, i);
+            List entries = getNavigationForFolder(currentfolder);
+            if (entries == null) {
+                return null;
+            }
+            for (int j = 0; j < entries.size(); j++) {
+                CmsJspNavElement shared = (CmsJspNavElement)entries.get(j);
+                CmsJspNavElement elem = new CmsJspNavElement(
+                    shared.getResourceName(),
+                    shared.getProperties(),
+                    shared.getNavTreeLevel());
+                // sort the elements below their parent folder
+                elem.setNavPosition(shared.getNavPosition() + parentcount);
+                result.add(elem);
+            }
+            // get the new parent position
+            for (int j = 0; j < result.size(); j++) {
+                CmsJspNavElement elem = (CmsJspNavElement)result.get(j);
+                if (elem.getResourceName().equals(CmsResource.getPathPart(folder, i + 1))) {
+                    parentcount = elem.getNavPosition();
+                }
+            }
+        }
+        Collections.sort(result);
+        return result;
+    }
+
+    /**
+     * Returns the site navigation below the given folder, like 
+     * {@link org.opencms.jsp.CmsJspNavBuilder#getSiteNavigation(String, int)}.<p>
+     * 
+     * The returned elements are shared between all requests, they must not be modified.<p>
+     * 
+     * @param folder the site path of the folder
+     * @param endLevel the end level of the navigation
+     * 
+     * @return a list of {@link CmsJspNavElement} objects, or <code>null</code> if a folder is not part of the snapshot
+     */
+    public List getSiteNavigation(String folder, int endLevel) {
+
+        List result = new ArrayList();
+        if (!addSiteNavigation(result, folder, endLevel)) {
+            return null;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the time the snapshot was created.<p>
+     * 
+     * @return the time the snapshot was created
+     */
+    public long getTimestamp() {
+
+        return m_timestamp;
+    }
+
+    /**
+     * Adds the site navigation below the given folder to the result list.<p>
+     * 
+     * @param result the list to add the navigation elements to
+     * @param folder the site path of the folder
+     * @param endLevel the end level of the navigation
+     * 
+     * @return <code>false</code> if a folder is not part of the snapshot
+     */
+    private boolean addSiteNavigation(List result, String folder, int endLevel) {
+
+        List entries = getNavigationForFolder(folder);
+        if (entries == null) {
+            return false;
+        }
+        for (int i = 0; i < entries.size(); i++) {
+            CmsJspNavElement elem = (CmsJspNavElement)entries.get(i);
+            result.add(elem);
+            if (elem.isFolderLink() && (elem.getNavTreeLevel() < endLevel)) {
+                if (!addSiteNavigation(result, elem.getResourceName(), endLevel)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
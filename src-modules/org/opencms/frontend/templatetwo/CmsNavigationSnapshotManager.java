@@ -0,0 +1,284 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software GmbH, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package org.opencms.frontend.templatetwo;
+
+import org.opencms.file.CmsObject;
+import org.opencms.i18n.CmsLocaleManager;
+import org.opencms.main.CmsEvent;
+import org.opencms.main.CmsLog;
+import org.opencms.main.I_CmsEventListener;
+import org.opencms.main.OpenCms;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import org.apache.commons.logging.Log;
+
+/**
+ * Provides the navigation snapshots of the online sites for the menus of template two.<p>
+ * 
+ * Snapshots are kept per site root and locale. They are built from the navigation visible to the guest user
+ * in a background thread: initially on the first request for a site and locale, and again after each publish.
+ * Until a new snapshot is ready, the previous snapshot is used. A snapshot is also built again when a resource 
+ * in its folders is released or expires, until then no snapshot is used. If no snapshot is available, 
+ * <code>null</code> is returned and the navigation has to be read from the VFS.<p>
+ * 
+ * @since 8.0.2
+ */
+public final class CmsNavigationSnapshotManager implements I_CmsEventListener {
+
+    /** The log object for this class. */
+    private static final Log LOG = CmsLog.getLog(CmsNavigationSnapshotManager.class);
+
+    /** The singleton instance. */
+    private static CmsNavigationSnapshotManager m_instance;
+
+    /** The executor that builds the snapshots. */
+    private ExecutorService m_executor;
+
+    /** The keys of the snapshots that are currently being built. */
+    private Set m_pending;
+
+    /** The current snapshots, keyed by site root and locale. */
+    private Map m_snapshots;
+
+    /**
+     * Hidden constructor.<p>
+     */
+    private CmsNavigationSnapshotManager() {
+
+        m_snapshots = new ConcurrentHashMap();
+        m_pending = Collections.synchronizedSet(new HashSet());
+        m_executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+
+            /**
+             * @see java.util.concurrent.ThreadFactory#newThread(java.lang.Runnable)
+             */
+            public Thread newThread(Runnable runnable) {
+
+                Thread thread = new Thread(runnable, "OpenCms: Template Two navigation snapshots");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        // add an event listener to rebuild the snapshots after publish
+        OpenCms.addCmsEventListener(this, new int[] {
+            I_CmsEventListener.EVENT_CLEAR_CACHES,
+            I_CmsEventListener.EVENT_CLEAR_ONLINE_CACHES,
+            I_CmsEventListener.EVENT_PUBLISH_PROJECT});
+    }
+
+    /**
+     * Returns the singleton instance of the navigation snapshot manager.<p>
+     * 
+     * @return the singleton instance of the navigation snapshot manager
+     */
+    public static synchronized CmsNavigationSnapshotManager getInstance() {
+
+        if (m_instance == null) {
+            m_instance = new CmsNavigationSnapshotManager();
+        }
+        return m_instance;
+    }
+
+    /**
+     * Shuts down the singleton instance of the navigation snapshot manager, if it has been created.<p>
+     * 
+     * Unlike <code>getInstance().shutDown()</code>, this does not create a manager that is not needed.<p>
+     */
+    public static synchronized void shutDownInstance() {
+
+        if (m_instance != null) {
+            m_instance.shutDown();
+        }
+    }
+
+    /**
+     * @see org.opencms.main.I_CmsEventListener#cmsEvent(org.opencms.main.CmsEvent)
+     */
+    public void cmsEvent(CmsEvent event) {
+
+        switch (event.getType()) {
+            case I_CmsEventListener.EVENT_CLEAR_CACHES:
+            case I_CmsEventListener.EVENT_CLEAR_ONLINE_CACHES:
+            case I_CmsEventListener.EVENT_PUBLISH_PROJECT:
+                // keep serving the current snapshots until the new ones are ready
+                Iterator i = m_snapshots.keySet().iterator();
+                while (i.hasNext()) {
+                    String key = (String)i.next();
+                    scheduleBuild(getSiteRoot(key), getLocale(key));
+                }
+                break;
+            default:
+                // noop
+                break;
+        }
+    }
+
+    /**
+     * Returns the navigation snapshot for the current site and locale of the given context.<p>
+     * 
+     * Snapshots are only provided for guest users in the online project, since they contain the 
+     * navigation visible to the guest user.<p>
+     * 
+     * @param cms the current users OpenCms context
+     * 
+     * @return the navigation snapshot, or <code>null</code> if no snapshot is available
+     */
+    public CmsNavigationSnapshot getSnapshot(CmsObject cms) {
+
+        if (!cms.getRequestContext().getCurrentProject().isOnlineProject()
+            || !cms.getRequestContext().getCurrentUser().isGuestUser()) {
+            return null;
+        }
+        String siteRoot = cms.getRequestContext().getSiteRoot();
+        Locale locale = cms.getRequestContext().getLocale();
+        CmsNavigationSnapshot result = (CmsNavigationSnapshot)m_snapshots.get(getKey(siteRoot, locale));
+        if ((result != null) && (System.currentTimeMillis() >= result.getDateExpires())) {
+            // a resource has been released or has expired, the snapshot no longer matches the navigation
+            result = null;
+        }
+        if (result == null) {
+            scheduleBuild(siteRoot, locale);
+        }
+        return result;
+    }
+
+    /**
+     * Stops building snapshots, called when the module is shut down.<p>
+     * 
+     * The manager no longer listens to events, and the next call to {@link #getInstance()} 
+     * creates a new manager.<p>
+     */
+    public void shutDown() {
+
+        synchronized (CmsNavigationSnapshotManager.class) {
+            if (m_instance == this) {
+                m_instance = null;
+            }
+        }
+        OpenCms.removeCmsEventListener(this);
+        m_executor.shutdownNow();
+        m_snapshots.clear();
+    }
+
+    /**
+     * Builds the snapshot for the given site root and locale.<p>
+     * 
+     * @param siteRoot the site root
+     * @param locale the locale
+     */
+    void buildSnapshot(String siteRoot, Locale locale) {
+
+        String key = getKey(siteRoot, locale);
+        // a publish event during the build schedules another build
+        m_pending.remove(key);
+        try {
+            CmsObject cms = OpenCms.initCmsObject(OpenCms.getDefaultUsers().getUserGuest());
+            cms.getRequestContext().setSiteRoot(siteRoot);
+            cms.getRequestContext().setLocale(locale);
+            m_snapshots.put(key, CmsNavigationSnapshot.build(new CmsVfsNavigationTree(cms), "/"));
+        } catch (Throwable t) {
+            // keep the previous snapshot
+            LOG.error(t.getLocalizedMessage(), t);
+        }
+    }
+
+    /**
+     * Returns the snapshot key for the given site root and locale.<p>
+     * 
+     * @param siteRoot the site root
+     * @param locale the locale
+     * 
+     * @return the snapshot key
+     */
+    private String getKey(String siteRoot, Locale locale) {
+
+        return locale.toString() + "|" + siteRoot;
+    }
+
+    /**
+     * Returns the locale of the given snapshot key.<p>
+     * 
+     * @param key the snapshot key
+     * 
+     * @return the locale of the snapshot key
+     */
+    private Locale getLocale(String key) {
+
+        return CmsLocaleManager.getLocale(key.substring(0, key.indexOf('|')));
+    }
+
+    /**
+     * Returns the site root of the given snapshot key.<p>
+     * 
+     * @param key the snapshot key
+     * 
+     * @return the site root of the snapshot key
+     */
+    private String getSiteRoot(String key) {
+
+        return key.substring(key.indexOf('|') + 1);
+    }
+
+    /**
+     * Schedules building the snapshot for the given site root and locale, unless it is already scheduled.<p>
+     * 
+     * @param siteRoot the site root
+     * @param locale the locale
+     */
+    private void scheduleBuild(final String siteRoot, final Locale locale) {
+
+        if (!m_pending.add(getKey(siteRoot, locale))) {
+            // already scheduled
+            return;
+        }
+        try {
+            m_executor.execute(new Runnable() {
+
+                /**
+                 * @see java.lang.Runnable#run()
+                 */
+                public void run() {
+
+                    buildSnapshot(siteRoot, locale);
+                }
+            });
+        } catch (RuntimeException e) {
+            // the executor has been shut down
+            m_pending.remove(getKey(siteRoot, locale));
+        }
+    }
+}
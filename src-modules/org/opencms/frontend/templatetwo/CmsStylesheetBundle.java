@@ -0,0 +1,104 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software GmbH, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package org.opencms.frontend.templatetwo;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A stylesheet bundle, the minified combination of several stylesheets.<p>
+ * 
+ * The bundle is identified by the hash of its content, so a bundle with the same hash 
+ * never changes and can be cached forever by browsers and proxies.<p>
+ * 
+ * @since 8.0.2
+ */
+public final class CmsStylesheetBundle {
+
+    /** The combined and minified content. */
+    private String m_content;
+
+    /** The hash of the content. */
+    private String m_hash;
+
+    /** The paths of the combined stylesheets. */
+    private List m_paths;
+
+    /**
+     * Constructor, with parameters.<p>
+     * 
+     * @param paths the paths of the combined stylesheets
+     * @param content the combined and minified content
+     * @param hash the hash of the content
+     */
+    public CmsStylesheetBundle(List paths, String content, String hash) {
+
+        m_paths = Collections.unmodifiableList(paths);
+        m_content = content;
+        m_hash = hash;
+    }
+
+    /**
+     * Returns the combined and minified content.<p>
+     * 
+     * @return the combined and minified content
+     */
+    public String getContent() {
+
+        return m_content;
+    }
+
+    /**
+     * Returns the hash of the content.<p>
+     * 
+     * @return the hash of the content
+     */
+    public String getHash() {
+
+        return m_hash;
+    }
+
+    /**
+     * Returns the versioned name of the bundle, containing the hash of the content.<p>
+     * 
+     * @return the versioned name of the bundle
+     */
+    public String getName() {
+
+        return "bundle_" + m_hash + ".css";
+    }
+
+    /**
+     * Returns the paths of the combined stylesheets.<p>
+     * 
+     * @return the paths of the combined stylesheets
+     */
+    public List getPaths() {
+
+        return m_paths;
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software GmbH, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package org.opencms.frontend.templatetwo;
+
+import org.opencms.file.CmsObject;
+import org.opencms.main.CmsEvent;
+import org.opencms.main.I_CmsEventListener;
+import org.opencms.main.OpenCms;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caches the stylesheet bundles of template two.<p>
+ * 
+ * The bundles are keyed by the project type, the site root and the paths of the combined stylesheets. 
+ * Offline bundles are removed if any resource is modified, online bundles are removed on publish.<p>
+ * 
+ * @since 8.0.2
+ */
+public final class CmsStylesheetBundleCache implements I_CmsEventListener {
+
+    /** The key prefix for offline bundles. */
+    private static final String KEY_OFFLINE = "offline_";
+
+    /** The key prefix for online bundles. */
+    private static final String KEY_ONLINE = "online_";
+
+    /** The singleton instance. */
+    private static CmsStylesheetBundleCache m_instance;
+
+    /** The map of cached bundles. */
+    private Map m_bundles;
+
+    /**
+     * Hidden constructor.<p>
+     */
+    private CmsStylesheetBundleCache() {
+
+        m_bundles = new ConcurrentHashMap();
+        // add an event listener to remove outdated bundles
+        OpenCms.addCmsEventListener(this, new int[] {
+            I_CmsEventListener.EVENT_CLEAR_CACHES,
+            I_CmsEventListener.EVENT_CLEAR_ONLINE_CACHES,
+            I_CmsEventListener.EVENT_CLEAR_OFFLINE_CACHES,
+            I_CmsEventListener.EVENT_PUBLISH_PROJECT,
+            I_CmsEventListener.EVENT_RESOURCE_MODIFIED,
+            I_CmsEventListener.EVENT_RESOURCE_AND_PROPERTIES_MODIFIED,
+            I_CmsEventListener.EVENT_RESOURCES_MODIFIED,
+            I_CmsEventListener.EVENT_RESOURCES_AND_PROPERTIES_MODIFIED,
+            I_CmsEventListener.EVENT_RESOURCE_DELETED,
+            I_CmsEventListener.EVENT_RESOURCE_MOVED});
+    }
+
+    /**
+     * Returns the singleton instance of the stylesheet bundle cache.<p>
+     * 
+     * @return the singleton instance of the stylesheet bundle cache
+     */
+    public static synchronized CmsStylesheetBundleCache getInstance() {
+
+        if (m_instance == null) {
+            m_instance = new CmsStylesheetBundleCache();
+        }
+        return m_instance;
+    }
+
+    /**
+     * @see org.opencms.main.I_CmsEventListener#cmsEvent(org.opencms.main.CmsEvent)
+     */
+    public void cmsEvent(CmsEvent event) {
+
+        switch (event.getType()) {
+            case I_CmsEventListener.EVENT_PUBLISH_PROJECT:
+            case I_CmsEventListener.EVENT_CLEAR_ONLINE_CACHES:
+                removeBundles(KEY_ONLINE);
+                break;
+            case I_CmsEventListener.EVENT_CLEAR_CACHES:
+                m_bundles.clear();
+                break;
+            default:
+                // modified stylesheets are not known, remove all offline bundles
+                removeBundles(KEY_OFFLINE);
+                break;
+        }
+    }
+
+    /**
+     * Returns the bundle of the stylesheets at the given paths.<p>
+     * 
+     * If the bundle is not cached, it is created from the stylesheets in the VFS.<p>
+     * 
+     * @param cms the current users OpenCms context
+     * @param paths the paths of the stylesheets to combine, in the order of inclusion
+     * 
+     * @return the bundle of the stylesheets at the given paths
+     * 
+     * @throws IOException if reading a stylesheet fails
+     */
+    public CmsStylesheetBundle getBundle(CmsObject cms, List paths) throws IOException {
+
+        StringBuffer key = new StringBuffer(256);
+        key.append(cms.getRequestContext().getCurrentProject().isOnlineProject() ? KEY_ONLINE : KEY_OFFLINE);
+        key.append(cms.getRequestContext().getSiteRoot());
+        for (int i = 0; i < paths.size(); i++) {
+            key.append('|').append(paths.get(i));
+        }
+        CmsStylesheetBundle result = (CmsStylesheetBundle)m_bundles.get(key.toString());
+        if (result == null) {
+            result = CmsStylesheetBundler.createBundle(paths, new CmsVfsStylesheetSource(cms));
+            m_bundles.put(key.toString(), result);
+        }
+        return result;
+    }
+
+    /**
+     * Removes all cached bundles with keys starting with the given prefix.<p>
+     * 
+     * @param prefix the key prefix
+     */
+    private void removeBundles(String prefix) {
+
+        Iterator i = m_bundles.keySet().iterator();
+        while (i.hasNext()) {
+            if (((String)i.next()).startsWith(prefix)) {
+                i.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software GmbH, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package org.opencms.frontend.templatetwo;
+
+import org.opencms.file.CmsResource;
+import org.opencms.staticexport.CmsLinkManager;
+
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Produces stylesheet bundles by combining and minifying several stylesheets.<p>
+ * 
+ * Relative URLs in the stylesheets are made absolute, because the bundle is delivered 
+ * from a different location than the combined stylesheets.<p>
+ * 
+ * @since 8.0.2
+ */
+public final class CmsStylesheetBundler {
+
+    /** Characters that do not require surrounding white space. */
+    private static final String SEPARATORS = "{};,>";
+
+    /** Pattern matching the URL references of a stylesheet. */
+    private static final Pattern URL_PATTERN = Pattern.compile("url\\(\\s*(['\"]?)([^'\"\\)]+)\\1\\s*\\)");
+
+    /**
+     * Hidden constructor.<p>
+     */
+    private CmsStylesheetBundler() {
+
+        // noop
+    }
+
+    /**
+     * Creates the bundle of the stylesheets at the given paths.<p>
+     * 
+     * @param paths the paths of the stylesheets to combine, in the order of inclusion
+     * @param source the source to read the stylesheets from
+     * 
+     * @return the stylesheet bundle
+     * 
+     * @throws IOException if reading a stylesheet fails
+     */
+    public static CmsStylesheetBundle createBundle(List paths, I_CmsStylesheetSource source) throws IOException {
+
+        StringBuffer content = new StringBuffer(4096);
+        for (int i = 0; i < paths.size(); i++) {
+            String path = (String)paths.get(i);
+            String css = rewriteUrls(source.getContent(path), path, source);
+            content.append(minify(css));
+            content.append('\n');
+        }
+        String result = content.toString();
+        return new CmsStylesheetBundle(new ArrayList(paths), result, getHash(result));
+    }
+
+    /**
+     * Returns the hexadecimal MD5 hash of the given content.<p>
+     * 
+     * @param content the content to hash
+     * 
+     * @return the hexadecimal MD5 hash of the given content
+     */
+    public static String getHash(String content) {
+
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(content.getBytes("UTF-8"));
+            StringBuffer result = new StringBuffer(digest.length * 2);
+            for (int i = 0; i < digest.length; i++) {
+                int b = digest[i] & 0xff;
+                if (b < 0x10) {
+                    result.append('0');
+                }
+                result.append(Integer.toHexString(b));
+            }
+            return result.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // MD5 is provided by every Java runtime
+            throw new RuntimeException(e);
+        } catch (UnsupportedEncodingException e) {
+            // UTF-8 is provided by every Java runtime
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Minifies the given stylesheet.<p>
+     * 
+     * Removes comments and collapses white space, white space around separators is removed completely.
+     * Strings are copied unchanged.<p>
+     * 
+     * @param css the stylesheet to minify
+     * 
+     * @return the minified stylesheet
+     */
+    public static String minify(String css) {
+
+        int length = css.length();
+        StringBuffer result = new StringBuffer(length);
+        boolean space = false;
+        int i = 0;
+        while (i < length) {
+            char c = css.charAt(i);
+            if ((c == '/') && (i + 1 < length) && (css.charAt(i + 1) == '*')) {
+                // skip the comment
+                int end = css.indexOf("*/", i + 2);
+                i = (end < 0) ? length : end + 2;
+                space = true;
+                continue;
+            }
+            if (Character.isWhitespace(c)) {
+                space = true;
+                i++;
+                continue;
+            }
+            if (space) {
+                space = false;
+                int last = result.length() - 1;
+                if ((last >= 0)
+                    && (SEPARATORS.indexOf(result.charAt(last)) < 0)
+                    && (result.charAt(last) != ':')
+                    && (SEPARATORS.indexOf(c) < 0)) {
+                    result.append(' ');
+                }
+            }
+            if ((c == '"') || (c == '\'')) {
+                // copy the string unchanged
+                int end = i + 1;
+                while ((end < length) && (css.charAt(end) != c)) {
+                    if (css.charAt(end) == '\\') {
+                        end++;
+                    }
+                    end++;
+                }
+                end = Math.min(end + 1, length);
+                result.append(css.substring(i, end));
+                i = end;
+                continue;
+            }
+            result.append(c);
+            i++;
+        }
+        return result.toString();
+    }
+
+    /**
+     * Makes the relative URLs of the given stylesheet absolute.<p>
+     * 
+     * @param css the stylesheet
+     * @param path the path of the stylesheet
+     * @param source the source that provides the links for the absolute URLs
+     * 
+     * @return the stylesheet with absolute URLs
+     */
+    public static String rewriteUrls(String css, String path, I_CmsStylesheetSource source) {
+
+        String folder = CmsResource.getFolderPath(path);
+        Matcher matcher = URL_PATTERN.matcher(css);
+        StringBuffer result = new StringBuffer(css.length() + 128);
+        while (matcher.find()) {
+            String url = matcher.group(2).trim();
+            if (!url.startsWith("/") && (url.indexOf(':') < 0)) {
+                // neither absolute nor with scheme, e.g. "http:" or "data:"
+                url = source.getLink(CmsLinkManager.getAbsoluteUri(url, folder));
+            }
+            matcher.appendReplacement(result, Matcher.quoteReplacement("url(" + url + ")"));
+        }
+        matcher.appendTail(result);
+        return result.toString();
+    }
+}
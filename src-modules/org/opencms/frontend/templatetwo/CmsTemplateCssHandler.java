@@ -84,8 +84,10 @@ public class CmsTemplateCssHandler implements I_CmsEditorCssHandler {
         // determine the path of the template
         String templatePath = "";
         try {
-            templatePath = cms.readPropertyObject(editedResourcePath, CmsPropertyDefinition.PROPERTY_TEMPLATE, true).getValue(
-                "");
+            templatePath = CmsFolderPropertyCache.getInstance().getValue(
+                cms,
+                editedResourcePath,
+                CmsPropertyDefinition.PROPERTY_TEMPLATE);
         } catch (CmsException e) {
             if (LOG.isWarnEnabled()) {
                 LOG.warn(Messages.get().getBundle().key(Messages.LOG_READ_TEMPLATE_PROP_FAILED_0), e);
@@ -101,23 +103,24 @@ public class CmsTemplateCssHandler implements I_CmsEditorCssHandler {
     /**
      * Returns the URI of the style file.<p>
      * 
+     * The style property of the folders is cached by the {@link CmsFolderPropertyCache}.<p>
+     * 
      * @param cms the current OpenCms user context
      * @param editedResourcePath the absolute VFS path of the currently edited resource
      * @return the URI of the CSS style sheet configuration file
      */
     protected String getStyleUri(CmsObject cms, String editedResourcePath) {
 
-        String originalUri = cms.getRequestContext().getUri();
         String styleUri = null;
         try {
-            cms.getRequestContext().setUri(editedResourcePath);
-            styleUri = cms.readPropertyObject(editedResourcePath, CmsTemplateLayout.PROPERTY_STYLE, true).getValue("");
+            styleUri = CmsFolderPropertyCache.getInstance().getValue(
+                cms,
+                editedResourcePath,
+                CmsTemplateLayout.PROPERTY_STYLE);
         } catch (CmsException e) {
             if (LOG.isWarnEnabled()) {
                 // TODO
             }
-        } finally {
-            cms.getRequestContext().setUri(originalUri);
         }
         return styleUri;
     }
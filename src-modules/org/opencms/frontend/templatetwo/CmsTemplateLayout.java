@@ -42,6 +42,7 @@ import org.opencms.workplace.CmsWorkplace;
 import org.opencms.xml.content.CmsXmlContent;
 import org.opencms.xml.content.CmsXmlContentFactory;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -114,9 +115,12 @@ public class CmsTemplateLayout extends CmsJspActionElement {
     /** The log object for this class. */
     private static final Log LOG = CmsLog.getLog(CmsTemplateLayout.class);
 
-    /** The resource with the configuration. */
+    /** The resource with the configuration, only set while the layout is resolved. */
     private CmsXmlContent m_config;
 
+    /** The site path of the configuration file. */
+    private String m_configPath;
+
     /** Xml content with the values for the options. */
     private CmsJspContentAccessBean m_options;
 
@@ -135,6 +139,9 @@ public class CmsTemplateLayout extends CmsJspActionElement {
     /** The path to the style configuration file. */
     private String m_stylePath;
 
+    /** The bundle of the stylesheets to include in the template. */
+    private CmsStylesheetBundle m_stylesheetBundle;
+
     /** Lazy map with the values for the style. */
     private Map m_styleValue;
 
@@ -188,11 +195,7 @@ public class CmsTemplateLayout extends CmsJspActionElement {
      */
     public String getConfigPath() {
 
-        if (m_config != null) {
-            return getCmsObject().getSitePath(m_config.getFile());
-        }
-
-        return null;
+        return m_configPath;
     }
 
     /**
@@ -262,6 +265,29 @@ public class CmsTemplateLayout extends CmsJspActionElement {
         return m_stylePath;
     }
 
+    /**
+     * Returns the bundle of the css stylesheet files to include in the template.<p>
+     * 
+     * The bundle combines the minified stylesheets returned by {@link #getStylesheets()} and is 
+     * shared between requests by the {@link CmsStylesheetBundleCache}.<p>
+     * 
+     * @return the bundle of the css stylesheet files, or <code>null</code> if the bundle could not be created
+     */
+    public CmsStylesheetBundle getStylesheetBundle() {
+
+        if (m_stylesheetBundle == null) {
+            try {
+                m_stylesheetBundle = CmsStylesheetBundleCache.getInstance().getBundle(getCmsObject(), getStylesheets());
+            } catch (IOException e) {
+                // problem reading a stylesheet, log error
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug(e.getMessage(), e);
+                }
+            }
+        }
+        return m_stylesheetBundle;
+    }
+
     /**
      * Returns a list with css stylesheet files to include in the template.<p>
      * 
@@ -334,25 +360,27 @@ public class CmsTemplateLayout extends CmsJspActionElement {
 
         super.init(context, req, res);
 
+        // the layout resolution is identical for all requests to the current page
+        CmsTemplateLayoutCache cache = CmsTemplateLayoutCache.getInstance();
+        CmsTemplateLayoutResolution resolution = cache.getResolution(getCmsObject());
+        if (resolution == null) {
+            resolution = resolveLayout();
+            cache.putResolution(getCmsObject(), resolution);
+        }
+
         // preset
         try {
 
             m_presetPath = req.getParameter(PARAM_PRESET);
             if (m_presetPath == null) {
 
-                // init configuration
-                initConfig();
+                // use the resolved configuration
+                m_configPath = resolution.getConfigPath();
+                m_presetPath = resolution.getPresetPath();
             }
 
             if (CmsStringUtil.isNotEmptyOrWhitespaceOnly(m_presetPath)) {
-                CmsResource preset = getCmsObject().readResource(
-                    getCmsObject().getRequestContext().removeSiteRoot(m_presetPath),
-                    CmsResourceFilter.IGNORE_EXPIRATION);
-
-                Locale locale = OpenCms.getLocaleManager().getDefaultLocale(
-                    getCmsObject(),
-                    getCmsObject().getSitePath(preset));
-                m_preset = new CmsJspContentAccessBean(getCmsObject(), locale, preset);
+                m_preset = createContentAccessBean(m_presetPath);
             }
         } catch (Exception e) {
             // problem reading preset, log error
@@ -365,17 +393,10 @@ public class CmsTemplateLayout extends CmsJspActionElement {
         try {
             m_stylePath = req.getParameter(PARAM_STYLE);
             if (CmsStringUtil.isEmptyOrWhitespaceOnly(m_stylePath)) {
-                m_stylePath = property(PROPERTY_STYLE, "search");
+                m_stylePath = resolution.getStylePath();
             }
 
-            CmsResource style = getCmsObject().readResource(
-                getCmsObject().getRequestContext().removeSiteRoot(m_stylePath),
-                CmsResourceFilter.IGNORE_EXPIRATION);
-
-            Locale locale = OpenCms.getLocaleManager().getDefaultLocale(
-                getCmsObject(),
-                getCmsObject().getSitePath(style));
-            m_style = new CmsJspContentAccessBean(getCmsObject(), locale, style);
+            m_style = createContentAccessBean(m_stylePath);
         } catch (Exception e) {
             // problem reading preset, log error
             if (LOG.isDebugEnabled()) {
@@ -385,17 +406,10 @@ public class CmsTemplateLayout extends CmsJspActionElement {
 
         // options
         try {
-            String optionsPath = property(PROPERTY_OPTIONS, "search");
+            String optionsPath = resolution.getOptionsPath();
 
             if (CmsStringUtil.isNotEmptyOrWhitespaceOnly(optionsPath)) {
-                CmsResource options = getCmsObject().readResource(
-                    getCmsObject().getRequestContext().removeSiteRoot(optionsPath),
-                    CmsResourceFilter.IGNORE_EXPIRATION);
-
-                Locale locale = OpenCms.getLocaleManager().getDefaultLocale(
-                    getCmsObject(),
-                    getCmsObject().getSitePath(options));
-                m_options = new CmsJspContentAccessBean(getCmsObject(), locale, options);
+                m_options = createContentAccessBean(optionsPath);
             }
 
         } catch (Exception e) {
@@ -436,6 +450,30 @@ public class CmsTemplateLayout extends CmsJspActionElement {
         return m_style;
     }
 
+    /**
+     * Creates a content access bean for the XML content at the given path.<p>
+     * 
+     * The unmarshalled content is shared between requests by the {@link CmsTemplateLayoutCache}.<p>
+     * 
+     * @param path the path of the XML content
+     * 
+     * @return the content access bean for the XML content at the given path
+     * 
+     * @throws CmsException if reading the XML content fails
+     */
+    private CmsJspContentAccessBean createContentAccessBean(String path) throws CmsException {
+
+        CmsResource resource = getCmsObject().readResource(
+            getCmsObject().getRequestContext().removeSiteRoot(path),
+            CmsResourceFilter.IGNORE_EXPIRATION);
+
+        Locale locale = OpenCms.getLocaleManager().getDefaultLocale(
+            getCmsObject(),
+            getCmsObject().getSitePath(resource));
+        CmsXmlContent content = CmsTemplateLayoutCache.getInstance().getContent(getCmsObject(), resource);
+        return new CmsJspContentAccessBean(getCmsObject(), locale, content);
+    }
+
     /**
      * Returns the preset path set in the given xml content.<p>
      * 
@@ -548,4 +586,26 @@ public class CmsTemplateLayout extends CmsJspActionElement {
         return;
     }
 
+    /**
+     * Resolves the configuration, preset, style and options paths of the current page.<p>
+     * 
+     * @return the layout resolution of the current page
+     */
+    private CmsTemplateLayoutResolution resolveLayout() {
+
+        m_config = null;
+        m_presetPath = null;
+        initConfig();
+        String configPath = null;
+        if (m_config != null) {
+            configPath = getCmsObject().getSitePath(m_config.getFile());
+        }
+        CmsTemplateLayoutResolution result = new CmsTemplateLayoutResolution(
+            configPath,
+            m_presetPath,
+            property(PROPERTY_STYLE, "search"),
+            property(PROPERTY_OPTIONS, "search"));
+        m_config = null;
+        return result;
+    }
 }
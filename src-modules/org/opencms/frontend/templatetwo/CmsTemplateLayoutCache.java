@@ -0,0 +1,239 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software GmbH, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package org.opencms.frontend.templatetwo;
+
+import org.opencms.file.CmsObject;
+import org.opencms.file.CmsResource;
+import org.opencms.main.CmsEvent;
+import org.opencms.main.CmsException;
+import org.opencms.main.I_CmsEventListener;
+import org.opencms.main.OpenCms;
+import org.opencms.util.CmsCollectionsGenericWrapper;
+import org.opencms.xml.content.CmsXmlContent;
+import org.opencms.xml.content.CmsXmlContentFactory;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Caches the layout resolutions of the pages of template two and the unmarshalled 
+ * preset, style and options contents.<p>
+ * 
+ * Resolutions are keyed by the project type, the site root, the page URI and the locale. They depend on 
+ * the properties of the page and its parent folders and on the contents of the configuration files, so 
+ * all offline resolutions are removed if any resource or property is modified, and all online resolutions 
+ * are removed on publish. Contents are additionally keyed by the date of last modification of the 
+ * content resource.<p>
+ * 
+ * Both caches are limited in size, the least recently used entries are removed first.<p>
+ * 
+ * The cached resolutions and contents are shared between all requests and must not be modified.<p>
+ * 
+ * @since 8.0.2
+ */
+public final class CmsTemplateLayoutCache implements I_CmsEventListener {
+
+    /** The maximum number of cached contents. */
+    private static final int CONTENTS_CACHE_SIZE = 256;
+
+    /** The key prefix for offline entries. */
+    private static final String KEY_OFFLINE = "offline_";
+
+    /** The key prefix for online entries. */
+    private static final String KEY_ONLINE = "online_";
+
+    /** The maximum number of cached layout resolutions. */
+    private static final int RESOLUTIONS_CACHE_SIZE = 2048;
+
+    /** The singleton instance. */
+    private static CmsTemplateLayoutCache m_instance;
+
+    /** The map of cached contents. */
+    private Map m_contents;
+
+    /** The map of cached layout resolutions. */
+    private Map m_resolutions;
+
+    /**
+     * Hidden constructor.<p>
+     */
+    private CmsTemplateLayoutCache() {
+
+        m_contents = Collections.synchronizedMap(CmsCollectionsGenericWrapper.createLRUMap(CONTENTS_CACHE_SIZE));
+        m_resolutions = Collections.synchronizedMap(CmsCollectionsGenericWrapper.createLRUMap(RESOLUTIONS_CACHE_SIZE));
+        // add an event listener to remove outdated entries
+        OpenCms.addCmsEventListener(this, new int[] {
+            I_CmsEventListener.EVENT_CLEAR_CACHES,
+            I_CmsEventListener.EVENT_CLEAR_ONLINE_CACHES,
+            I_CmsEventListener.EVENT_CLEAR_OFFLINE_CACHES,
+            I_CmsEventListener.EVENT_PUBLISH_PROJECT,
+            I_CmsEventListener.EVENT_PROPERTY_MODIFIED,
+            I_CmsEventListener.EVENT_RESOURCE_MODIFIED,
+            I_CmsEventListener.EVENT_RESOURCE_AND_PROPERTIES_MODIFIED,
+            I_CmsEventListener.EVENT_RESOURCES_MODIFIED,
+            I_CmsEventListener.EVENT_RESOURCES_AND_PROPERTIES_MODIFIED,
+            I_CmsEventListener.EVENT_RESOURCE_DELETED,
+            I_CmsEventListener.EVENT_RESOURCE_MOVED});
+    }
+
+    /**
+     * Returns the singleton instance of the template layout cache.<p>
+     * 
+     * @return the singleton instance of the template layout cache
+     */
+    public static synchronized CmsTemplateLayoutCache getInstance() {
+
+        if (m_instance == null) {
+            m_instance = new CmsTemplateLayoutCache();
+        }
+        return m_instance;
+    }
+
+    /**
+     * @see org.opencms.main.I_CmsEventListener#cmsEvent(org.opencms.main.CmsEvent)
+     */
+    public void cmsEvent(CmsEvent event) {
+
+        switch (event.getType()) {
+            case I_CmsEventListener.EVENT_PUBLISH_PROJECT:
+            case I_CmsEventListener.EVENT_CLEAR_ONLINE_CACHES:
+                removeEntries(KEY_ONLINE);
+                break;
+            case I_CmsEventListener.EVENT_CLEAR_CACHES:
+                m_contents.clear();
+                m_resolutions.clear();
+                break;
+            case I_CmsEventListener.EVENT_CLEAR_OFFLINE_CACHES:
+                removeEntries(KEY_OFFLINE);
+                break;
+            default:
+                // a modified property or resource may change the resolution of every page below it
+                removeEntries(KEY_OFFLINE);
+                break;
+        }
+    }
+
+    /**
+     * Returns the shared unmarshalled XML content of the given resource.<p>
+     * 
+     * @param cms the current users OpenCms context
+     * @param resource the XML content resource
+     * 
+     * @return the shared unmarshalled XML content
+     * 
+     * @throws CmsException if reading or unmarshalling the content fails
+     */
+    public CmsXmlContent getContent(CmsObject cms, CmsResource resource) throws CmsException {
+
+        StringBuffer key = new StringBuffer(128);
+        key.append(getProjectPrefix(cms));
+        key.append(resource.getRootPath());
+        key.append('_');
+        key.append(resource.getDateLastModified());
+        CmsXmlContent result = (CmsXmlContent)m_contents.get(key.toString());
+        if (result == null) {
+            result = CmsXmlContentFactory.unmarshal(cms, cms.readFile(resource));
+            m_contents.put(key.toString(), result);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the cached layout resolution of the current page.<p>
+     * 
+     * @param cms the current users OpenCms context
+     * 
+     * @return the cached layout resolution, or <code>null</code> if the current page was not resolved yet
+     */
+    public CmsTemplateLayoutResolution getResolution(CmsObject cms) {
+
+        return (CmsTemplateLayoutResolution)m_resolutions.get(getResolutionKey(cms));
+    }
+
+    /**
+     * Caches the layout resolution of the current page.<p>
+     * 
+     * @param cms the current users OpenCms context
+     * @param resolution the layout resolution of the current page
+     */
+    public void putResolution(CmsObject cms, CmsTemplateLayoutResolution resolution) {
+
+        m_resolutions.put(getResolutionKey(cms), resolution);
+    }
+
+    /**
+     * Returns the key prefix for the project of the given context.<p>
+     * 
+     * @param cms the current users OpenCms context
+     * 
+     * @return the key prefix for the project of the given context
+     */
+    private String getProjectPrefix(CmsObject cms) {
+
+        return cms.getRequestContext().getCurrentProject().isOnlineProject() ? KEY_ONLINE : KEY_OFFLINE;
+    }
+
+    /**
+     * Returns the key for the layout resolution of the current page.<p>
+     * 
+     * @param cms the current users OpenCms context
+     * 
+     * @return the key for the layout resolution of the current page
+     */
+    private String getResolutionKey(CmsObject cms) {
+
+        StringBuffer key = new StringBuffer(128);
+        key.append(getProjectPrefix(cms));
+        key.append(cms.getRequestContext().getSiteRoot());
+        key.append('_');
+        key.append(cms.getRequestContext().getUri());
+        key.append('_');
+        key.append(cms.getRequestContext().getLocale());
+        return key.toString();
+    }
+
+    /**
+     * Removes all cached resolutions and contents with keys starting with the given prefix.<p>
+     * 
+     * @param prefix the key prefix
+     */
+    private void removeEntries(String prefix) {
+
+        Map[] maps = {m_resolutions, m_contents};
+        for (int m = 0; m < maps.length; m++) {
+            synchronized (maps[m]) {
+                Iterator i = maps[m].keySet().iterator();
+                while (i.hasNext()) {
+                    if (((String)i.next()).startsWith(prefix)) {
+                        i.remove();
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software GmbH, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package org.opencms.frontend.templatetwo;
+
+/**
+ * The resolved layout configuration of a page of template two.<p>
+ * 
+ * Holds the paths of the configuration, the preset, the style and the options found for a page
+ * by the parent folder, property and configuration file lookup of {@link CmsTemplateLayout}.
+ * The resolution is shared between requests by the {@link CmsTemplateLayoutCache}.<p>
+ * 
+ * @since 8.0.2
+ */
+public final class CmsTemplateLayoutResolution {
+
+    /** The site path of the configuration file, or <code>null</code>. */
+    private String m_configPath;
+
+    /** The path of the options, or <code>null</code>. */
+    private String m_optionsPath;
+
+    /** The path of the preset, or <code>null</code>. */
+    private String m_presetPath;
+
+    /** The path of the style, or <code>null</code>. */
+    private String m_stylePath;
+
+    /**
+     * Constructor, with parameters.<p>
+     * 
+     * @param configPath the site path of the configuration file
+     * @param presetPath the path of the preset
+     * @param stylePath the path of the style
+     * @param optionsPath the path of the options
+     */
+    public CmsTemplateLayoutResolution(String configPath, String presetPath, String stylePath, String optionsPath) {
+
+        m_configPath = configPath;
+        m_presetPath = presetPath;
+        m_stylePath = stylePath;
+        m_optionsPath = optionsPath;
+    }
+
+    /**
+     * Returns the site path of the configuration file.<p>
+     * 
+     * @return the site path of the configuration file, or <code>null</code> if no configuration was found
+     */
+    public String getConfigPath() {
+
+        return m_configPath;
+    }
+
+    /**
+     * Returns the path of the options.<p>
+     * 
+     * @return the path of the options, or <code>null</code> if no options are set
+     */
+    public String getOptionsPath() {
+
+        return m_optionsPath;
+    }
+
+    /**
+     * Returns the path of the preset.<p>
+     * 
+     * @return the path of the preset, or <code>null</code> if no preset was found
+     */
+    public String getPresetPath() {
+
+        return m_presetPath;
+    }
+
+    /**
+     * Returns the path of the style.<p>
+     * 
+     * @return the path of the style, or <code>null</code> if no style is set
+     */
+    public String getStylePath() {
+
+        return m_stylePath;
+    }
+}
@@ -45,12 +45,17 @@ import javax.servlet.http.HttpServletResponse;
 import javax.servlet.jsp.PageContext;
 
 import org.apache.commons.collections.Transformer;
+import org.apache.commons.collections.TransformerUtils;
 import org.apache.commons.collections.map.LazyMap;
 import org.apache.commons.logging.Log;
 
 /**
  * Helper class to build a menu navigation with ul and li.<p>
  * 
+ * The state of the menu elements (has children, is current, is in the current path) is computed for 
+ * all elements in a single pass over the element list, the properties of the current uri and its 
+ * parent folders are read only once per menu.<p>
+ * 
  * @since 7.0.4
  */
 public class CmsTemplateMenu extends CmsJspActionElement {
@@ -58,18 +63,33 @@ public class CmsTemplateMenu extends CmsJspActionElement {
     /** The log object for this class. */
     private static final Log LOG = CmsLog.getLog(CmsTemplateMenu.class);
 
-    /** Lazy map with the flags if the elements of the navigation have children. */
+    /** Map with the flags if the elements of the navigation have children. */
     private Map m_children;
 
-    /** Lazy map with the current elements of the navigation. */
+    /** Map with the flags if the elements of the navigation are current. */
     private Map m_current;
 
     /** The list with the elements of the menu. */
     private List m_elements;
 
+    /** Map with the flags if the elements of the navigation are in the path of the current uri. */
+    private Map m_inPath;
+
+    /** The flag if the current uri is a default file of a folder. */
+    private Boolean m_isDefault;
+
     /** Lazy map with the navigation text of the elements. */
     private Map m_navText;
 
+    /** The current uri. */
+    private String m_uri;
+
+    /** The navigation element of the current uri. */
+    private CmsJspNavElement m_uriElement;
+
+    /** The closest navigation element of the parent folders if the current uri is not in the navigation. */
+    private CmsJspNavElement m_uriNavParent;
+
     /**
      * Empty constructor, required for every JavaBean.<p>
      */
@@ -104,139 +124,93 @@ public class CmsTemplateMenu extends CmsJspActionElement {
     }
 
     /**
-     * Returns a lazy initialized map that provides the current elements as a key in the Map.<p> 
+     * Returns a map that provides the flags if the elements of the navigation have children.<p> 
      * 
-     * @return a lazy initialized map
+     * @return a map with the navigation elements as keys
      */
     public Map getHasChildren() {
 
-        if (m_children == null) {
-            m_children = LazyMap.decorate(new HashMap(), new Transformer() {
-
-                /**
-                 * @see org.apache.commons.collections.Transformer#transform(java.lang.Object)
-                 */
-                public Object transform(Object input) {
-
-                    CmsJspNavElement elem = (CmsJspNavElement)input;
-
-                    int currentLevel = elem.getNavTreeLevel();
-                    int index = getElements().indexOf(elem);
-
-                    if (index < getElements().size() - 1) {
-                        CmsJspNavElement next = (CmsJspNavElement)getElements().get(index + 1);
-                        if (next.getNavTreeLevel() > currentLevel) {
-                            return new Boolean(true);
-                        }
-                    }
-
-                    return new Boolean(false);
-                }
-            });
-        }
+        initMenuState();
         return m_children;
     }
 
     /**
-     * Returns a lazy initialized map that provides the current elements as a key in the Map.<p> 
+     * Returns a map that provides the flags if the elements of the navigation are current.<p> 
      * 
-     * @return a lazy initialized map
+     * @return a map with the navigation elements as keys
      */
     public Map getIsCurrent() {
 
-        if (m_current == null) {
-            m_current = LazyMap.decorate(new HashMap(), new Transformer() {
-
-                /** The log object for this class. */
-                private final Log LOGG = CmsLog.getLog(CmsTemplateMenu.class);
-
-                /**
-                 * @see org.apache.commons.collections.Transformer#transform(java.lang.Object)
-                 */
-                public Object transform(Object input) {
-
-                    CmsJspNavElement elem = (CmsJspNavElement)input;
-
-                    String uri = getCmsObject().getRequestContext().getUri();
-                    CmsJspNavElement uriElem = null;
-                    try {
-                        uriElem = new CmsJspNavElement(uri, CmsProperty.toMap(getCmsObject().readPropertyObjects(
-                            uri,
-                            false)));
-                    } catch (CmsException e) {
-                        // noop
-                        LOGG.debug(e.getLocalizedMessage(), e);
-                    }
+        initMenuState();
+        return m_current;
+    }
 
-                    // check if uri matches resource name
-                    if (elem.getResourceName().equals(uri)) {
-                        return Boolean.TRUE;
-                    }
+    /** 
+     * Returns if the current uri is a default file of a folder.<p>
+     * 
+     * @return if the current uri is a default file of a folder
+     */
+    public boolean getIsDefault() {
 
-                    // check if the default file for the uri matches the resource name
-                    String path = null;
-                    try {
-                        CmsResource resource = getCmsObject().readDefaultFile(elem.getResourceName());
-                        path = getCmsObject().getSitePath(resource);
-                    } catch (CmsException e) {
-                        // resource not found or not enough permissions
-                        LOGG.debug(e.getLocalizedMessage(), e);
-                    }
-                    if ((path == null) || ((uriElem != null) && uriElem.isInNavigation())) {
-                        path = elem.getResourceName();
-                    }
+        if (m_isDefault == null) {
+            String path = readDefaultFilePath(getRequestContext().getUri());
+            m_isDefault = Boolean.valueOf((path != null) && path.equals(getRequestContext().getUri()));
+        }
+        return m_isDefault.booleanValue();
+    }
 
-                    if (uri.equals(path)) {
-                        return Boolean.TRUE;
-                    }
+    /**
+     * Returns a map that provides the flags if the elements of the navigation are in the path of the current uri.<p> 
+     * 
+     * @return a map with the navigation elements as keys
+     */
+    public Map getIsInPath() {
 
-                    // check if uri is in NOT in the navigation and so a parent folder will be marked as current
-                    CmsJspNavElement navElem = uriElem;
-                    while ((navElem != null) && !navElem.isInNavigation()) {
-
-                        String parentPath = CmsResource.getParentFolder(navElem.getResourceName());
-                        if (parentPath == null) {
-                            break;
-                        }
-                        try {
-                            navElem = new CmsJspNavElement(
-                                parentPath,
-                                CmsProperty.toMap(getCmsObject().readPropertyObjects(parentPath, false)));
-                        } catch (CmsException ex) {
-                            break;
-                        }
-                    }
+        initMenuState();
+        return m_inPath;
+    }
 
-                    if ((navElem != null) && (uriElem != null) && !uriElem.isInNavigation()) {
-                        return Boolean.valueOf(elem.equals(navElem));
-                    }
+    /**
+     * Returns the navigation elements of the given folder.<p>
+     * 
+     * For guests in the online project, the elements are read from the shared navigation snapshot of the 
+     * current site if available, see {@link CmsNavigationSnapshotManager}. The elements of the snapshot are 
+     * shared between all requests, they must not be modified.<p>
+     * 
+     * @param folder the site path of the folder
+     * 
+     * @return a list of {@link CmsJspNavElement} objects
+     */
+    public List getNavigationForFolder(String folder) {
 
-                    return Boolean.FALSE;
-                }
-            });
+        CmsNavigationSnapshot snapshot = CmsNavigationSnapshotManager.getInstance().getSnapshot(getCmsObject());
+        List result = (snapshot != null) ? snapshot.getNavigationForFolder(folder) : null;
+        if (result == null) {
+            result = getNavigation().getNavigationForFolder(folder);
         }
-        return m_current;
+        return result;
     }
 
-    /** 
-     * Returns if the current uri is a default file of a folder.<p>
+    /**
+     * Returns the navigation tree of the given folder.<p>
      * 
-     * @return if the current uri is a default file of a folder
+     * For guests in the online project, the elements are read from the shared navigation snapshot of the 
+     * current site if available, see {@link CmsNavigationSnapshotManager}.<p>
+     * 
+     * @param folder the site path of the folder
+     * @param startlevel the start level of the navigation
+     * @param endlevel the end level of the navigation
+     * 
+     * @return a list of {@link CmsJspNavElement} objects
      */
-    public boolean getIsDefault() {
+    public List getNavigationTreeForFolder(String folder, int startlevel, int endlevel) {
 
-        String path = null;
-        try {
-            CmsResource resource = getCmsObject().readDefaultFile(getRequestContext().getUri());
-            path = getCmsObject().getSitePath(resource);
-        } catch (CmsException e) {
-            // resource not found or not enough permissions
-            LOG.debug(e.getLocalizedMessage(), e);
-        }
-        if (path != null) {
-            return path.equals(getRequestContext().getUri());
+        CmsNavigationSnapshot snapshot = CmsNavigationSnapshotManager.getInstance().getSnapshot(getCmsObject());
+        List result = (snapshot != null) ? snapshot.getNavigationTreeForFolder(folder, startlevel, endlevel) : null;
+        if (result == null) {
+            result = getNavigation().getNavigationTreeForFolder(folder, startlevel, endlevel);
         }
-        return false;
+        return result;
     }
 
     /**
@@ -268,6 +242,28 @@ public class CmsTemplateMenu extends CmsJspActionElement {
         return m_navText;
     }
 
+    /**
+     * Returns the site navigation below the given folder.<p>
+     * 
+     * For guests in the online project, the elements are read from the shared navigation snapshot of the 
+     * current site if available, see {@link CmsNavigationSnapshotManager}. The elements of the snapshot are 
+     * shared between all requests, they must not be modified.<p>
+     * 
+     * @param folder the site path of the folder
+     * @param endLevel the end level of the navigation
+     * 
+     * @return a list of {@link CmsJspNavElement} objects
+     */
+    public List getSiteNavigation(String folder, int endLevel) {
+
+        CmsNavigationSnapshot snapshot = CmsNavigationSnapshotManager.getInstance().getSnapshot(getCmsObject());
+        List result = (snapshot != null) ? snapshot.getSiteNavigation(folder, endLevel) : null;
+        if (result == null) {
+            result = getNavigation().getSiteNavigation(folder, endLevel);
+        }
+        return result;
+    }
+
     /**
      * Returns the top level of the navigation.<p>
      * 
@@ -294,6 +290,164 @@ public class CmsTemplateMenu extends CmsJspActionElement {
     public void setElements(List elements) {
 
         m_elements = elements;
+        // the menu state has to be computed again for the new elements
+        m_children = null;
+        m_current = null;
+        m_inPath = null;
+    }
+
+    /**
+     * Computes the state of all menu elements in a single pass over the element list.<p>
+     */
+    private void initMenuState() {
+
+        if (m_children != null) {
+            return;
+        }
+        if (m_uri == null) {
+            initUriState();
+        }
+
+        Map children = new HashMap();
+        Map current = new HashMap();
+        Map inPath = new HashMap();
+        if (m_elements != null) {
+            int size = m_elements.size();
+            for (int i = 0; i < size; i++) {
+                CmsJspNavElement elem = (CmsJspNavElement)m_elements.get(i);
+                boolean hasChildren = false;
+                if (i < size - 1) {
+                    CmsJspNavElement next = (CmsJspNavElement)m_elements.get(i + 1);
+                    hasChildren = next.getNavTreeLevel() > elem.getNavTreeLevel();
+                }
+                children.put(elem, Boolean.valueOf(hasChildren));
+                current.put(elem, Boolean.valueOf(isCurrent(elem)));
+                inPath.put(elem, Boolean.valueOf(isInPath(elem)));
+            }
+        }
+
+        // elements that are not part of the menu are computed on demand
+        m_children = LazyMap.decorate(children, TransformerUtils.constantTransformer(Boolean.FALSE));
+        m_current = LazyMap.decorate(current, new Transformer() {
+
+            /**
+             * @see org.apache.commons.collections.Transformer#transform(java.lang.Object)
+             */
+            public Object transform(Object input) {
+
+                return Boolean.valueOf(isCurrent((CmsJspNavElement)input));
+            }
+        });
+        m_inPath = LazyMap.decorate(inPath, new Transformer() {
+
+            /**
+             * @see org.apache.commons.collections.Transformer#transform(java.lang.Object)
+             */
+            public Object transform(Object input) {
+
+                return Boolean.valueOf(isInPath((CmsJspNavElement)input));
+            }
+        });
+    }
+
+    /**
+     * Reads the navigation element of the current uri and, if the current uri is not in the navigation,
+     * the closest navigation element of its parent folders.<p>
+     */
+    private void initUriState() {
+
+        m_uri = getRequestContext().getUri();
+        m_uriElement = null;
+        m_uriNavParent = null;
+        try {
+            m_uriElement = new CmsJspNavElement(m_uri, CmsProperty.toMap(getCmsObject().readPropertyObjects(
+                m_uri,
+                false)));
+        } catch (CmsException e) {
+            // noop
+            LOG.debug(e.getLocalizedMessage(), e);
+        }
+
+        // check if uri is in NOT in the navigation and so a parent folder will be marked as current
+        if ((m_uriElement != null) && !m_uriElement.isInNavigation()) {
+            CmsJspNavElement navElem = m_uriElement;
+            while ((navElem != null) && !navElem.isInNavigation()) {
+
+                String parentPath = CmsResource.getParentFolder(navElem.getResourceName());
+                if (parentPath == null) {
+                    break;
+                }
+                try {
+                    navElem = new CmsJspNavElement(parentPath, CmsProperty.toMap(getCmsObject().readPropertyObjects(
+                        parentPath,
+                        false)));
+                } catch (CmsException ex) {
+                    break;
+                }
+            }
+            m_uriNavParent = navElem;
+        }
+    }
+
+    /**
+     * Returns if the given navigation element is the current element.<p>
+     * 
+     * @param elem the navigation element to check
+     * 
+     * @return <code>true</code> if the given navigation element is the current element
+     */
+    private boolean isCurrent(CmsJspNavElement elem) {
+
+        // check if uri matches resource name
+        if (elem.getResourceName().equals(m_uri)) {
+            return true;
+        }
+
+        boolean uriInNavigation = (m_uriElement != null) && m_uriElement.isInNavigation();
+
+        // check if the uri is the default file of the element, this is only possible for the parent folder of the uri
+        if (!uriInNavigation && elem.getResourceName().equals(CmsResource.getFolderPath(m_uri))) {
+            if (m_uri.equals(readDefaultFilePath(elem.getResourceName()))) {
+                return true;
+            }
+        }
+
+        if (m_uriNavParent != null) {
+            return elem.equals(m_uriNavParent);
+        }
+
+        return false;
     }
 
+    /**
+     * Returns if the given navigation element is in the path of the current uri.<p>
+     * 
+     * @param elem the navigation element to check
+     * 
+     * @return <code>true</code> if the given navigation element is in the path of the current uri
+     */
+    private boolean isInPath(CmsJspNavElement elem) {
+
+        String name = elem.getResourceName();
+        return name.equals(m_uri) || (CmsResource.isFolder(name) && m_uri.startsWith(name));
+    }
+
+    /**
+     * Returns the site path of the default file of the given resource.<p>
+     * 
+     * @param resourceName the site path of the resource
+     * 
+     * @return the site path of the default file, or <code>null</code> if it can not be read
+     */
+    private String readDefaultFilePath(String resourceName) {
+
+        try {
+            CmsResource resource = getCmsObject().readDefaultFile(resourceName);
+            return getCmsObject().getSitePath(resource);
+        } catch (CmsException e) {
+            // resource not found or not enough permissions
+            LOG.debug(e.getLocalizedMessage(), e);
+        }
+        return null;
+    }
 }
@@ -35,6 +35,7 @@ import org.opencms.file.CmsResourceFilter;
 import org.opencms.file.types.CmsResourceTypePlain;
 import org.opencms.loader.CmsLoaderException;
 import org.opencms.main.CmsException;
+import org.opencms.main.CmsLog;
 import org.opencms.main.OpenCms;
 import org.opencms.module.A_CmsModuleAction;
 import org.opencms.module.CmsModule;
@@ -42,26 +43,88 @@ import org.opencms.report.CmsLogReport;
 
 import java.util.Iterator;
 import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.commons.logging.Log;
 
 /**
  * Module action class used to enable an additional Editor CssHandler. <p>
  * 
+ * Additionally repairs the resource types of the release module configuration files in a startup task. 
+ * The task runs on a single background thread once the initialization of OpenCms is finished and the 
+ * template two resource types are configured. It is cancelled if the module is shut down before it is finished, 
+ * its status is available with {@link #getStartupStatus()}. The status only moves forward, so a finished 
+ * or cancelled task keeps its final status.<p>
+ * 
  * @since 7.0.4
  */
 public class CmsTemplateModuleAction extends A_CmsModuleAction {
 
+    /** Startup task status: the task was cancelled. */
+    public static final String STARTUP_STATUS_CANCELLED = "cancelled";
+
+    /** Startup task status: the release configuration was repaired. */
+    public static final String STARTUP_STATUS_COMPLETED = "completed";
+
+    /** Startup task status: the task failed, see the log file. */
+    public static final String STARTUP_STATUS_FAILED = "failed";
+
+    /** Startup task status: the task is running. */
+    public static final String STARTUP_STATUS_RUNNING = "running";
+
+    /** Startup task status: the task is waiting to be executed. */
+    public static final String STARTUP_STATUS_SCHEDULED = "scheduled";
+
+    /** Startup task status: the release configuration did not need to be repaired. */
+    public static final String STARTUP_STATUS_SKIPPED = "skipped";
+
+    /** The log object for this class. */
+    private static final Log LOG = CmsLog.getLog(CmsTemplateModuleAction.class);
+
     /** Path to the configuration files of the release notes. */
     private static final String RELEASE_CONFIG = "/sites/default/release/_config_/";
 
+    /** The interval in milliseconds to check if the system is ready for the startup task. */
+    private static final long STARTUP_READY_INTERVAL = 1000;
+
+    /** The maximum time in milliseconds to wait until the system is ready for the startup task. */
+    private static final long STARTUP_READY_TIMEOUT = 300000;
+
+    /** The names of the resource types required by the startup task. */
+    private static final String[] STARTUP_RESOURCE_TYPES = {"ttconfig", "ttoptions", "ttstyle", "ttpreset"};
+
     /** Name of the Template Two Editor CssHandler class. */
     private static final String TEMPLATETWO_EDITOR_CSS_HANDER = "org.opencms.frontend.templatetwo.CmsTemplateCssHandler";
 
+    /** The executor for the startup task. */
+    private ExecutorService m_startupExecutor;
+
+    /** The status of the startup task. */
+    private AtomicReference m_startupStatus;
+
+    /** The result of the startup task. */
+    private Future m_startupTask;
+
     /**
      * Default constructor, nothing is really happening here.<p>
      */
     public CmsTemplateModuleAction() {
 
-        // nop
+        m_startupStatus = new AtomicReference();
+    }
+
+    /**
+     * Returns the status of the startup task that repairs the release configuration.<p>
+     * 
+     * @return one of the <code>STARTUP_STATUS_*</code> constants, or <code>null</code> if the module was not initialized
+     */
+    public String getStartupStatus() {
+
+        return (String)m_startupStatus.get();
     }
 
     /**
@@ -77,114 +140,237 @@ public class CmsTemplateModuleAction extends A_CmsModuleAction {
         // the following is needed to repair the release module in case it is installed before the template two module
         // since we do not want any dependencies (if tt is missing, use default template)
         final CmsObject cms = adminCms; // this is save since we got a new copy
-        Thread thread = new Thread(new Runnable() {
+        m_startupStatus.set(STARTUP_STATUS_SCHEDULED);
+        m_startupExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+
+            /**
+             * @see java.util.concurrent.ThreadFactory#newThread(java.lang.Runnable)
+             */
+            public Thread newThread(Runnable runnable) {
+
+                Thread thread = new Thread(runnable, "OpenCms: Template Two startup");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        m_startupTask = m_startupExecutor.submit(new Runnable() {
 
             /**
              * @see java.lang.Runnable#run()
              */
             public void run() {
 
-                synchronized (this) {
-                    // wait until the resource types are available
-                    try {
-                        wait(5000);
-                    } catch (Exception e) {
-                        // ignore
-                        e.printStackTrace();
-                    }
-                }
+                runStartupTask(cms);
+            }
+        });
+        // the executor is only used for the startup task
+        m_startupExecutor.shutdown();
+    }
 
-                // check if the configuration files exists
-                if (!cms.existsResource(RELEASE_CONFIG)) {
-                    // nothing to do
-                    return;
-                } else {
-                    // check if they have the right type
-                    try {
-                        int plainId;
-                        try {
-                            plainId = OpenCms.getResourceManager().getResourceType(
-                                CmsResourceTypePlain.getStaticTypeName()).getTypeId();
-                        } catch (CmsLoaderException e) {
-                            // this should really never happen
-                            plainId = CmsResourceTypePlain.getStaticTypeId();
-                        }
-                        if (cms.readResource(RELEASE_CONFIG + "default").getTypeId() != plainId) {
-                            // it is not plain, so assume this resource has the right type and all others too
-                            return;
-                        }
-                    } catch (CmsException e) {
-                        // something happens while reading the configuration file
-                        e.printStackTrace();
-                        return;
-                    }
-                }
+    /**
+     * Returns if the startup task has finished, either successfully, skipped, failed or cancelled.<p>
+     * 
+     * @return <code>true</code> if the startup task has finished
+     */
+    public boolean isStartupTaskDone() {
 
-                // create a new project for the changes
-                String projectName = "ReleaseModuleRepair";
-                CmsProject project = null;
-                try {
-                    // check if the project exists
-                    project = cms.readProject(projectName);
-                } catch (CmsException ex) {
-                    // project does not exist, so create a new one
-                    try {
-                        project = cms.createProject(
-                            projectName,
-                            projectName,
-                            OpenCms.getDefaultUsers().getGroupAdministrators(),
-                            OpenCms.getDefaultUsers().getGroupAdministrators(),
-                            CmsProject.PROJECT_TYPE_TEMPORARY);
-                    } catch (CmsException e) {
-                        // ignore
-                        e.printStackTrace();
-                    }
-                }
-                if (project == null) {
-                    // error while creating the temp project
+        return (m_startupTask != null) && m_startupTask.isDone();
+    }
+
+    /**
+     * @see org.opencms.module.A_CmsModuleAction#shutDown(org.opencms.module.CmsModule)
+     */
+    public void shutDown(CmsModule module) {
+
+        super.shutDown(module);
+
+        // cancel the startup task if it is still running
+        if ((m_startupTask != null) && m_startupTask.cancel(true)) {
+            advanceStartupStatus(STARTUP_STATUS_CANCELLED);
+        }
+        if (m_startupExecutor != null) {
+            m_startupExecutor.shutdownNow();
+        }
+
+        // stop building navigation snapshots
+        CmsNavigationSnapshotManager.shutDownInstance();
+    }
+
+    /**
+     * Checks if the system is ready for the startup task.<p>
+     * 
+     * The system is ready if the initialization of OpenCms is finished and all resource types 
+     * required by the startup task are configured.<p>
+     * 
+     * @return <code>true</code> if the system is ready for the startup task
+     */
+    protected boolean isReadyForStartupTask() {
+
+        if (OpenCms.getRunLevel() < OpenCms.RUNLEVEL_3_SHELL_ACCESS) {
+            return false;
+        }
+        for (int i = 0; i < STARTUP_RESOURCE_TYPES.length; i++) {
+            try {
+                OpenCms.getResourceManager().getResourceType(STARTUP_RESOURCE_TYPES[i]);
+            } catch (CmsLoaderException e) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Repairs the resource types of the release module configuration files and publishes them.<p>
+     * 
+     * @param cms the admin OpenCms context
+     * 
+     * @return <code>true</code> if the configuration was repaired, <code>false</code> if nothing needed to be repaired
+     * 
+     * @throws CmsException if repairing the configuration fails
+     */
+    protected boolean repairReleaseConfiguration(CmsObject cms) throws CmsException {
+
+        // check if the configuration files exists
+        if (!cms.existsResource(RELEASE_CONFIG)) {
+            // nothing to do
+            return false;
+        }
+        // check if they have the right type
+        int plainId;
+        try {
+            plainId = OpenCms.getResourceManager().getResourceType(CmsResourceTypePlain.getStaticTypeName()).getTypeId();
+        } catch (CmsLoaderException e) {
+            // this should really never happen
+            plainId = CmsResourceTypePlain.getStaticTypeId();
+        }
+        if (cms.readResource(RELEASE_CONFIG + "default").getTypeId() != plainId) {
+            // it is not plain, so assume this resource has the right type and all others too
+            return false;
+        }
+
+        // create a new project for the changes
+        String projectName = "ReleaseModuleRepair";
+        CmsProject project = null;
+        try {
+            // check if the project exists
+            project = cms.readProject(projectName);
+        } catch (CmsException ex) {
+            // project does not exist, so create a new one
+            project = cms.createProject(
+                projectName,
+                projectName,
+                OpenCms.getDefaultUsers().getGroupAdministrators(),
+                OpenCms.getDefaultUsers().getGroupAdministrators(),
+                CmsProject.PROJECT_TYPE_TEMPORARY);
+        }
+
+        // now switch to the temp project
+        cms.getRequestContext().setCurrentProject(project);
+        // add the folder to the new live demo setup project
+        cms.copyResourceToProject(RELEASE_CONFIG);
+
+        // iterate the configuration folder
+        Iterator it = cms.readResources(RELEASE_CONFIG, CmsResourceFilter.DEFAULT, false).iterator();
+        while (it.hasNext()) {
+            CmsResource res = (CmsResource)it.next();
+            // get the right type for the given resource
+            int type = 0;
+            if (res.getName().equals("default")) {
+                type = OpenCms.getResourceManager().getResourceType("ttconfig").getTypeId();
+            } else if (res.getName().equals("options")) {
+                type = OpenCms.getResourceManager().getResourceType("ttoptions").getTypeId();
+            } else if (res.getName().equals("style")) {
+                type = OpenCms.getResourceManager().getResourceType("ttstyle").getTypeId();
+            } else if (res.getName().equals("twocolums")) {
+                type = OpenCms.getResourceManager().getResourceType("ttpreset").getTypeId();
+            }
+            if ((type == 0) || (type == res.getTypeId())) {
+                // skip if resource does not match or if it has already the right type
+                continue;
+            }
+            // repair the given resource
+            String resName = cms.getSitePath(res);
+            cms.lockResource(resName);
+            cms.chtype(resName, type);
+        }
+        // now publish the changes
+        CmsLogReport report = new CmsLogReport(Locale.ENGLISH, CmsTemplateModuleAction.class);
+        OpenCms.getPublishManager().publishProject(cms, report);
+        OpenCms.getPublishManager().waitWhileRunning();
+        return true;
+    }
+
+    /**
+     * Runs the startup task, waiting until the system is ready.<p>
+     * 
+     * @param cms the admin OpenCms context
+     */
+    protected void runStartupTask(CmsObject cms) {
+
+        try {
+            // wait until OpenCms is initialized and the resource types are configured
+            long timeout = System.currentTimeMillis() + STARTUP_READY_TIMEOUT;
+            while (!isReadyForStartupTask()) {
+                if (System.currentTimeMillis() > timeout) {
+                    LOG.error(Messages.get().getBundle().key(Messages.LOG_ERR_STARTUP_TIMEOUT_1, RELEASE_CONFIG));
+                    advanceStartupStatus(STARTUP_STATUS_FAILED);
                     return;
                 }
+                Thread.sleep(STARTUP_READY_INTERVAL);
+            }
+            if (!advanceStartupStatus(STARTUP_STATUS_RUNNING)) {
+                // the task was cancelled in the meantime
+                return;
+            }
+            advanceStartupStatus(repairReleaseConfiguration(cms) ? STARTUP_STATUS_COMPLETED : STARTUP_STATUS_SKIPPED);
+        } catch (InterruptedException e) {
+            advanceStartupStatus(STARTUP_STATUS_CANCELLED);
+        } catch (Throwable t) {
+            LOG.error(t.getLocalizedMessage(), t);
+            advanceStartupStatus(STARTUP_STATUS_FAILED);
+        }
+    }
 
-                // now switch to the temp project
-                cms.getRequestContext().setCurrentProject(project);
-                try {
-                    // add the folder to the new live demo setup project
-                    cms.copyResourceToProject(RELEASE_CONFIG);
-
-                    // iterate the configuration folder
-                    Iterator it = cms.readResources(RELEASE_CONFIG, CmsResourceFilter.DEFAULT, false).iterator();
-                    while (it.hasNext()) {
-                        CmsResource res = (CmsResource)it.next();
-                        // get the right type for the given resource
-                        int type = 0;
-                        if (res.getName().equals("default")) {
-                            type = OpenCms.getResourceManager().getResourceType("ttconfig").getTypeId();
-                        } else if (res.getName().equals("options")) {
-                            type = OpenCms.getResourceManager().getResourceType("ttoptions").getTypeId();
-                        } else if (res.getName().equals("style")) {
-                            type = OpenCms.getResourceManager().getResourceType("ttstyle").getTypeId();
-                        } else if (res.getName().equals("twocolums")) {
-                            type = OpenCms.getResourceManager().getResourceType("ttpreset").getTypeId();
-                        }
-                        if ((type == 0) || (type == res.getTypeId())) {
-                            // skip if resource does not match or if it has already the right type
-                            continue;
-                        }
-                        // repair the given resource
-                        String resName = cms.getSitePath(res);
-                        cms.lockResource(resName);
-                        cms.chtype(resName, type);
-                    }
-                    // now publish the changes
-                    CmsLogReport report = new CmsLogReport(Locale.ENGLISH, CmsTemplateModuleAction.class);
-                    OpenCms.getPublishManager().publishProject(cms, report);
-                    OpenCms.getPublishManager().waitWhileRunning();
-                } catch (CmsException e) {
-                    // ignore
-                    e.printStackTrace();
-                }
+    /**
+     * Sets the status of the startup task, if the new status follows the current status.<p>
+     * 
+     * A scheduled task may become running or finished, a running task may only become finished. 
+     * A finished task (completed, skipped, failed or cancelled) never changes its status again.<p>
+     * 
+     * @param status the new status, one of the <code>STARTUP_STATUS_*</code> constants
+     * 
+     * @return <code>true</code> if the status was changed
+     */
+    private boolean advanceStartupStatus(String status) {
+
+        while (true) {
+            String current = (String)m_startupStatus.get();
+            if (getStartupStatusOrder(current) >= getStartupStatusOrder(status)) {
+                return false;
             }
-        });
-        thread.start();
+            if (m_startupStatus.compareAndSet(current, status)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Returns the position of the given status in the life cycle of the startup task.<p>
+     * 
+     * @param status the status, one of the <code>STARTUP_STATUS_*</code> constants
+     * 
+     * @return the position of the given status in the life cycle of the startup task
+     */
+    private int getStartupStatusOrder(String status) {
+
+        if (STARTUP_STATUS_SCHEDULED.equals(status)) {
+            return 1;
+        } else if (STARTUP_STATUS_RUNNING.equals(status)) {
+            return 2;
+        } else if (status == null) {
+            return 0;
+        }
+        // all other states are final
+        return 3;
     }
 }
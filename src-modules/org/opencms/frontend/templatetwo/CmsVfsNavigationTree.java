@@ -0,0 +1,94 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software GmbH, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package org.opencms.frontend.templatetwo;
+
+import org.opencms.file.CmsObject;
+import org.opencms.file.CmsResource;
+import org.opencms.file.CmsResourceFilter;
+import org.opencms.jsp.CmsJspNavBuilder;
+import org.opencms.main.CmsException;
+
+import java.util.List;
+
+/**
+ * Provides the navigation elements of the folders in the OpenCms VFS.<p>
+ * 
+ * @since 8.0.2
+ */
+public class CmsVfsNavigationTree implements I_CmsNavigationTree {
+
+    /** The navigation builder to read the navigation with. */
+    private CmsJspNavBuilder m_builder;
+
+    /** The OpenCms context to read the navigation with. */
+    private CmsObject m_cms;
+
+    /**
+     * Constructor, with parameters.<p>
+     * 
+     * @param cms the OpenCms context to read the navigation with
+     */
+    public CmsVfsNavigationTree(CmsObject cms) {
+
+        m_cms = cms;
+        m_builder = new CmsJspNavBuilder(cms);
+    }
+
+    /**
+     * @see org.opencms.frontend.templatetwo.I_CmsNavigationTree#getDateExpires(java.lang.String)
+     */
+    public long getDateExpires(String folder) {
+
+        long now = System.currentTimeMillis();
+        long result = Long.MAX_VALUE;
+        List resources;
+        try {
+            // the resources released in the future are not part of the navigation yet
+            resources = m_cms.readResources(folder, CmsResourceFilter.ALL, false);
+        } catch (CmsException e) {
+            return result;
+        }
+        for (int i = 0; i < resources.size(); i++) {
+            CmsResource resource = (CmsResource)resources.get(i);
+            if ((resource.getDateReleased() > now) && (resource.getDateReleased() < result)) {
+                result = resource.getDateReleased();
+            }
+            if ((resource.getDateExpired() > now) && (resource.getDateExpired() < result)) {
+                result = resource.getDateExpired();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @see org.opencms.frontend.templatetwo.I_CmsNavigationTree#getNavigationForFolder(java.lang.String)
+     */
+    public List getNavigationForFolder(String folder) {
+
+        return m_builder.getNavigationForFolder(folder);
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software GmbH, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package org.opencms.frontend.templatetwo;
+
+import org.opencms.file.CmsFile;
+import org.opencms.file.CmsObject;
+import org.opencms.file.CmsResourceFilter;
+import org.opencms.i18n.CmsLocaleManager;
+import org.opencms.main.CmsException;
+import org.opencms.main.OpenCms;
+
+import java.io.IOException;
+
+/**
+ * Reads the stylesheets combined by the {@link CmsStylesheetBundler} from the OpenCms VFS.<p>
+ * 
+ * @since 8.0.2
+ */
+public class CmsVfsStylesheetSource implements I_CmsStylesheetSource {
+
+    /** The OpenCms context to read the stylesheets with. */
+    private CmsObject m_cms;
+
+    /**
+     * Constructor, with parameters.<p>
+     * 
+     * @param cms the OpenCms context to read the stylesheets with
+     */
+    public CmsVfsStylesheetSource(CmsObject cms) {
+
+        m_cms = cms;
+    }
+
+    /**
+     * @see org.opencms.frontend.templatetwo.I_CmsStylesheetSource#getContent(java.lang.String)
+     */
+    public String getContent(String path) throws IOException {
+
+        try {
+            CmsFile file = m_cms.readFile(
+                m_cms.getRequestContext().removeSiteRoot(path),
+                CmsResourceFilter.IGNORE_EXPIRATION);
+            return new String(file.getContents(), CmsLocaleManager.getResourceEncoding(m_cms, file));
+        } catch (CmsException e) {
+            IOException ioe = new IOException(e.getMessage());
+            ioe.initCause(e);
+            throw ioe;
+        }
+    }
+
+    /**
+     * @see org.opencms.frontend.templatetwo.I_CmsStylesheetSource#getLink(java.lang.String)
+     */
+    public String getLink(String path) {
+
+        return OpenCms.getLinkManager().substituteLink(m_cms, path);
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software GmbH, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package org.opencms.frontend.templatetwo;
+
+import java.util.List;
+
+/**
+ * A resource tree that provides the navigation elements of its folders.<p>
+ * 
+ * Used by {@link CmsNavigationSnapshot#build(I_CmsNavigationTree, String)} to create navigation snapshots, 
+ * either from the VFS or from an in-memory resource tree.<p>
+ * 
+ * @since 8.0.2
+ */
+public interface I_CmsNavigationTree {
+
+    /**
+     * Returns the earliest date in the future when a resource in the given folder is released or expires.<p>
+     * 
+     * The navigation of the folder may change at this date.<p>
+     * 
+     * @param folder the site path of the folder
+     * 
+     * @return the earliest release or expiration date in the future, 
+     *      or <code>{@link Long#MAX_VALUE}</code> if there is no such date
+     */
+    long getDateExpires(String folder);
+
+    /**
+     * Returns the navigation elements of the given folder, sorted by their navigation position.<p>
+     * 
+     * Only resources that are in the navigation are returned.<p>
+     * 
+     * @param folder the site path of the folder
+     * 
+     * @return a list of {@link org.opencms.jsp.CmsJspNavElement} objects
+     */
+    List getNavigationForFolder(String folder);
+}
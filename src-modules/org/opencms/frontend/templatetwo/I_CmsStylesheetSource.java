@@ -0,0 +1,57 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software GmbH, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package org.opencms.frontend.templatetwo;
+
+import java.io.IOException;
+
+/**
+ * Provides the content and the links of the stylesheets combined by the {@link CmsStylesheetBundler}.<p>
+ * 
+ * @since 8.0.2
+ */
+public interface I_CmsStylesheetSource {
+
+    /**
+     * Returns the content of the stylesheet at the given path.<p>
+     * 
+     * @param path the path of the stylesheet
+     * 
+     * @return the content of the stylesheet
+     * 
+     * @throws IOException if the stylesheet can not be read
+     */
+    String getContent(String path) throws IOException;
+
+    /**
+     * Returns the link to use in a stylesheet for the resource at the given absolute path.<p>
+     * 
+     * @param path the absolute path of a resource referenced by a stylesheet
+     * 
+     * @return the link to use in a stylesheet
+     */
+    String getLink(String path);
+}
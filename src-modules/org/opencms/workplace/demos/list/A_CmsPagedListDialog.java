@@ -0,0 +1,285 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software GmbH, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+
+
+package org.opencms.workplace.demos.list;
+
+import org.opencms.i18n.CmsMessageContainer;
+import org.opencms.jsp.CmsJspActionElement;
+import org.opencms.main.CmsException;
+import org.opencms.workplace.list.A_CmsListDialog;
+import org.opencms.workplace.list.CmsListIndependentAction;
+import org.opencms.workplace.list.CmsListItem;
+import org.opencms.workplace.list.CmsListMetadata;
+import org.opencms.workplace.list.CmsListOrderEnum;
+import org.opencms.workplace.list.CmsListState;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import javax.servlet.http.HttpSession;
+
+/**
+ * List dialog that only reads the items of the displayed page from an {@link I_CmsListItemProvider}.<p>
+ * 
+ * The list itself only contains the items of the current page, so filtering and sorting
+ * have to be done by the provider. Whenever the search filter or the sorted column of the list
+ * changes, the provider is queried again starting with the first page. The pages are switched with
+ * the independent actions added by {@link #setIndependentActions(CmsListMetadata)}, so subclasses
+ * overriding this method have to call it.<p>
+ * 
+ * The provider and the current query are kept in the session of the current user.<p>
+ * 
+ * @since 8.0.1 
+ */
+public abstract class A_CmsPagedListDialog extends A_CmsListDialog {
+
+    /** List independent action id constant. */
+    public static final String LIST_IACTION_NEXT_PAGE = "inp";
+
+    /** List independent action id constant. */
+    public static final String LIST_IACTION_PREVIOUS_PAGE = "ipp";
+
+    /** Suffix of the session attribute name for the paging state. */
+    private static final String SESSION_ATTR_PAGING = ".paging";
+
+    /**
+     * Public constructor.<p>
+     * 
+     * @param jsp an initialized JSP action element
+     * @param listId the id of the displayed list
+     * @param listName the name of the list
+     * @param sortedColId the a priory sorted column
+     * @param sortOrder the order of the sorted column
+     * @param searchableColId the column to search into
+     */
+    protected A_CmsPagedListDialog(
+        CmsJspActionElement jsp,
+        String listId,
+        CmsMessageContainer listName,
+        String sortedColId,
+        CmsListOrderEnum sortOrder,
+        String searchableColId) {
+
+        super(jsp, listId, listName, sortedColId, sortOrder, searchableColId);
+    }
+
+    /**
+     * @see org.opencms.workplace.list.A_CmsListDialog#executeListIndepActions()
+     */
+    public void executeListIndepActions() {
+
+        if (getParamListAction().equals(LIST_IACTION_NEXT_PAGE)) {
+            showPage(getPagingState().getQuery().getPage() + 1);
+        } else if (getParamListAction().equals(LIST_IACTION_PREVIOUS_PAGE)) {
+            showPage(getPagingState().getQuery().getPage() - 1);
+        } else {
+            super.executeListIndepActions();
+            // the search filter may have been reset
+            updateQuery();
+        }
+    }
+
+    /**
+     * @see org.opencms.workplace.list.A_CmsListDialog#executeSearch()
+     */
+    public void executeSearch() {
+
+        super.executeSearch();
+        updateQuery();
+    }
+
+    /**
+     * @see org.opencms.workplace.list.A_CmsListDialog#executeSort()
+     */
+    public void executeSort() {
+
+        super.executeSort();
+        updateQuery();
+    }
+
+    /**
+     * Creates the list item for an item read by the list item provider.<p>
+     * 
+     * @param item an item returned by the list item provider
+     * 
+     * @return the list item to display
+     */
+    protected abstract CmsListItem createListItem(Object item);
+
+    /**
+     * Creates the list item provider for a new dialog session.<p>
+     * 
+     * @return the list item provider
+     */
+    protected abstract I_CmsListItemProvider createListItemProvider();
+
+    /**
+     * @see org.opencms.workplace.list.A_CmsListDialog#customHtmlStart()
+     */
+    protected String customHtmlStart() {
+
+        CmsListPagingState state = getPagingState();
+        CmsListItemQuery query = state.getQuery();
+        StringBuffer result = new StringBuffer(256);
+        result.append(super.customHtmlStart());
+        result.append("<div>");
+        result.append(key(Messages.GUI_LISTDEMO_PAGE_INFO_3, new Object[] {
+            new Integer(query.getPage()),
+            new Integer(query.getPageCount(state.getItemCount())),
+            new Integer(state.getItemCount())}));
+        result.append("</div>\n");
+        return result.toString();
+    }
+
+    /**
+     * Returns the list item provider of the current dialog session.<p>
+     * 
+     * @return the list item provider of the current dialog session
+     */
+    protected I_CmsListItemProvider getListItemProvider() {
+
+        return getPagingState().getProvider();
+    }
+
+    /**
+     * Returns the list items of the current page only.<p>
+     * 
+     * @see org.opencms.workplace.list.A_CmsListDialog#getListItems()
+     */
+    protected List getListItems() throws CmsException {
+
+        CmsListPagingState state = getPagingState();
+        CmsListItemQuery query = state.getQuery();
+        int itemCount = state.getProvider().getItemCount(getCms(), query);
+        if (query.getPage() > query.getPageCount(itemCount)) {
+            // items have been removed since the page was selected
+            query = query.toPage(query.getPageCount(itemCount));
+            state.setQuery(query);
+        }
+        state.setItemCount(itemCount);
+        List ret = new ArrayList();
+        Iterator itItems = state.getProvider().getItems(getCms(), query).iterator();
+        while (itItems.hasNext()) {
+            ret.add(createListItem(itItems.next()));
+        }
+        return ret;
+    }
+
+    /**
+     * Adds the actions to switch to the previous and the next page.<p>
+     * 
+     * @see org.opencms.workplace.list.A_CmsListDialog#setIndependentActions(org.opencms.workplace.list.CmsListMetadata)
+     */
+    protected void setIndependentActions(CmsListMetadata metadata) {
+
+        CmsListIndependentAction previousAction = new CmsListIndependentAction(LIST_IACTION_PREVIOUS_PAGE);
+        previousAction.setName(Messages.get().container(Messages.GUI_LISTDEMO_PAGE_PREVIOUS_NAME_0));
+        previousAction.setHelpText(Messages.get().container(Messages.GUI_LISTDEMO_PAGE_PREVIOUS_HELP_0));
+        metadata.addIndependentAction(previousAction);
+
+        CmsListIndependentAction nextAction = new CmsListIndependentAction(LIST_IACTION_NEXT_PAGE);
+        nextAction.setName(Messages.get().container(Messages.GUI_LISTDEMO_PAGE_NEXT_NAME_0));
+        nextAction.setHelpText(Messages.get().container(Messages.GUI_LISTDEMO_PAGE_NEXT_HELP_0));
+        metadata.addIndependentAction(nextAction);
+    }
+
+    /**
+     * Creates a query for the given page, using the search filter and sorted column of the list.<p>
+     * 
+     * @param page the requested page
+     * 
+     * @return the query for the given page
+     */
+    private CmsListItemQuery createQuery(int page) {
+
+        String filter = null;
+        String column = null;
+        CmsListOrderEnum order = null;
+        if (getList() != null) {
+            CmsListState listState = getList().getState();
+            filter = listState.getFilter();
+            column = listState.getColumn();
+            order = listState.getOrder();
+        }
+        return new CmsListItemQuery(
+            filter,
+            column,
+            order,
+            getLocale(),
+            page,
+            getSettings().getUserSettings().getExplorerFileEntries());
+    }
+
+    /**
+     * Returns the paging state of the current dialog session, creating it if required.<p>
+     * 
+     * @return the paging state of the current dialog session
+     */
+    private CmsListPagingState getPagingState() {
+
+        HttpSession session = getJsp().getRequest().getSession();
+        String attrName = getClass().getName() + SESSION_ATTR_PAGING;
+        CmsListPagingState state = (CmsListPagingState)session.getAttribute(attrName);
+        if (state == null) {
+            state = new CmsListPagingState(createListItemProvider(), createQuery(1));
+            session.setAttribute(attrName, state);
+        }
+        return state;
+    }
+
+    /**
+     * Shows the given page, if it exists.<p>
+     * 
+     * @param page the page to show
+     */
+    private void showPage(int page) {
+
+        CmsListPagingState state = getPagingState();
+        CmsListItemQuery query = state.getQuery();
+        if ((page < 1) || (page > query.getPageCount(state.getItemCount())) || (page == query.getPage())) {
+            return;
+        }
+        state.setQuery(query.toPage(page));
+        refreshList();
+    }
+
+    /**
+     * Queries the provider again starting with the first page,
+     * if the search filter or the sorted column of the list have changed.<p>
+     */
+    private void updateQuery() {
+
+        CmsListPagingState state = getPagingState();
+        CmsListItemQuery query = createQuery(1);
+        if (!query.isSameSelection(state.getQuery())) {
+            state.setQuery(query);
+            refreshList();
+        }
+    }
+}
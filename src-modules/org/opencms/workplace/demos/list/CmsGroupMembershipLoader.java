@@ -0,0 +1,270 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software GmbH, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+
+
+package org.opencms.workplace.demos.list;
+
+import org.opencms.file.CmsGroup;
+import org.opencms.file.CmsObject;
+import org.opencms.file.CmsUser;
+import org.opencms.main.CmsException;
+import org.opencms.main.OpenCms;
+import org.opencms.util.CmsUUID;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Resolves the groups of the users displayed on a list page at once.<p>
+ * 
+ * Instead of reading the groups of each user separately, the members of all groups are read in one pass 
+ * over the groups as soon as a page contains at least as many unresolved users as there are groups. 
+ * Only the memberships of the requested users are kept from this pass. Fewer unresolved users are 
+ * resolved one by one. As soon as a group with more than {@link #MAX_GROUP_MEMBERS} members has been 
+ * found, the pass is stopped and never used again by this loader, the users are resolved one by one instead, 
+ * so the members of a large group are read at most once.<p>
+ * 
+ * Only the groups of the organizational unit of this loader are returned, with the parent groups 
+ * of the groups a user is member of, like {@link CmsObject#getGroupsOfUser(String, boolean)} 
+ * with indirect groups. The memberships of the last requested page are kept until {@link #reset()} 
+ * is called, so switching between the details of a page does not read them again.<p>
+ * 
+ * @since 8.0.1 
+ */
+public class CmsGroupMembershipLoader {
+
+    /** The maximum number of members of a group for the pass over all groups. */
+    public static final int MAX_GROUP_MEMBERS = 500;
+
+    /** The groups of the organizational unit, read on demand. */
+    private List m_groups;
+
+    /** The groups of the organizational unit, keyed by id. */
+    private Map m_groupsById;
+
+    /** Indicates if the users of sub organizational units are included. */
+    private boolean m_includeSubOus;
+
+    /** Indicates that a group with more than {@link #MAX_GROUP_MEMBERS} members has been found. */
+    private boolean m_largeGroupFound;
+
+    /** The sorted group names of the users of the last requested page, keyed by user name. */
+    private Map m_memberships;
+
+    /** The fully qualified name of the organizational unit to read the groups from. */
+    private String m_ouFqn;
+
+    /**
+     * Creates a new group membership loader.<p>
+     * 
+     * @param ouFqn the fully qualified name of the organizational unit to read the groups from
+     * @param includeSubOus if <code>true</code>, the groups of sub organizational units are included
+     */
+    public CmsGroupMembershipLoader(String ouFqn, boolean includeSubOus) {
+
+        m_ouFqn = ouFqn;
+        m_includeSubOus = includeSubOus;
+        m_memberships = new HashMap();
+    }
+
+    /**
+     * Returns the names of the groups of the given users.<p>
+     * 
+     * @param cms the current users context
+     * @param userNames the names of the users to get the groups for, usually the users of a list page
+     * 
+     * @return a map from user name to the sorted list of the group names of the user
+     * 
+     * @throws CmsException if reading the groups fails
+     */
+    public synchronized Map getGroupNames(CmsObject cms, Collection userNames) throws CmsException {
+
+        Map result = new HashMap(userNames.size());
+        Set unresolved = new HashSet();
+        Iterator itNames = userNames.iterator();
+        while (itNames.hasNext()) {
+            String userName = (String)itNames.next();
+            List groupNames = (List)m_memberships.get(userName);
+            if (groupNames != null) {
+                result.put(userName, groupNames);
+            } else {
+                unresolved.add(userName);
+            }
+        }
+        if (!unresolved.isEmpty()) {
+            Map memberships;
+            if (m_largeGroupFound || (unresolved.size() < getGroups(cms).size())) {
+                // reading the groups user by user needs fewer lookups than reading the members of all groups
+                memberships = readGroupsOfUsers(cms, unresolved);
+            } else {
+                memberships = readMembers(cms, unresolved);
+            }
+            result.putAll(memberships);
+        }
+        // only keep the memberships of the current page
+        m_memberships = result;
+        return result;
+    }
+
+    /**
+     * Discards all resolved memberships and groups, so that they are read again on the next call.<p>
+     * 
+     * A large group that has been found stays known, so the members of all groups are not read again.<p>
+     */
+    public synchronized void reset() {
+
+        m_groups = null;
+        m_groupsById = null;
+        m_memberships = new HashMap();
+    }
+
+    /**
+     * Adds the given group and its parent groups in the organizational unit to the given group names.<p>
+     * 
+     * @param groupNames the group names to add to
+     * @param group the group the user is member of
+     */
+    private void addGroupWithParents(Set groupNames, CmsGroup group) {
+
+        CmsGroup current = group;
+        while ((current != null) && groupNames.add(current.getName())) {
+            CmsUUID parentId = current.getParentId();
+            current = ((parentId == null) || parentId.isNullUUID()) ? null : (CmsGroup)m_groupsById.get(parentId);
+        }
+    }
+
+    /**
+     * Returns the groups of the organizational unit, reading them if required.<p>
+     * 
+     * @param cms the current users context
+     * 
+     * @return the groups of the organizational unit
+     * 
+     * @throws CmsException if reading the groups fails
+     */
+    private List getGroups(CmsObject cms) throws CmsException {
+
+        if (m_groups == null) {
+            List groups = OpenCms.getOrgUnitManager().getGroups(cms, m_ouFqn, m_includeSubOus);
+            Map groupsById = new HashMap(groups.size());
+            Iterator itGroups = groups.iterator();
+            while (itGroups.hasNext()) {
+                CmsGroup group = (CmsGroup)itGroups.next();
+                groupsById.put(group.getId(), group);
+            }
+            m_groupsById = groupsById;
+            m_groups = groups;
+        }
+        return m_groups;
+    }
+
+    /**
+     * Reads the groups of the given users one by one.<p>
+     * 
+     * @param cms the current users context
+     * @param userNames the names of the users to read the groups for
+     * 
+     * @return a map from user name to the sorted list of the group names of the user
+     * 
+     * @throws CmsException if reading the groups fails
+     */
+    private Map readGroupsOfUsers(CmsObject cms, Collection userNames) throws CmsException {
+
+        Map result = new HashMap(userNames.size());
+        Iterator itNames = userNames.iterator();
+        while (itNames.hasNext()) {
+            String userName = (String)itNames.next();
+            List groupNames = new ArrayList();
+            Iterator itGroups = cms.getGroupsOfUser(userName, false).iterator();
+            while (itGroups.hasNext()) {
+                CmsGroup group = (CmsGroup)itGroups.next();
+                // the groups of the user are read from all organizational units
+                if (m_groupsById.containsKey(group.getId())) {
+                    groupNames.add(group.getName());
+                }
+            }
+            Collections.sort(groupNames);
+            result.put(userName, groupNames);
+        }
+        return result;
+    }
+
+    /**
+     * Reads the members of all groups in one pass and returns the memberships of the given users.<p>
+     * 
+     * If a group has more than {@link #MAX_GROUP_MEMBERS} members, the pass is stopped 
+     * and the groups of the given users are read one by one.<p>
+     * 
+     * @param cms the current users context
+     * @param userNames the names of the users to return the memberships for
+     * 
+     * @return a map from user name to the sorted list of the group names of the user
+     * 
+     * @throws CmsException if reading the group members fails
+     */
+    private Map readMembers(CmsObject cms, Set userNames) throws CmsException {
+
+        Map memberships = new HashMap(userNames.size());
+        Iterator itNames = userNames.iterator();
+        while (itNames.hasNext()) {
+            memberships.put(itNames.next(), new TreeSet());
+        }
+        Iterator itGroups = getGroups(cms).iterator();
+        while (itGroups.hasNext()) {
+            CmsGroup group = (CmsGroup)itGroups.next();
+            List members = cms.getUsersOfGroup(group.getName());
+            if (members.size() > MAX_GROUP_MEMBERS) {
+                // never read the members of all groups again, large groups are too expensive
+                m_largeGroupFound = true;
+                return readGroupsOfUsers(cms, userNames);
+            }
+            Iterator itUsers = members.iterator();
+            while (itUsers.hasNext()) {
+                Set groupNames = (Set)memberships.get(((CmsUser)itUsers.next()).getName());
+                if (groupNames != null) {
+                    // the user is also an indirect member of all parent groups
+                    addGroupWithParents(groupNames, group);
+                }
+            }
+        }
+        Map result = new HashMap(memberships.size());
+        Iterator itEntries = memberships.entrySet().iterator();
+        while (itEntries.hasNext()) {
+            Map.Entry entry = (Map.Entry)itEntries.next();
+            result.put(entry.getKey(), new ArrayList((Set)entry.getValue()));
+        }
+        return result;
+    }
+}
\ No newline at end of file
@@ -29,10 +29,7 @@ package org.opencms.workplace.demos.list;
 
 import org.opencms.file.CmsUser;
 import org.opencms.jsp.CmsJspActionElement;
-import org.opencms.main.CmsException;
 import org.opencms.main.CmsRuntimeException;
-import org.opencms.main.OpenCms;
-import org.opencms.workplace.list.A_CmsListDialog;
 import org.opencms.workplace.list.CmsListColumnAlignEnum;
 import org.opencms.workplace.list.CmsListColumnDefinition;
 import org.opencms.workplace.list.CmsListItem;
@@ -40,10 +37,7 @@ import org.opencms.workplace.list.CmsListMetadata;
 import org.opencms.workplace.list.CmsListPrintIAction;
 import org.opencms.workplace.tools.accounts.Messages;
 
-import java.util.ArrayList;
 import java.util.Date;
-import java.util.Iterator;
-import java.util.List;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -54,7 +48,7 @@ import javax.servlet.jsp.PageContext;
  * 
  * @since 6.0.0 
  */
-public class CmsListDemo1 extends A_CmsListDialog {
+public class CmsListDemo1 extends A_CmsPagedListDialog {
 
     /** list column id constant. */
     public static final String LIST_COLUMN_ACTIVATE = "ca";
@@ -113,33 +107,40 @@ public class CmsListDemo1 extends A_CmsListDialog {
     }
 
     /**
-     * @see org.opencms.workplace.list.A_CmsListDialog#fillDetails(java.lang.String)
+     * @see org.opencms.workplace.demos.list.A_CmsPagedListDialog#createListItem(java.lang.Object)
      */
-    protected void fillDetails(String detailId) {
+    protected CmsListItem createListItem(Object item) {
+
+        CmsUser user = (CmsUser)item;
+        CmsListItem listItem = getList().newItem(user.getId().toString());
+        listItem.set(LIST_COLUMN_ACTIVATE, Boolean.valueOf(user.isEnabled()));
+        listItem.set(LIST_COLUMN_LOGIN, user.getName());
+        listItem.set(LIST_COLUMN_NAME, user.getFullName());
+        listItem.set(LIST_COLUMN_EMAIL, user.getEmail());
+        listItem.set(LIST_COLUMN_LASTLOGIN, new Date(user.getLastlogin()));
+        return listItem;
+    }
 
-        // noop
+    /**
+     * @see org.opencms.workplace.demos.list.A_CmsPagedListDialog#createListItemProvider()
+     */
+    protected I_CmsListItemProvider createListItemProvider() {
+
+        CmsUserListItemProvider provider = new CmsUserListItemProvider("/", true);
+        provider.addColumn(LIST_COLUMN_ACTIVATE, CmsUserListItemProvider.ATTR_ENABLED, false);
+        provider.addColumn(LIST_COLUMN_LOGIN, CmsUserListItemProvider.ATTR_NAME, false);
+        provider.addColumn(LIST_COLUMN_NAME, CmsUserListItemProvider.ATTR_FULLNAME, false);
+        provider.addColumn(LIST_COLUMN_EMAIL, CmsUserListItemProvider.ATTR_EMAIL, false);
+        provider.addColumn(LIST_COLUMN_LASTLOGIN, CmsUserListItemProvider.ATTR_LASTLOGIN, false);
+        return provider;
     }
 
     /**
-     * @see org.opencms.workplace.list.A_CmsListDialog#getListItems()
+     * @see org.opencms.workplace.list.A_CmsListDialog#fillDetails(java.lang.String)
      */
-    protected List getListItems() throws CmsException {
-
-        List ret = new ArrayList();
-        // get content
-        List users = OpenCms.getOrgUnitManager().getUsers(getCms(), "/", true);
-        Iterator itUsers = users.iterator();
-        while (itUsers.hasNext()) {
-            CmsUser user = (CmsUser)itUsers.next();
-            CmsListItem item = getList().newItem(user.getId().toString());
-            item.set(LIST_COLUMN_ACTIVATE, Boolean.valueOf(user.isEnabled()));
-            item.set(LIST_COLUMN_LOGIN, user.getName());
-            item.set(LIST_COLUMN_NAME, user.getFullName());
-            item.set(LIST_COLUMN_EMAIL, user.getEmail());
-            item.set(LIST_COLUMN_LASTLOGIN, new Date(user.getLastlogin()));
-            ret.add(item);
-        }
-        return ret;
+    protected void fillDetails(String detailId) {
+
+        // noop
     }
 
     /**
@@ -202,7 +203,8 @@ public class CmsListDemo1 extends A_CmsListDialog {
      */
     protected void setIndependentActions(CmsListMetadata metadata) {
 
-        // noop
+        // add the paging actions
+        super.setIndependentActions(metadata);
     }
 
     /**
@@ -27,17 +27,14 @@
 
 package org.opencms.workplace.demos.list;
 
-import org.opencms.file.CmsGroup;
 import org.opencms.file.CmsUser;
 import org.opencms.i18n.CmsMessageContainer;
 import org.opencms.jsp.CmsJspActionElement;
 import org.opencms.main.CmsException;
 import org.opencms.main.CmsRuntimeException;
-import org.opencms.main.OpenCms;
 import org.opencms.util.CmsStringUtil;
 import org.opencms.util.CmsUUID;
 import org.opencms.workplace.CmsDialog;
-import org.opencms.workplace.list.A_CmsListDialog;
 import org.opencms.workplace.list.A_CmsListDirectJsAction;
 import org.opencms.workplace.list.CmsListColumnAlignEnum;
 import org.opencms.workplace.list.CmsListColumnDefinition;
@@ -55,6 +52,7 @@ import org.opencms.workplace.list.CmsListSearchAction;
 import org.opencms.workplace.tools.accounts.Messages;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -70,7 +68,7 @@ import javax.servlet.jsp.PageContext;
  * 
  * @since 6.0.0 
  */
-public class CmsListDemo11 extends A_CmsListDialog {
+public class CmsListDemo11 extends A_CmsPagedListDialog {
 
     /** list action id constant. */
     public static final String LIST_ACTION_ACTIVATE = "aa";
@@ -145,6 +143,8 @@ public class CmsListDemo11 extends A_CmsListDialog {
     public void executeListIndepActions() {
 
         if (getParamListAction().equals(LIST_IACTION_REFRESH)) {
+            // read the users again
+            getListItemProvider().reset();
             refreshList();
         }
         super.executeListIndepActions();
@@ -222,60 +222,77 @@ public class CmsListDemo11 extends A_CmsListDialog {
         listSave();
     }
 
+    /**
+     * @see org.opencms.workplace.demos.list.A_CmsPagedListDialog#createListItem(java.lang.Object)
+     */
+    protected CmsListItem createListItem(Object item) {
+
+        CmsUser user = (CmsUser)item;
+        CmsListItem listItem = getList().newItem(user.getId().toString());
+        listItem.set(LIST_COLUMN_LOGIN, user.getName());
+        listItem.set(LIST_COLUMN_NAME, user.getFullName());
+        listItem.set(LIST_COLUMN_EMAIL, user.getEmail());
+        listItem.set(LIST_COLUMN_LASTLOGIN, new Date(user.getLastlogin()));
+        return listItem;
+    }
+
+    /**
+     * @see org.opencms.workplace.demos.list.A_CmsPagedListDialog#createListItemProvider()
+     */
+    protected I_CmsListItemProvider createListItemProvider() {
+
+        CmsUserListItemProvider provider = new CmsUserListItemProvider("/", true);
+        provider.addColumn(LIST_COLUMN_LOGIN, CmsUserListItemProvider.ATTR_NAME, true);
+        provider.addColumn(LIST_COLUMN_NAME, CmsUserListItemProvider.ATTR_FULLNAME, false);
+        provider.addColumn(LIST_COLUMN_EMAIL, CmsUserListItemProvider.ATTR_EMAIL, true);
+        provider.addColumn(LIST_COLUMN_LASTLOGIN, CmsUserListItemProvider.ATTR_LASTLOGIN, false);
+        return provider;
+    }
+
     /**
      * @see org.opencms.workplace.list.A_CmsListDialog#fillDetails(java.lang.String)
      */
     protected void fillDetails(String detailId) {
 
+        if (!detailId.equals(LIST_DETAIL_GROUPS)) {
+            return;
+        }
         // get content
         List users = getList().getAllContent();
+        List userNames = new ArrayList(users.size());
         Iterator itUsers = users.iterator();
+        while (itUsers.hasNext()) {
+            userNames.add(((CmsListItem)itUsers.next()).get(LIST_COLUMN_LOGIN).toString());
+        }
+        // resolve the groups of all users of the current page at once
+        CmsGroupMembershipLoader loader = ((CmsUserListItemProvider)getListItemProvider()).getGroupMembershipLoader();
+        Map groupsOfUsers;
+        try {
+            groupsOfUsers = loader.getGroupNames(getCms(), userNames);
+        } catch (CmsException e) {
+            // noop
+            groupsOfUsers = Collections.EMPTY_MAP;
+        }
+        itUsers = users.iterator();
         while (itUsers.hasNext()) {
             CmsListItem item = (CmsListItem)itUsers.next();
-            String userName = item.get(LIST_COLUMN_LOGIN).toString();
             StringBuffer html = new StringBuffer(512);
-            try {
-                if (detailId.equals(LIST_DETAIL_GROUPS)) {
-                    // groups
-                    Iterator itGroups = getCms().getGroupsOfUser(userName, false).iterator();
-                    while (itGroups.hasNext()) {
-                        html.append(((CmsGroup)itGroups.next()).getName());
-                        if (itGroups.hasNext()) {
-                            html.append("<br>");
-                        }
-                        html.append("\n");
+            List groupNames = (List)groupsOfUsers.get(item.get(LIST_COLUMN_LOGIN).toString());
+            if (groupNames != null) {
+                // groups
+                Iterator itGroups = groupNames.iterator();
+                while (itGroups.hasNext()) {
+                    html.append(itGroups.next());
+                    if (itGroups.hasNext()) {
+                        html.append("<br>");
                     }
-                } else {
-                    continue;
+                    html.append("\n");
                 }
-            } catch (Exception e) {
-                // noop
             }
             item.set(detailId, html.toString());
         }
     }
 
-    /**
-     * @see org.opencms.workplace.list.A_CmsListDialog#getListItems()
-     */
-    protected List getListItems() throws CmsException {
-
-        List ret = new ArrayList();
-        // get content
-        List users = OpenCms.getOrgUnitManager().getUsers(getCms(), "/", true);
-        Iterator itUsers = users.iterator();
-        while (itUsers.hasNext()) {
-            CmsUser user = (CmsUser)itUsers.next();
-            CmsListItem item = getList().newItem(user.getId().toString());
-            item.set(LIST_COLUMN_LOGIN, user.getName());
-            item.set(LIST_COLUMN_NAME, user.getFullName());
-            item.set(LIST_COLUMN_EMAIL, user.getEmail());
-            item.set(LIST_COLUMN_LASTLOGIN, new Date(user.getLastlogin()));
-            ret.add(item);
-        }
-        return ret;
-    }
-
     /**
      * @see org.opencms.workplace.CmsWorkplace#initMessages()
      */
@@ -411,6 +428,9 @@ public class CmsListDemo11 extends A_CmsListDialog {
      */
     protected void setIndependentActions(CmsListMetadata metadata) {
 
+        // add the paging actions
+        super.setIndependentActions(metadata);
+
         // add user groups details
         CmsListItemDetails userGroupsDetails = new CmsListItemDetails(LIST_DETAIL_GROUPS);
         userGroupsDetails.setAtColumn(LIST_COLUMN_LOGIN);
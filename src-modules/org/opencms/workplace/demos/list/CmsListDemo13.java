@@ -27,14 +27,11 @@
 
 package org.opencms.workplace.demos.list;
 
-import org.opencms.file.CmsGroup;
 import org.opencms.file.CmsUser;
 import org.opencms.jsp.CmsJspActionElement;
 import org.opencms.main.CmsException;
 import org.opencms.main.CmsRuntimeException;
-import org.opencms.main.OpenCms;
 import org.opencms.workplace.CmsWorkplaceSettings;
-import org.opencms.workplace.list.A_CmsListDialog;
 import org.opencms.workplace.list.CmsListColumnAlignEnum;
 import org.opencms.workplace.list.CmsListColumnDefinition;
 import org.opencms.workplace.list.CmsListDateMacroFormatter;
@@ -48,10 +45,12 @@ import org.opencms.workplace.tools.accounts.Messages;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
@@ -64,7 +63,7 @@ import javax.servlet.jsp.PageContext;
  * 
  * @since 6.0.0 
  */
-public class CmsListDemo13 extends A_CmsListDialog {
+public class CmsListDemo13 extends A_CmsPagedListDialog {
 
     /** list column id constant. */
     public static final String LIST_COLUMN_ACTIVATE = "ca";
@@ -153,6 +152,7 @@ public class CmsListDemo13 extends A_CmsListDialog {
     protected String customHtmlStart() {
 
         StringBuffer result = new StringBuffer(512);
+        result.append(super.customHtmlStart());
         result.append(dialogBlockStart("Demo block title")); // should be localizaed message
         result.append("some blah-blah:\n");
         result.append("nqfqfoi qwemofmfq qmwfomfq fqofepqo fqmpfoqe qdxmpdqwmqwp dqwpq  df; "
@@ -189,61 +189,79 @@ public class CmsListDemo13 extends A_CmsListDialog {
         throwListUnsupportedActionException();
     }
 
+    /**
+     * @see org.opencms.workplace.demos.list.A_CmsPagedListDialog#createListItem(java.lang.Object)
+     */
+    protected CmsListItem createListItem(Object item) {
+
+        CmsUser user = (CmsUser)item;
+        CmsListItem listItem = getList().newItem(user.getId().toString());
+        listItem.set(LIST_COLUMN_ACTIVATE, Boolean.valueOf(user.isEnabled()));
+        listItem.set(LIST_COLUMN_LOGIN, user.getName());
+        listItem.set(LIST_COLUMN_NAME, user.getFullName());
+        listItem.set(LIST_COLUMN_EMAIL, user.getEmail());
+        listItem.set(LIST_COLUMN_LASTLOGIN, new Date(user.getLastlogin()));
+        return listItem;
+    }
+
+    /**
+     * @see org.opencms.workplace.demos.list.A_CmsPagedListDialog#createListItemProvider()
+     */
+    protected I_CmsListItemProvider createListItemProvider() {
+
+        CmsUserListItemProvider provider = new CmsUserListItemProvider("/", true);
+        provider.addColumn(LIST_COLUMN_ACTIVATE, CmsUserListItemProvider.ATTR_ENABLED, false);
+        provider.addColumn(LIST_COLUMN_LOGIN, CmsUserListItemProvider.ATTR_NAME, true);
+        provider.addColumn(LIST_COLUMN_NAME, CmsUserListItemProvider.ATTR_FULLNAME, false);
+        provider.addColumn(LIST_COLUMN_EMAIL, CmsUserListItemProvider.ATTR_EMAIL, true);
+        provider.addColumn(LIST_COLUMN_LASTLOGIN, CmsUserListItemProvider.ATTR_LASTLOGIN, false);
+        return provider;
+    }
+
     /**
      * @see org.opencms.workplace.list.A_CmsListDialog#fillDetails(java.lang.String)
      */
     protected void fillDetails(String detailId) {
 
+        if (!detailId.equals(LIST_DETAIL_GROUPS)) {
+            return;
+        }
         // get content
         List users = getList().getAllContent();
+        List userNames = new ArrayList(users.size());
         Iterator itUsers = users.iterator();
+        while (itUsers.hasNext()) {
+            userNames.add(((CmsListItem)itUsers.next()).get(LIST_COLUMN_LOGIN).toString());
+        }
+        // resolve the groups of all users of the current page at once
+        CmsGroupMembershipLoader loader = ((CmsUserListItemProvider)getListItemProvider()).getGroupMembershipLoader();
+        Map groupsOfUsers;
+        try {
+            groupsOfUsers = loader.getGroupNames(getCms(), userNames);
+        } catch (CmsException e) {
+            // noop
+            groupsOfUsers = Collections.EMPTY_MAP;
+        }
+        itUsers = users.iterator();
         while (itUsers.hasNext()) {
             CmsListItem item = (CmsListItem)itUsers.next();
-            String userName = item.get(LIST_COLUMN_LOGIN).toString();
             StringBuffer html = new StringBuffer(512);
-            try {
-                if (detailId.equals(LIST_DETAIL_GROUPS)) {
-                    // groups
-                    Iterator itGroups = getCms().getGroupsOfUser(userName, false).iterator();
-                    while (itGroups.hasNext()) {
-                        html.append(((CmsGroup)itGroups.next()).getName());
-                        if (itGroups.hasNext()) {
-                            html.append("<br>");
-                        }
-                        html.append("\n");
+            List groupNames = (List)groupsOfUsers.get(item.get(LIST_COLUMN_LOGIN).toString());
+            if (groupNames != null) {
+                // groups
+                Iterator itGroups = groupNames.iterator();
+                while (itGroups.hasNext()) {
+                    html.append(itGroups.next());
+                    if (itGroups.hasNext()) {
+                        html.append("<br>");
                     }
-                } else {
-                    continue;
+                    html.append("\n");
                 }
-            } catch (Exception e) {
-                // noop
             }
             item.set(detailId, html.toString());
         }
     }
 
-    /**
-     * @see org.opencms.workplace.list.A_CmsListDialog#getListItems()
-     */
-    protected List getListItems() throws CmsException {
-
-        List ret = new ArrayList();
-        // get content
-        List users = OpenCms.getOrgUnitManager().getUsers(getCms(), "/", true);
-        Iterator itUsers = users.iterator();
-        while (itUsers.hasNext()) {
-            CmsUser user = (CmsUser)itUsers.next();
-            CmsListItem item = getList().newItem(user.getId().toString());
-            item.set(LIST_COLUMN_ACTIVATE, Boolean.valueOf(user.isEnabled()));
-            item.set(LIST_COLUMN_LOGIN, user.getName());
-            item.set(LIST_COLUMN_NAME, user.getFullName());
-            item.set(LIST_COLUMN_EMAIL, user.getEmail());
-            item.set(LIST_COLUMN_LASTLOGIN, new Date(user.getLastlogin()));
-            ret.add(item);
-        }
-        return ret;
-    }
-
     /**
      * @see org.opencms.workplace.CmsWorkplace#initMessages()
      */
@@ -326,6 +344,9 @@ public class CmsListDemo13 extends A_CmsListDialog {
      */
     protected void setIndependentActions(CmsListMetadata metadata) {
 
+        // add the paging actions
+        super.setIndependentActions(metadata);
+
         // add user groups details
         CmsListItemDetails userGroupsDetails = new CmsListItemDetails(LIST_DETAIL_GROUPS);
         userGroupsDetails.setAtColumn(LIST_COLUMN_LOGIN);
@@ -0,0 +1,207 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software GmbH, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+
+
+package org.opencms.workplace.demos.list;
+
+import org.opencms.workplace.list.CmsListOrderEnum;
+
+import java.util.Locale;
+
+/**
+ * Describes the page of list items a {@link I_CmsListItemProvider} has to read.<p>
+ * 
+ * The query contains the current search filter, the sorted column with its order and
+ * the requested page, so that the provider can filter, sort and page the items itself
+ * instead of having the list sort and search all items in memory.<p>
+ * 
+ * @since 8.0.1 
+ */
+public class CmsListItemQuery {
+
+    /** The locale to compare and match the column values with. */
+    private Locale m_locale;
+
+    /** The sort order of the sorted column. */
+    private CmsListOrderEnum m_order;
+
+    /** The requested page, starting with 1. */
+    private int m_page;
+
+    /** The maximal number of items per page. */
+    private int m_pageSize;
+
+    /** The search filter, may be empty. */
+    private String m_searchFilter;
+
+    /** The id of the sorted column, may be <code>null</code>. */
+    private String m_sortedColumn;
+
+    /**
+     * Creates a new list item query.<p>
+     * 
+     * @param searchFilter the search filter, may be <code>null</code>
+     * @param sortedColumn the id of the sorted column, may be <code>null</code>
+     * @param order the sort order of the sorted column, may be <code>null</code>
+     * @param locale the locale to compare and match the column values with
+     * @param page the requested page, starting with 1
+     * @param pageSize the maximal number of items per page
+     */
+    public CmsListItemQuery(
+        String searchFilter,
+        String sortedColumn,
+        CmsListOrderEnum order,
+        Locale locale,
+        int page,
+        int pageSize) {
+
+        m_searchFilter = (searchFilter == null) ? "" : searchFilter.trim();
+        m_sortedColumn = sortedColumn;
+        m_order = (order == null) ? CmsListOrderEnum.ORDER_ASCENDING : order;
+        m_locale = locale;
+        m_page = Math.max(1, page);
+        m_pageSize = Math.max(1, pageSize);
+    }
+
+    /**
+     * Returns the index of the first item of the requested page.<p>
+     * 
+     * @return the index of the first item of the requested page
+     */
+    public int getFirstIndex() {
+
+        return (m_page - 1) * m_pageSize;
+    }
+
+    /**
+     * Returns the locale to compare and match the column values with.<p>
+     * 
+     * @return the locale to compare and match the column values with
+     */
+    public Locale getLocale() {
+
+        return m_locale;
+    }
+
+    /**
+     * Returns the sort order of the sorted column.<p>
+     * 
+     * @return the sort order of the sorted column
+     */
+    public CmsListOrderEnum getOrder() {
+
+        return m_order;
+    }
+
+    /**
+     * Returns the requested page, starting with 1.<p>
+     * 
+     * @return the requested page
+     */
+    public int getPage() {
+
+        return m_page;
+    }
+
+    /**
+     * Returns the number of pages needed to display the given number of items.<p>
+     * 
+     * @param itemCount the number of items
+     * 
+     * @return the number of pages, at least 1
+     */
+    public int getPageCount(int itemCount) {
+
+        return Math.max(1, ((itemCount - 1) / m_pageSize) + 1);
+    }
+
+    /**
+     * Returns the maximal number of items per page.<p>
+     * 
+     * @return the maximal number of items per page
+     */
+    public int getPageSize() {
+
+        return m_pageSize;
+    }
+
+    /**
+     * Returns the search filter.<p>
+     * 
+     * @return the search filter, an empty String if the items are not filtered
+     */
+    public String getSearchFilter() {
+
+        return m_searchFilter;
+    }
+
+    /**
+     * Returns the id of the sorted column.<p>
+     * 
+     * @return the id of the sorted column, or <code>null</code> if the items are not sorted
+     */
+    public String getSortedColumn() {
+
+        return m_sortedColumn;
+    }
+
+    /**
+     * Checks if this query selects the same items in the same order as the given one, ignoring the page.<p>
+     * 
+     * @param query the query to compare with
+     * 
+     * @return <code>true</code> if both queries only differ in the requested page
+     */
+    public boolean isSameSelection(CmsListItemQuery query) {
+
+        if (query == null) {
+            return false;
+        }
+        if (m_sortedColumn == null) {
+            if (query.getSortedColumn() != null) {
+                return false;
+            }
+        } else if (!m_sortedColumn.equals(query.getSortedColumn())) {
+            return false;
+        }
+        return m_order.equals(query.getOrder())
+            && m_searchFilter.equals(query.getSearchFilter())
+            && (m_pageSize == query.getPageSize());
+    }
+
+    /**
+     * Returns a copy of this query for the given page.<p>
+     * 
+     * @param page the requested page, starting with 1
+     * 
+     * @return a copy of this query for the given page
+     */
+    public CmsListItemQuery toPage(int page) {
+
+        return new CmsListItemQuery(m_searchFilter, m_sortedColumn, m_order, m_locale, page, m_pageSize);
+    }
+}
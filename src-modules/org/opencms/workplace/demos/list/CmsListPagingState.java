@@ -0,0 +1,108 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software GmbH, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+
+
+package org.opencms.workplace.demos.list;
+
+/**
+ * The paging state of a {@link A_CmsPagedListDialog}, kept in the session of the current user.<p>
+ * 
+ * @since 8.0.1 
+ */
+final class CmsListPagingState {
+
+    /** The number of items matching the current query. */
+    private int m_itemCount;
+
+    /** The provider of the list items. */
+    private I_CmsListItemProvider m_provider;
+
+    /** The current query. */
+    private CmsListItemQuery m_query;
+
+    /**
+     * Creates a new paging state.<p>
+     * 
+     * @param provider the provider of the list items
+     * @param query the initial query
+     */
+    CmsListPagingState(I_CmsListItemProvider provider, CmsListItemQuery query) {
+
+        m_provider = provider;
+        m_query = query;
+    }
+
+    /**
+     * Returns the number of items matching the current query.<p>
+     * 
+     * @return the number of items matching the current query
+     */
+    int getItemCount() {
+
+        return m_itemCount;
+    }
+
+    /**
+     * Returns the provider of the list items.<p>
+     * 
+     * @return the provider of the list items
+     */
+    I_CmsListItemProvider getProvider() {
+
+        return m_provider;
+    }
+
+    /**
+     * Returns the current query.<p>
+     * 
+     * @return the current query
+     */
+    CmsListItemQuery getQuery() {
+
+        return m_query;
+    }
+
+    /**
+     * Sets the number of items matching the current query.<p>
+     * 
+     * @param itemCount the number of items matching the current query
+     */
+    void setItemCount(int itemCount) {
+
+        m_itemCount = itemCount;
+    }
+
+    /**
+     * Sets the current query.<p>
+     * 
+     * @param query the current query
+     */
+    void setQuery(CmsListItemQuery query) {
+
+        m_query = query;
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software GmbH, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+
+
+package org.opencms.workplace.demos.list;
+
+import org.opencms.file.CmsUser;
+import org.opencms.util.CmsUUID;
+
+import java.util.Date;
+
+/**
+ * The values of a single user account kept by a {@link CmsUserListItemProvider}.<p>
+ * 
+ * Only the values needed to filter and sort the user list are kept, the user itself is
+ * read again when it is displayed.<p>
+ * 
+ * @since 8.0.1 
+ */
+final class CmsUserListEntry {
+
+    /** The id of the user. */
+    private CmsUUID m_id;
+
+    /** The values of the user, indexed by the attribute constants of {@link CmsUserListItemProvider}. */
+    private Object[] m_values;
+
+    /**
+     * Creates a new entry for the given user.<p>
+     * 
+     * @param user the user to create the entry for
+     */
+    CmsUserListEntry(CmsUser user) {
+
+        m_id = user.getId();
+        m_values = new Object[CmsUserListItemProvider.ATTR_NAME + 1];
+        m_values[CmsUserListItemProvider.ATTR_EMAIL] = user.getEmail();
+        m_values[CmsUserListItemProvider.ATTR_ENABLED] = Boolean.valueOf(user.isEnabled());
+        m_values[CmsUserListItemProvider.ATTR_FULLNAME] = user.getFullName();
+        m_values[CmsUserListItemProvider.ATTR_LASTLOGIN] = new Date(user.getLastlogin());
+        m_values[CmsUserListItemProvider.ATTR_NAME] = user.getName();
+    }
+
+    /**
+     * Returns the id of the user.<p>
+     * 
+     * @return the id of the user
+     */
+    CmsUUID getId() {
+
+        return m_id;
+    }
+
+    /**
+     * Returns the value of the given attribute.<p>
+     * 
+     * @param attribute one of the attribute constants of {@link CmsUserListItemProvider}
+     * 
+     * @return the value of the given attribute, may be <code>null</code>
+     */
+    Object getValue(int attribute) {
+
+        return m_values[attribute];
+    }
+
+    /**
+     * Checks if the value of the given attribute contains the given lower case filter, ignoring case.<p>
+     * 
+     * @param attribute one of the attribute constants of {@link CmsUserListItemProvider}
+     * @param filter the lower case filter
+     * 
+     * @return <code>true</code> if the value of the given attribute matches the filter
+     */
+    boolean matches(int attribute, String filter) {
+
+        Object value = m_values[attribute];
+        return (value != null) && (value.toString().toLowerCase().indexOf(filter) > -1);
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software GmbH, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+
+
+package org.opencms.workplace.demos.list;
+
+import java.text.Collator;
+import java.util.Comparator;
+import java.util.Locale;
+
+/**
+ * Compares {@link CmsUserListEntry} objects by the value of a single attribute.<p>
+ * 
+ * Strings are compared with the collator of the list locale, like the list columns do.<p>
+ * 
+ * @since 8.0.1 
+ */
+final class CmsUserListEntryComparator implements Comparator {
+
+    /** Indicates if the entries are sorted in ascending order. */
+    private boolean m_ascending;
+
+    /** The attribute to compare. */
+    private int m_attribute;
+
+    /** The collator to compare String values with. */
+    private Collator m_collator;
+
+    /**
+     * Creates a new comparator.<p>
+     * 
+     * @param attribute one of the attribute constants of {@link CmsUserListItemProvider}
+     * @param ascending if <code>true</code>, the entries are sorted in ascending order
+     * @param locale the locale to compare String values with
+     */
+    CmsUserListEntryComparator(int attribute, boolean ascending, Locale locale) {
+
+        m_attribute = attribute;
+        m_ascending = ascending;
+        m_collator = (locale == null) ? Collator.getInstance() : Collator.getInstance(locale);
+    }
+
+    /**
+     * @see java.util.Comparator#compare(java.lang.Object, java.lang.Object)
+     */
+    public int compare(Object o1, Object o2) {
+
+        int result = compareValues(
+            ((CmsUserListEntry)o1).getValue(m_attribute),
+            ((CmsUserListEntry)o2).getValue(m_attribute));
+        return m_ascending ? result : -result;
+    }
+
+    /**
+     * Compares two attribute values, <code>null</code> values are sorted first.<p>
+     * 
+     * @param value1 the first value
+     * @param value2 the second value
+     * 
+     * @return the comparison result
+     */
+    private int compareValues(Object value1, Object value2) {
+
+        if (value1 == value2) {
+            return 0;
+        }
+        if (value1 == null) {
+            return -1;
+        }
+        if (value2 == null) {
+            return 1;
+        }
+        if (value1 instanceof String) {
+            return m_collator.compare(value1, value2);
+        }
+        if (value1 instanceof Boolean) {
+            boolean b1 = ((Boolean)value1).booleanValue();
+            boolean b2 = ((Boolean)value2).booleanValue();
+            return (b1 == b2) ? 0 : (b1 ? 1 : -1);
+        }
+        return ((Comparable)value1).compareTo(value2);
+    }
+}
@@ -0,0 +1,256 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software GmbH, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+
+
+package org.opencms.workplace.demos.list;
+
+import org.opencms.file.CmsObject;
+import org.opencms.file.CmsUser;
+import org.opencms.main.CmsException;
+import org.opencms.main.OpenCms;
+import org.opencms.workplace.list.CmsListOrderEnum;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Provides the user accounts of an organizational unit page by page.<p>
+ * 
+ * The user accounts are read only once per dialog session, and only the values of the columns
+ * that can be sorted or searched are kept. Filtering and sorting is done on these values, and only
+ * the users of the requested page are read again and converted to list items.<p>
+ * 
+ * The list columns are mapped to user attributes with {@link #addColumn(String, int, boolean)}.<p>
+ * 
+ * @since 8.0.1 
+ */
+public class CmsUserListItemProvider implements I_CmsListItemProvider {
+
+    /** User attribute constant for the email address. */
+    public static final int ATTR_EMAIL = 0;
+
+    /** User attribute constant for the enabled flag. */
+    public static final int ATTR_ENABLED = 1;
+
+    /** User attribute constant for the full name. */
+    public static final int ATTR_FULLNAME = 2;
+
+    /** User attribute constant for the last login date. */
+    public static final int ATTR_LASTLOGIN = 3;
+
+    /** User attribute constant for the login name. */
+    public static final int ATTR_NAME = 4;
+
+    /** The user attributes of the list columns. */
+    private Map m_columns;
+
+    /** The entries of all users, sorted by login name. */
+    private List m_entries;
+
+    /** The loader for the groups of the listed users. */
+    private CmsGroupMembershipLoader m_groupMembershipLoader;
+
+    /** Indicates if the users of sub organizational units are included. */
+    private boolean m_includeSubOus;
+
+    /** The fully qualified name of the organizational unit to read the users from. */
+    private String m_ouFqn;
+
+    /** The user attributes of the searchable list columns. */
+    private List m_searchAttributes;
+
+    /** The filtered and sorted entries of the last query. */
+    private List m_selection;
+
+    /** The query the selection was created for. */
+    private CmsListItemQuery m_selectionQuery;
+
+    /**
+     * Creates a new user list item provider.<p>
+     * 
+     * @param ouFqn the fully qualified name of the organizational unit to read the users from
+     * @param includeSubOus if <code>true</code>, the users of sub organizational units are included
+     */
+    public CmsUserListItemProvider(String ouFqn, boolean includeSubOus) {
+
+        m_ouFqn = ouFqn;
+        m_includeSubOus = includeSubOus;
+        m_columns = new HashMap();
+        m_searchAttributes = new ArrayList();
+        m_groupMembershipLoader = new CmsGroupMembershipLoader(ouFqn, includeSubOus);
+    }
+
+    /**
+     * Maps a list column to a user attribute.<p>
+     * 
+     * @param columnId the id of the list column
+     * @param attribute one of the <code>ATTR_</code> constants of this class
+     * @param searchable if <code>true</code>, the search filter is matched against the attribute
+     */
+    public void addColumn(String columnId, int attribute, boolean searchable) {
+
+        if ((attribute < ATTR_EMAIL) || (attribute > ATTR_NAME)) {
+            throw new IllegalArgumentException(String.valueOf(attribute));
+        }
+        Integer attr = new Integer(attribute);
+        m_columns.put(columnId, attr);
+        if (searchable && !m_searchAttributes.contains(attr)) {
+            m_searchAttributes.add(attr);
+        }
+    }
+
+    /**
+     * Returns the loader for the groups of the listed users.<p>
+     * 
+     * The loader is kept as long as this provider, so the groups of the organizational unit are read only once.<p>
+     * 
+     * @return the loader for the groups of the listed users
+     */
+    public CmsGroupMembershipLoader getGroupMembershipLoader() {
+
+        return m_groupMembershipLoader;
+    }
+
+    /**
+     * @see org.opencms.workplace.demos.list.I_CmsListItemProvider#getItemCount(org.opencms.file.CmsObject, org.opencms.workplace.demos.list.CmsListItemQuery)
+     */
+    public int getItemCount(CmsObject cms, CmsListItemQuery query) throws CmsException {
+
+        return getSelection(cms, query).size();
+    }
+
+    /**
+     * @see org.opencms.workplace.demos.list.I_CmsListItemProvider#getItems(org.opencms.file.CmsObject, org.opencms.workplace.demos.list.CmsListItemQuery)
+     */
+    public List getItems(CmsObject cms, CmsListItemQuery query) throws CmsException {
+
+        List selection = getSelection(cms, query);
+        int first = Math.min(query.getFirstIndex(), selection.size());
+        int last = Math.min(first + query.getPageSize(), selection.size());
+        List result = new ArrayList(last - first);
+        for (int i = first; i < last; i++) {
+            CmsUserListEntry entry = (CmsUserListEntry)selection.get(i);
+            try {
+                result.add(cms.readUser(entry.getId()));
+            } catch (CmsException e) {
+                // the user has been deleted since the entries were read, skip it
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @see org.opencms.workplace.demos.list.I_CmsListItemProvider#reset()
+     */
+    public synchronized void reset() {
+
+        m_entries = null;
+        m_selection = null;
+        m_selectionQuery = null;
+        m_groupMembershipLoader.reset();
+    }
+
+    /**
+     * Returns the entries of all users, reading them if required.<p>
+     * 
+     * @param cms the current users context
+     * 
+     * @return the entries of all users, sorted by login name
+     * 
+     * @throws CmsException if reading the users fails
+     */
+    private List getEntries(CmsObject cms) throws CmsException {
+
+        if (m_entries == null) {
+            List users = OpenCms.getOrgUnitManager().getUsers(cms, m_ouFqn, m_includeSubOus);
+            List entries = new ArrayList(users.size());
+            Iterator itUsers = users.iterator();
+            while (itUsers.hasNext()) {
+                entries.add(new CmsUserListEntry((CmsUser)itUsers.next()));
+            }
+            Collections.sort(entries, new CmsUserListEntryComparator(
+                ATTR_NAME,
+                true,
+                cms.getRequestContext().getLocale()));
+            m_entries = entries;
+        }
+        return m_entries;
+    }
+
+    /**
+     * Returns the filtered and sorted entries for the given query.<p>
+     * 
+     * The result of the last query is kept, so that switching pages does not filter and sort again.<p>
+     * 
+     * @param cms the current users context
+     * @param query the query to get the entries for
+     * 
+     * @return the filtered and sorted entries
+     * 
+     * @throws CmsException if reading the users fails
+     */
+    private synchronized List getSelection(CmsObject cms, CmsListItemQuery query) throws CmsException {
+
+        if ((m_selection != null) && query.isSameSelection(m_selectionQuery)) {
+            return m_selection;
+        }
+        List entries = getEntries(cms);
+        List selection;
+        String filter = query.getSearchFilter().toLowerCase();
+        if ((filter.length() == 0) || m_searchAttributes.isEmpty()) {
+            selection = new ArrayList(entries);
+        } else {
+            selection = new ArrayList();
+            Iterator itEntries = entries.iterator();
+            while (itEntries.hasNext()) {
+                CmsUserListEntry entry = (CmsUserListEntry)itEntries.next();
+                Iterator itAttributes = m_searchAttributes.iterator();
+                while (itAttributes.hasNext()) {
+                    if (entry.matches(((Integer)itAttributes.next()).intValue(), filter)) {
+                        selection.add(entry);
+                        break;
+                    }
+                }
+            }
+        }
+        Integer attribute = (query.getSortedColumn() == null) ? null : (Integer)m_columns.get(query.getSortedColumn());
+        if (attribute != null) {
+            // the sort is stable, so equal values stay sorted by login name
+            Collections.sort(selection, new CmsUserListEntryComparator(
+                attribute.intValue(),
+                !CmsListOrderEnum.ORDER_DESCENDING.equals(query.getOrder()),
+                query.getLocale()));
+        }
+        m_selection = selection;
+        m_selectionQuery = query;
+        return selection;
+    }
+}
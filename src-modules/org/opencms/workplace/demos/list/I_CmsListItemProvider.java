@@ -0,0 +1,82 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software GmbH, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+
+
+package org.opencms.workplace.demos.list;
+
+import org.opencms.file.CmsObject;
+import org.opencms.main.CmsException;
+
+import java.util.List;
+
+/**
+ * Provides the items of a paged list dialog page by page.<p>
+ * 
+ * Implementations are responsible for filtering and sorting the items as described by
+ * the {@link CmsListItemQuery}, so that only the items of the displayed page have to be
+ * read and converted to list items.<p>
+ * 
+ * A provider instance is kept for the whole dialog session of a single user,
+ * so it may hold state that is expensive to compute.<p>
+ * 
+ * @since 8.0.1 
+ * 
+ * @see A_CmsPagedListDialog
+ */
+public interface I_CmsListItemProvider {
+
+    /**
+     * Returns the number of items matching the search filter of the given query.<p>
+     * 
+     * @param cms the current users context
+     * @param query the query describing the search filter
+     * 
+     * @return the number of items matching the search filter of the given query
+     * 
+     * @throws CmsException if something goes wrong
+     */
+    int getItemCount(CmsObject cms, CmsListItemQuery query) throws CmsException;
+
+    /**
+     * Returns the filtered and sorted items of the page requested by the given query.<p>
+     * 
+     * The returned objects are converted to list items by {@link A_CmsPagedListDialog#createListItem(Object)}.<p>
+     * 
+     * @param cms the current users context
+     * @param query the query describing the requested page
+     * 
+     * @return the items of the requested page, may be less than the page size
+     * 
+     * @throws CmsException if something goes wrong
+     */
+    List getItems(CmsObject cms, CmsListItemQuery query) throws CmsException;
+
+    /**
+     * Discards all state kept by this provider, so that the next call reads the items again.<p>
+     */
+    void reset();
+}
@@ -151,6 +151,21 @@ public final class Messages extends A_CmsMessageBundle {
     /** Message constant for key in the resource bundle. */
     public static final String GUI_LISTDEMO_COMBINATIONS_GROUP_0 = "GUI_LISTDEMO_COMBINATIONS_GROUP_0";
 
+    /** Message constant for key in the resource bundle. */
+    public static final String GUI_LISTDEMO_PAGE_INFO_3 = "GUI_LISTDEMO_PAGE_INFO_3";
+
+    /** Message constant for key in the resource bundle. */
+    public static final String GUI_LISTDEMO_PAGE_NEXT_HELP_0 = "GUI_LISTDEMO_PAGE_NEXT_HELP_0";
+
+    /** Message constant for key in the resource bundle. */
+    public static final String GUI_LISTDEMO_PAGE_NEXT_NAME_0 = "GUI_LISTDEMO_PAGE_NEXT_NAME_0";
+
+    /** Message constant for key in the resource bundle. */
+    public static final String GUI_LISTDEMO_PAGE_PREVIOUS_HELP_0 = "GUI_LISTDEMO_PAGE_PREVIOUS_HELP_0";
+
+    /** Message constant for key in the resource bundle. */
+    public static final String GUI_LISTDEMO_PAGE_PREVIOUS_NAME_0 = "GUI_LISTDEMO_PAGE_PREVIOUS_NAME_0";
+
     /** Message constant for key in the resource bundle. */
     public static final String GUI_LISTDEMO_TOOL_GROUP_0 = "GUI_LISTDEMO_TOOL_GROUP_0";
 
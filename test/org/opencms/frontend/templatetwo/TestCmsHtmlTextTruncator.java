@@ -0,0 +1,90 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software GmbH, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+
+package org.opencms.frontend.templatetwo;
+
+import org.opencms.util.CmsHtmlExtractor;
+
+import junit.framework.TestCase;
+
+/**
+ * Compares the plain text extracted by the {@link CmsHtmlTextTruncator} with the text extracted by the 
+ * <code>StringBean</code> of the HTML parser, used by {@link CmsHtmlExtractor}.<p>
+ * 
+ * @since 8.0.2
+ */
+public class TestCmsHtmlTextTruncator extends TestCase {
+
+    /** The HTML inputs to compare. */
+    private static final String[] HTML = {
+        "<p>Hello</p>World",
+        "<pre>a   b</pre>c",
+        "<div>x</div>  <div>y</div>",
+        "a <b>b</b>",
+        "a<b> b</b>  c",
+        "<h1>Title</h1><p>Some &amp; more &auml;&nbsp;text</p><!-- comment --><p>end</p>",
+        "<script type=\"text/javascript\">var a = '<p>';</script><STYLE>p {}</Style>text"};
+
+    /**
+     * Default JUnit constructor.<p>
+     * 
+     * @param arg0 JUnit parameters
+     */
+    public TestCmsHtmlTextTruncator(String arg0) {
+
+        super(arg0);
+    }
+
+    /**
+     * Tests that the complete plain text is the same as the text extracted by the <code>StringBean</code>.<p>
+     * 
+     * @throws Exception if the test fails
+     */
+    public void testCompletePlainText() throws Exception {
+
+        for (int i = 0; i < HTML.length; i++) {
+            String expected = CmsHtmlExtractor.extractText(HTML[i], "UTF-8");
+            assertEquals(HTML[i], expected, CmsHtmlTextTruncator.getPlainTextPrefix(HTML[i], 1000));
+        }
+    }
+
+    /**
+     * Tests that the prefix is the beginning of the text extracted by the <code>StringBean</code>.<p>
+     * 
+     * @throws Exception if the test fails
+     */
+    public void testPlainTextPrefix() throws Exception {
+
+        for (int i = 0; i < HTML.length; i++) {
+            String expected = CmsHtmlExtractor.extractText(HTML[i], "UTF-8");
+            for (int length = 1; length < expected.length(); length++) {
+                String prefix = CmsHtmlTextTruncator.getPlainTextPrefix(HTML[i], length);
+                assertEquals(HTML[i], expected.substring(0, length + 1), prefix);
+            }
+        }
+    }
+}
\ No newline at end of file